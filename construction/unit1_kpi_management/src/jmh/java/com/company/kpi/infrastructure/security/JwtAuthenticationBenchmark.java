@@ -0,0 +1,94 @@
+package com.company.kpi.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request in JwtAuthenticationFilter.
+ * {@code perCallVerification} repeats the former filter path, which rebuilt the key and parser and
+ * verified the signature for each of its five claim lookups; the other two measure
+ * {@link JwtUtil#authenticate} with and without a cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    private String token;
+    private JwtUtil cachingJwtUtil;
+    private JwtUtil nonCachingJwtUtil;
+
+    @Setup
+    public void setUp() {
+        token = Jwts.builder()
+            .subject("benchmark-user")
+            .claim("userId", "user-1")
+            .claim("role", "HR")
+            .expiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+            .compact();
+        cachingJwtUtil = jwtUtil(Duration.ofMinutes(15));
+        nonCachingJwtUtil = jwtUtil(Duration.ZERO);
+    }
+
+    private static JwtUtil jwtUtil(Duration cacheMaxTtl) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 10000);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxTtl", cacheMaxTtl);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public void perCallVerification(Blackhole blackhole) {
+        String username = parse(token).getSubject();
+        blackhole.consume(parse(token).getSubject().equals(username) && !parse(token).getExpiration().before(new Date()));
+        blackhole.consume(parse(token).get("role", String.class));
+        blackhole.consume(parse(token).get("userId", String.class));
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> authenticateCacheMiss() {
+        return nonCachingJwtUtil.authenticate(token);
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> authenticateCacheHit() {
+        return cachingJwtUtil.authenticate(token);
+    }
+
+    private static Claims parse(String token) {
+        SecretKey signingKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser()
+            .verifyWith(signingKey)
+            .build()
+            .parseSignedClaims(token)
+            .getPayload();
+    }
+}
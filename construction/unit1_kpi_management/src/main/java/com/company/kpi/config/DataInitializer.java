@@ -32,6 +32,9 @@ public class DataInitializer implements CommandLineRunner {
     @Value("${app.demo.initialize-data:true}")
     private boolean initializeData;
     
+    @Value("${app.kpi.max-assignments-per-employee:10}")
+    private int maxAssignmentsPerEmployee;
+    
     @Override
     public void run(String... args) throws Exception {
         if (initializeData) {
@@ -137,7 +140,7 @@ public class DataInitializer implements CommandLineRunner {
         assignment.setEffectiveDate(LocalDate.now());
         assignment.setStatus(AssignmentStatus.ACTIVE);
         
-        kpiAssignmentRepository.save(assignment);
+        kpiAssignmentRepository.createAssignment(assignment, maxAssignmentsPerEmployee);
         logger.debug("Created assignment: {} -> {}", employeeId, kpi.getName());
     }
 }
\ No newline at end of file
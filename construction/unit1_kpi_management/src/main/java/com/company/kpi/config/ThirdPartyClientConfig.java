@@ -0,0 +1,28 @@
+package com.company.kpi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared HTTP client for third-party data APIs.
+ * A single client keeps its connection pool across requests; calls are non-blocking
+ * and complete on virtual threads.
+ */
+@Configuration
+public class ThirdPartyClientConfig {
+
+    @Bean
+    public HttpClient thirdPartyHttpClient(@Value("${app.third-party.connect-timeout:PT2S}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    }
+}
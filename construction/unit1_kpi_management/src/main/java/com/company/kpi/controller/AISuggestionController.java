@@ -2,6 +2,7 @@ package com.company.kpi.controller;
 
 import com.company.kpi.model.AISuggestion;
 import com.company.kpi.model.dto.AISuggestionDecisionRequest;
+import com.company.kpi.model.dto.GenerateAISuggestionBatchRequest;
 import com.company.kpi.model.dto.GenerateAISuggestionRequest;
 import com.company.kpi.service.AISuggestionService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,6 +20,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST Controller for AI KPI Suggestions
@@ -92,6 +94,32 @@ public class AISuggestionController {
         }
     }
     
+    @Operation(summary = "Generate AI KPI suggestions for several job titles of a department")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "AI suggestions generated successfully, keyed by job title"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data")
+    })
+    @PostMapping("/generate/batch")
+    public ResponseEntity<Map<String, List<AISuggestion>>> generateSuggestionsBatch(
+            @Valid @RequestBody GenerateAISuggestionBatchRequest request) {
+        
+        logger.info("Generating AI suggestions for {} job titles in department: {}", 
+            request.getJob_titles().size(), request.getDepartment());
+        
+        try {
+            Map<String, List<AISuggestion>> suggestions = aiSuggestionService.generateSuggestionsBatch(
+                request.getJob_titles(), request.getDepartment());
+            return ResponseEntity.status(HttpStatus.CREATED).body(suggestions);
+            
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid batch suggestion generation request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error generating AI suggestions in batch", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @Operation(summary = "Approve or reject AI suggestion")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "AI suggestion updated successfully"),
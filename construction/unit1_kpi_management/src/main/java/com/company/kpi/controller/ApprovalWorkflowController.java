@@ -2,6 +2,9 @@ package com.company.kpi.controller;
 
 import com.company.kpi.model.ApprovalWorkflow;
 import com.company.kpi.model.dto.ApprovalDecisionRequest;
+import com.company.kpi.model.dto.BulkApprovalDecisionRequest;
+import com.company.kpi.model.dto.BulkApprovalDecisionResponse;
+import com.company.kpi.model.dto.PagedResponse;
 import com.company.kpi.service.ApprovalWorkflowService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -32,32 +35,50 @@ public class ApprovalWorkflowController {
     @Autowired
     private ApprovalWorkflowService approvalWorkflowService;
     
-    @Operation(summary = "Get pending approval requests for current user (Checker)")
-    @ApiResponse(responseCode = "200", description = "Pending approval requests retrieved successfully")
+    @Operation(summary = "Get pending approval requests for current user (Checker, cursor-paginated)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Pending approval requests retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
+    })
     @GetMapping("/pending")
-    public ResponseEntity<List<ApprovalWorkflow>> getPendingApprovals(Authentication authentication) {
+    public ResponseEntity<PagedResponse<ApprovalWorkflow>> getPendingApprovals(
+            Authentication authentication,
+            @Parameter(description = "Cursor from a previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of items per page") @RequestParam(required = false, defaultValue = "50") int limit) {
         logger.debug("Getting pending approvals for checker: {}", authentication.getName());
         
         try {
-            List<ApprovalWorkflow> pendingApprovals = approvalWorkflowService.getPendingApprovals(authentication.getName());
+            PagedResponse<ApprovalWorkflow> pendingApprovals = approvalWorkflowService.getPendingApprovals(authentication.getName(), cursor, limit);
             return ResponseEntity.ok(pendingApprovals);
             
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid approval page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving pending approvals", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
-    @Operation(summary = "Get approval requests submitted by current user (Maker)")
-    @ApiResponse(responseCode = "200", description = "Maker requests retrieved successfully")
+    @Operation(summary = "Get approval requests submitted by current user (Maker, cursor-paginated)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Maker requests retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
+    })
     @GetMapping("/my-requests")
-    public ResponseEntity<List<ApprovalWorkflow>> getMyRequests(Authentication authentication) {
+    public ResponseEntity<PagedResponse<ApprovalWorkflow>> getMyRequests(
+            Authentication authentication,
+            @Parameter(description = "Cursor from a previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of items per page") @RequestParam(required = false, defaultValue = "50") int limit) {
         logger.debug("Getting requests submitted by maker: {}", authentication.getName());
         
         try {
-            List<ApprovalWorkflow> makerRequests = approvalWorkflowService.getMakerRequests(authentication.getName());
+            PagedResponse<ApprovalWorkflow> makerRequests = approvalWorkflowService.getMakerRequests(authentication.getName(), cursor, limit);
             return ResponseEntity.ok(makerRequests);
             
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid approval page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving maker requests", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -141,6 +162,34 @@ public class ApprovalWorkflowController {
         }
     }
     
+    @Operation(summary = "Approve or reject many change requests at once")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Decision applied; see per-workflow results"),
+        @ApiResponse(responseCode = "400", description = "Invalid bulk decision request")
+    })
+    @PostMapping("/bulk-decision")
+    public ResponseEntity<BulkApprovalDecisionResponse> decideRequests(
+            @Valid @RequestBody BulkApprovalDecisionRequest request,
+            Authentication authentication) {
+        
+        logger.info("Applying bulk decision {} to {} requests by checker: {}",
+            request.getDecision(), request.getWorkflowIds().size(), authentication.getName());
+        
+        try {
+            BulkApprovalDecisionResponse response = approvalWorkflowService.decideRequests(
+                request.getWorkflowIds(), request.getDecision(), authentication.getName(), request.getReason());
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid bulk decision request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error applying bulk decision", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @Operation(summary = "Get approval workflow by ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Approval workflow retrieved successfully"),
@@ -154,9 +203,7 @@ public class ApprovalWorkflowController {
         
         try {
             // In a real system, you'd check user permissions to view this workflow
-            return approvalWorkflowService.getAllApprovals().stream()
-                .filter(workflow -> workflow.getWorkflowId().equals(workflowId))
-                .findFirst()
+            return approvalWorkflowService.getWorkflowDetails(workflowId)
                 .map(workflow -> ResponseEntity.ok(workflow))
                 .orElse(ResponseEntity.notFound().build());
                 
@@ -1,7 +1,9 @@
 package com.company.kpi.controller;
 
+import com.company.kpi.model.EmployeeAssignmentSummary;
 import com.company.kpi.model.KPIAssignment;
 import com.company.kpi.model.dto.CreateKPIAssignmentRequest;
+import com.company.kpi.model.dto.PagedResponse;
 import com.company.kpi.service.KPIAssignmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -60,23 +62,31 @@ public class KPIAssignmentController {
         }
     }
     
-    @Operation(summary = "Get KPI assignments with filters")
-    @ApiResponse(responseCode = "200", description = "KPI assignments retrieved successfully")
+    @Operation(summary = "Get KPI assignments with filters (cursor-paginated)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "KPI assignments retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid filter, limit or cursor")
+    })
     @GetMapping
-    public ResponseEntity<List<KPIAssignment>> getAssignments(
+    public ResponseEntity<PagedResponse<KPIAssignment>> getAssignments(
             @Parameter(description = "Employee ID filter") @RequestParam(required = false) String employee_id,
             @Parameter(description = "Supervisor ID filter") @RequestParam(required = false) String supervisor_id,
             @Parameter(description = "KPI ID filter") @RequestParam(required = false) String kpi_id,
-            @Parameter(description = "Effective date filter") @RequestParam(required = false) String effective_date) {
+            @Parameter(description = "Effective date filter (yyyy-MM-dd)") @RequestParam(required = false) String effective_date,
+            @Parameter(description = "Cursor from a previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of items per page") @RequestParam(required = false, defaultValue = "50") int limit) {
         
-        logger.debug("Retrieving KPI assignments with filters - employee: {}, supervisor: {}, kpi: {}", 
-            employee_id, supervisor_id, kpi_id);
+        logger.debug("Retrieving KPI assignments with filters - employee: {}, supervisor: {}, kpi: {}, effective_date: {}", 
+            employee_id, supervisor_id, kpi_id, effective_date);
         
         try {
-            List<KPIAssignment> assignments = kpiAssignmentService.getAssignmentsWithFilters(
-                employee_id, supervisor_id, kpi_id, effective_date);
+            PagedResponse<KPIAssignment> assignments = kpiAssignmentService.getAssignmentsWithFilters(
+                employee_id, supervisor_id, kpi_id, effective_date, cursor, limit);
             return ResponseEntity.ok(assignments);
             
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid assignment filter request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving assignments with filters", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -105,6 +115,23 @@ public class KPIAssignmentController {
         }
     }
     
+    @Operation(summary = "Get the assignment summary for an employee")
+    @ApiResponse(responseCode = "200", description = "Employee assignment summary retrieved successfully")
+    @GetMapping("/employee/{employeeId}/summary")
+    public ResponseEntity<EmployeeAssignmentSummary> getEmployeeSummary(
+            @Parameter(description = "Employee ID") @PathVariable String employeeId) {
+        
+        logger.debug("Retrieving assignment summary for employee: {}", employeeId);
+        
+        try {
+            return ResponseEntity.ok(kpiAssignmentService.getEmployeeSummary(employeeId));
+            
+        } catch (Exception e) {
+            logger.error("Error retrieving assignment summary for: {}", employeeId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @Operation(summary = "Get assignments for a specific KPI")
     @ApiResponse(responseCode = "200", description = "KPI assignments retrieved successfully")
     @GetMapping("/kpi/{kpiDefinitionId}")
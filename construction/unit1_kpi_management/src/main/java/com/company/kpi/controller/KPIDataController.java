@@ -128,4 +128,25 @@ public class KPIDataController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+    
+    @Operation(summary = "Get data from all third-party sources concurrently",
+               description = "Sources that do not answer in time are listed under unavailable_sources")
+    @ApiResponse(responseCode = "200", description = "Available third-party data retrieved successfully")
+    @GetMapping("/all/{employeeId}")
+    public ResponseEntity<Map<String, Object>> getAllSourcesData(
+            @Parameter(description = "Employee ID") @PathVariable String employeeId,
+            @Parameter(description = "Start date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        
+        logger.info("Getting all third-party data for employee {} from {} to {}", employeeId, startDate, endDate);
+        
+        try {
+            Map<String, Object> allData = thirdPartyDataService.fetchAllSources(employeeId, startDate, endDate);
+            return ResponseEntity.ok(allData);
+            
+        } catch (Exception e) {
+            logger.error("Error retrieving third-party data for employee: {}", employeeId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
 }
\ No newline at end of file
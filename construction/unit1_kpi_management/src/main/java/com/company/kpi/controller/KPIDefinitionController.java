@@ -4,6 +4,7 @@ import com.company.kpi.model.KPICategory;
 import com.company.kpi.model.KPIDefinition;
 import com.company.kpi.model.dto.CreateKPIRequest;
 import com.company.kpi.model.dto.KPIResponse;
+import com.company.kpi.model.dto.PagedResponse;
 import com.company.kpi.service.KPIDefinitionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -69,32 +70,32 @@ public class KPIDefinitionController {
         }
     }
     
-    @Operation(summary = "Get all KPI Definitions")
-    @ApiResponse(responseCode = "200", description = "List of KPI Definitions retrieved successfully")
+    @Operation(summary = "Get KPI Definitions with filters (cursor-paginated)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "KPI Definitions retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
+    })
     @GetMapping
-    public ResponseEntity<List<KPIResponse>> getAllKPIs(
+    public ResponseEntity<PagedResponse<KPIResponse>> getAllKPIs(
             @Parameter(description = "Filter by category") @RequestParam(required = false) KPICategory category,
-            @Parameter(description = "Filter by active status") @RequestParam(required = false, defaultValue = "true") boolean activeOnly) {
+            @Parameter(description = "Filter by active status") @RequestParam(required = false, defaultValue = "true") boolean activeOnly,
+            @Parameter(description = "Cursor from a previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of items per page") @RequestParam(required = false, defaultValue = "50") int limit) {
         
         logger.debug("Retrieving KPIs - category: {}, activeOnly: {}", category, activeOnly);
         
         try {
-            List<KPIDefinition> kpis;
-            
-            if (category != null) {
-                kpis = kpiDefinitionService.getKPIsByCategory(category);
-            } else if (activeOnly) {
-                kpis = kpiDefinitionService.getActiveKPIs();
-            } else {
-                kpis = kpiDefinitionService.getAllKPIs();
-            }
+            PagedResponse<KPIDefinition> kpis = kpiDefinitionService.getKPIPage(category, activeOnly, cursor, limit);
             
-            List<KPIResponse> responses = kpis.stream()
+            List<KPIResponse> responses = kpis.getItems().stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
             
-            return ResponseEntity.ok(responses);
+            return ResponseEntity.ok(new PagedResponse<>(responses, kpis.getNextCursor()));
             
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid KPI listing request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving KPIs", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
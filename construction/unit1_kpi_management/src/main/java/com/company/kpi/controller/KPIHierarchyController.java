@@ -2,6 +2,7 @@ package com.company.kpi.controller;
 
 import com.company.kpi.model.KPIHierarchy;
 import com.company.kpi.model.dto.KPIHierarchyResponse;
+import com.company.kpi.model.dto.KPIRollupResponse;
 import com.company.kpi.service.KPIHierarchyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -35,9 +36,10 @@ public class KPIHierarchyController {
     @GetMapping
     public ResponseEntity<List<KPIHierarchyResponse>> getHierarchy(
             @Parameter(description = "Hierarchy level filter") @RequestParam(required = false) String level,
-            @Parameter(description = "Parent KPI ID filter") @RequestParam(required = false) String parent_id) {
+            @Parameter(description = "Parent KPI ID filter") @RequestParam(required = false) String parent_id,
+            @Parameter(description = "Department or unit ID filter") @RequestParam(required = false) String unit_id) {
         
-        logger.debug("Getting KPI hierarchy - level: {}, parent_id: {}", level, parent_id);
+        logger.debug("Getting KPI hierarchy - level: {}, parent_id: {}, unit_id: {}", level, parent_id, unit_id);
         
         try {
             KPIHierarchy.HierarchyLevel hierarchyLevel = null;
@@ -50,7 +52,7 @@ public class KPIHierarchyController {
                 }
             }
             
-            List<KPIHierarchyResponse> hierarchy = kpiHierarchyService.getHierarchy(hierarchyLevel, parent_id);
+            List<KPIHierarchyResponse> hierarchy = kpiHierarchyService.getHierarchy(hierarchyLevel, parent_id, unit_id);
             return ResponseEntity.ok(hierarchy);
             
         } catch (Exception e) {
@@ -59,6 +61,36 @@ public class KPIHierarchyController {
         }
     }
     
+    @Operation(summary = "Retrieve effective cascaded targets and weights for the KPI hierarchy")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "KPI roll-up retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid hierarchy level")
+    })
+    @GetMapping("/rollup")
+    public ResponseEntity<List<KPIRollupResponse>> getRollup(
+            @Parameter(description = "Hierarchy level filter") @RequestParam(required = false) String level) {
+        
+        logger.debug("Getting KPI roll-up - level: {}", level);
+        
+        try {
+            KPIHierarchy.HierarchyLevel hierarchyLevel = null;
+            if (level != null) {
+                try {
+                    hierarchyLevel = KPIHierarchy.HierarchyLevel.valueOf(level.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Invalid hierarchy level: {}", level);
+                    return ResponseEntity.badRequest().build();
+                }
+            }
+            
+            return ResponseEntity.ok(kpiHierarchyService.getRollup(hierarchyLevel));
+            
+        } catch (Exception e) {
+            logger.error("Error retrieving KPI roll-up", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @Operation(summary = "Get all child KPIs for cascading")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Child KPI relationships retrieved successfully"),
@@ -4,6 +4,7 @@ import com.company.kpi.domain.shared.DomainEvent;
 import com.company.kpi.domain.kpidefinition.KPICategory;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * Domain event raised when a KPI Definition is created
@@ -24,6 +25,18 @@ public class KPIDefinitionCreated extends DomainEvent {
         this.createdAt = createdAt;
     }
     
+    /**
+     * Restores an event read back from an event log
+     */
+    public KPIDefinitionCreated(UUID eventId, LocalDateTime occurredAt, String aggregateId, String name,
+                               KPICategory category, String createdBy, LocalDateTime createdAt) {
+        super(eventId, occurredAt, aggregateId);
+        this.name = name;
+        this.category = category;
+        this.createdBy = createdBy;
+        this.createdAt = createdAt;
+    }
+    
     public String getName() {
         return name;
     }
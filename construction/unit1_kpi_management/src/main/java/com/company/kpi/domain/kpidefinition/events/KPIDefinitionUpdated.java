@@ -3,6 +3,7 @@ package com.company.kpi.domain.kpidefinition.events;
 import com.company.kpi.domain.shared.DomainEvent;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * Domain event raised when a KPI Definition is updated
@@ -18,6 +19,16 @@ public class KPIDefinitionUpdated extends DomainEvent {
         this.updatedAt = updatedAt;
     }
     
+    /**
+     * Restores an event read back from an event log
+     */
+    public KPIDefinitionUpdated(UUID eventId, LocalDateTime occurredAt, String aggregateId, String name,
+                               LocalDateTime updatedAt) {
+        super(eventId, occurredAt, aggregateId);
+        this.name = name;
+        this.updatedAt = updatedAt;
+    }
+    
     public String getName() {
         return name;
     }
@@ -21,6 +21,16 @@ public abstract class DomainEvent {
         this.eventType = this.getClass().getSimpleName();
     }
     
+    /**
+     * Restores an event read back from an event log, keeping its original ID and time
+     */
+    protected DomainEvent(UUID eventId, LocalDateTime occurredAt, String aggregateId) {
+        this.eventId = eventId;
+        this.occurredAt = occurredAt;
+        this.aggregateId = aggregateId;
+        this.eventType = this.getClass().getSimpleName();
+    }
+    
     public UUID getEventId() {
         return eventId;
     }
@@ -0,0 +1,163 @@
+package com.company.kpi.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small in-process cache with a maximum size (least recently used entries are evicted first)
+ * and per-entry time-to-live. Expired entries are dropped lazily when they are read.
+ * All operations are thread-safe.
+ * <p>
+ * Read-through callers can take a {@link #generation(Object)} before loading a value and cache it
+ * with {@link #putIfGeneration}, which skips the put if the key was invalidated meanwhile, so a load
+ * that raced with a write never caches the value from before the write. Generations are kept per
+ * hash stripe, so an invalidation of another key in the same stripe only causes a skipped put.
+ */
+public class BoundedCache<K, V> {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final int maxSize;
+    private final Duration defaultTtl;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final long[] generations = new long[GENERATION_STRIPES];
+
+    public BoundedCache(int maxSize, Duration defaultTtl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.defaultTtl = defaultTtl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > BoundedCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, or null when the key is absent or its entry has expired
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired(System.nanoTime())) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches a value for the default time-to-live
+     */
+    public void put(K key, V value) {
+        put(key, value, defaultTtl);
+    }
+
+    /**
+     * Caches a value for the given time-to-live
+     */
+    public void put(K key, V value, Duration ttl) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttl.toNanos());
+        lock.lock();
+        try {
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current generation of the key, to pass to {@link #putIfGeneration} after loading its value
+     */
+    public long generation(K key) {
+        lock.lock();
+        try {
+            return generations[stripeOf(key)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches a value unless the key was invalidated since {@code generation} was taken
+     *
+     * @return whether the value was cached
+     */
+    public boolean putIfGeneration(K key, V value, Duration ttl, long generation) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttl.toNanos());
+        lock.lock();
+        try {
+            if (generations[stripeOf(key)] != generation) {
+                return false;
+            }
+            entries.put(key, entry);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a single entry
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generations[stripeOf(key)]++;
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+                generations[stripe]++;
+            }
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of entries currently held, including expired entries not yet dropped
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int stripeOf(Object key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.company.kpi.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous read-through cache with single-flight loading and stale-while-revalidate.
+ * <ul>
+ *   <li>Concurrent misses for the same key share one load instead of each calling the loader.</li>
+ *   <li>Once an entry's time-to-live has passed it stays usable for {@code staleWindow}: it is
+ *       returned immediately while one background load refreshes it.</li>
+ *   <li>Entries are held in a {@link BoundedCache}, so the least recently used are evicted first.</li>
+ * </ul>
+ * Failed loads are not cached; a stale entry is kept when its refresh fails.
+ */
+public class CoalescingCache<K, V> {
+
+    /**
+     * How a lookup was answered
+     */
+    public enum Lookup {
+        HIT,
+        STALE,
+        MISS,
+        COALESCED
+    }
+
+    private final BoundedCache<K, Entry<V>> entries;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration staleWindow;
+    private final Consumer<Lookup> lookupListener;
+
+    public CoalescingCache(int maxSize, Duration staleWindow, Consumer<Lookup> lookupListener) {
+        this.entries = new BoundedCache<>(maxSize, staleWindow);
+        this.staleWindow = staleWindow;
+        this.lookupListener = lookupListener;
+    }
+
+    /**
+     * Returns the cached value for the key, loading it when absent.
+     * Freshly loaded values are considered fresh for {@code ttl}.
+     */
+    public CompletableFuture<V> get(K key, Duration ttl, Supplier<CompletableFuture<V>> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.isStale(System.nanoTime())) {
+                lookupListener.accept(Lookup.HIT);
+            } else {
+                lookupListener.accept(Lookup.STALE);
+                load(key, ttl, loader);
+            }
+            return CompletableFuture.completedFuture(entry.value());
+        }
+
+        CompletableFuture<V> pending = inFlight.get(key);
+        if (pending != null) {
+            lookupListener.accept(Lookup.COALESCED);
+            return pending;
+        }
+        lookupListener.accept(Lookup.MISS);
+        return load(key, ttl, loader);
+    }
+
+    /**
+     * Removes a single entry; a load already in flight still completes and caches its value
+     */
+    public void invalidate(K key) {
+        entries.invalidate(key);
+    }
+
+    /**
+     * Number of entries currently held
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Starts a load for the key unless one is already running, and returns the running load
+     */
+    private CompletableFuture<V> load(K key, Duration ttl, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> result = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, result);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<V> loading;
+        try {
+            loading = loader.get();
+        } catch (RuntimeException e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+        loading.whenComplete((value, error) -> {
+            if (error == null && value != null) {
+                entries.put(key, new Entry<>(value, System.nanoTime() + ttl.toNanos()), ttl.plus(staleWindow));
+            }
+            inFlight.remove(key, result);
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    private record Entry<V>(V value, long freshUntilNanos) {
+
+        boolean isStale(long nowNanos) {
+            return nowNanos - freshUntilNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.company.kpi.infrastructure.events;
+
+import com.company.kpi.domain.shared.DomainEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers events to one {@link EventHandler} off the caller's thread.
+ * <p>
+ * Events are spread over a fixed number of lanes by aggregate ID. Each lane is a bounded queue that any
+ * thread may add to and one dedicated virtual thread drains, so events of the same aggregate are handled
+ * one at a time in the order they were stored. When a lane is full the {@link BackPressurePolicy} decides
+ * whether the caller waits or the event is dropped. After a drop the handler is told through
+ * {@link EventHandler#onEventsDropped()} on a worker thread, so it can resynchronize its state.
+ * <p>
+ * Metrics, tagged with the handler name: {@code kpi.events.queue.depth} (events waiting),
+ * {@code kpi.events.handler.lag} (time from enqueue to handling) and {@code kpi.events.dropped}.
+ */
+public final class AsyncEventDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncEventDispatcher.class);
+    
+    private static final Envelope STOP = new Envelope(null, 0);
+    private static final Envelope WAKE = new Envelope(null, 0);
+    
+    /**
+     * What to do with an event when its lane is full
+     */
+    public enum BackPressurePolicy {
+        /** Wait until there is space, holding up other saves meanwhile; drop only if interrupted */
+        BLOCK,
+        /** Drop the event immediately */
+        DROP
+    }
+    
+    private final EventHandler handler;
+    private final String handlerName;
+    private final List<BlockingQueue<Envelope>> lanes;
+    private final List<Thread> workers;
+    private final BackPressurePolicy backPressurePolicy;
+    private final Timer lag;
+    private final Counter dropped;
+    private final AtomicBoolean resyncRequested = new AtomicBoolean();
+    private volatile boolean closed;
+    
+    public AsyncEventDispatcher(EventHandler handler, String handlerName, int laneCount, int queueCapacity,
+                                BackPressurePolicy backPressurePolicy, MeterRegistry meterRegistry) {
+        this.handler = handler;
+        this.handlerName = handlerName;
+        this.backPressurePolicy = backPressurePolicy;
+        this.lag = Timer.builder("kpi.events.handler.lag")
+            .description("Time from enqueueing a domain event to handling it")
+            .tag("handler", handlerName)
+            .register(meterRegistry);
+        this.dropped = Counter.builder("kpi.events.dropped")
+            .description("Domain events dropped because the handler queue was full")
+            .tag("handler", handlerName)
+            .register(meterRegistry);
+        
+        this.lanes = new ArrayList<>(laneCount);
+        this.workers = new ArrayList<>(laneCount);
+        for (int lane = 0; lane < laneCount; lane++) {
+            BlockingQueue<Envelope> queue = new ArrayBlockingQueue<>(queueCapacity);
+            lanes.add(queue);
+            workers.add(Thread.ofVirtual()
+                .name("kpi-events-" + handlerName + "-" + lane)
+                .start(() -> drain(queue)));
+        }
+        Gauge.builder("kpi.events.queue.depth", this, AsyncEventDispatcher::queueDepth)
+            .description("Domain events waiting to be handled")
+            .tag("handler", handlerName)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Queues the event for the handler; returns false if it was dropped
+     */
+    public boolean dispatch(DomainEvent event) {
+        if (closed) {
+            logger.warn("Dropping event {} for handler {}: dispatcher is closed", event, handlerName);
+            dropped.increment();
+            return false;
+        }
+        BlockingQueue<Envelope> lane = lanes.get(Math.floorMod(Objects.hashCode(event.getAggregateId()), lanes.size()));
+        Envelope envelope = new Envelope(event, System.nanoTime());
+        boolean queued;
+        if (backPressurePolicy == BackPressurePolicy.BLOCK) {
+            try {
+                lane.put(envelope);
+                queued = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+        } else {
+            queued = lane.offer(envelope);
+        }
+        if (!queued) {
+            logger.warn("Dropping event {} for handler {}: queue is full", event, handlerName);
+            dropped.increment();
+            // The lane is full, so its worker sees the request after its current event; the wake-up
+            // covers a lane that drained in the meantime
+            resyncRequested.set(true);
+            lane.offer(WAKE);
+        }
+        return queued;
+    }
+    
+    /**
+     * Number of events waiting across all lanes
+     */
+    public int queueDepth() {
+        return lanes.stream().mapToInt(BlockingQueue::size).sum();
+    }
+    
+    /**
+     * Stops accepting events and waits up to {@code timeout} for queued events to be handled;
+     * workers still running after that are interrupted
+     */
+    public void close(Duration timeout) {
+        closed = true;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (BlockingQueue<Envelope> lane : lanes) {
+                if (!lane.offer(STOP, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+            }
+            for (Thread worker : workers) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !worker.join(Duration.ofNanos(remaining))) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.stream().filter(Thread::isAlive).forEach(Thread::interrupt);
+        int abandoned = queueDepth();
+        if (abandoned > 0) {
+            logger.warn("Handler {} stopped with {} events unhandled", handlerName, abandoned);
+        }
+    }
+    
+    private void drain(BlockingQueue<Envelope> queue) {
+        try {
+            while (true) {
+                Envelope envelope = queue.take();
+                if (envelope == STOP) {
+                    return;
+                }
+                if (envelope != WAKE) {
+                    lag.record(System.nanoTime() - envelope.enqueuedNanos(), TimeUnit.NANOSECONDS);
+                    try {
+                        handler.handle(envelope.event());
+                    } catch (Exception e) {
+                        logger.error("Error handling event {} with handler {}", envelope.event(), handlerName, e);
+                    }
+                }
+                if (resyncRequested.compareAndSet(true, false)) {
+                    resync();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void resync() {
+        logger.info("Resynchronizing handler {} after dropped events", handlerName);
+        try {
+            handler.onEventsDropped();
+        } catch (Exception e) {
+            logger.error("Error resynchronizing handler {}", handlerName, e);
+        }
+    }
+    
+    private record Envelope(DomainEvent event, long enqueuedNanos) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.company.kpi.infrastructure.events;
+
+import com.company.kpi.domain.shared.DomainEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heap-backed {@link EventLog} that stores events in fixed-size chunks.
+ * <p>
+ * Appending writes into the last chunk and allocates a new chunk when it is full, so existing events are
+ * never copied; only the small chunk directory grows. Each aggregate has its own chunked list, so reading
+ * an aggregate's events does not scan the whole log. Appends are serialized; reads take no lock and see
+ * every event appended before they started.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.store", havingValue = "memory", matchIfMissing = true)
+public class ChunkedEventLog implements EventLog {
+    
+    private static final int CHUNK_SIZE = 1024;
+    private static final int AGGREGATE_CHUNK_SIZE = 16;
+    
+    private volatile Chunks<DomainEvent> all = new Chunks<>(CHUNK_SIZE);
+    private volatile Map<String, Chunks<DomainEvent>> byAggregate = new ConcurrentHashMap<>();
+    
+    @Override
+    public synchronized void append(List<DomainEvent> events, Runnable onAppended) {
+        for (DomainEvent event : events) {
+            all.add(event);
+            if (event.getAggregateId() != null) {
+                byAggregate.computeIfAbsent(event.getAggregateId(), id -> new Chunks<>(AGGREGATE_CHUNK_SIZE)).add(event);
+            }
+        }
+        onAppended.run();
+    }
+    
+    @Override
+    public List<DomainEvent> readAll() {
+        return all.toList();
+    }
+    
+    @Override
+    public List<DomainEvent> readAggregate(String aggregateId) {
+        Chunks<DomainEvent> events = byAggregate.get(aggregateId);
+        return events != null ? events.toList() : List.of();
+    }
+    
+    @Override
+    public long size() {
+        return all.size();
+    }
+    
+    @Override
+    public synchronized void clear() {
+        all = new Chunks<>(CHUNK_SIZE);
+        byAggregate = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Append-only list of fixed-size chunks with a single writer and lock-free readers.
+     * The element and the chunk directory are written before {@code size}, so a reader that
+     * reads {@code size} first sees every element below it.
+     */
+    private static final class Chunks<T> {
+        
+        private final int chunkSize;
+        private volatile Object[][] directory = new Object[4][];
+        private volatile int size;
+        
+        Chunks(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+        
+        void add(T item) {
+            int index = size;
+            int chunk = index / chunkSize;
+            Object[][] current = directory;
+            if (chunk == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            if (current[chunk] == null) {
+                current[chunk] = new Object[chunkSize];
+            }
+            current[chunk][index % chunkSize] = item;
+            directory = current;
+            size = index + 1;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        @SuppressWarnings("unchecked")
+        List<T> toList() {
+            int count = size;
+            Object[][] chunks = directory;
+            List<T> items = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                items.add((T) chunks[index / chunkSize][index % chunkSize]);
+            }
+            return Collections.unmodifiableList(items);
+        }
+    }
+}
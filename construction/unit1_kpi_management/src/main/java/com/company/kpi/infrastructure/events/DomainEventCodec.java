@@ -0,0 +1,105 @@
+package com.company.kpi.infrastructure.events;
+
+import com.company.kpi.domain.kpidefinition.KPICategory;
+import com.company.kpi.domain.kpidefinition.events.KPIDefinitionCreated;
+import com.company.kpi.domain.kpidefinition.events.KPIDefinitionUpdated;
+import com.company.kpi.domain.shared.DomainEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of domain events for {@link MappedFileEventLog}.
+ * <p>
+ * An event is written as its type name, event ID, occurrence time and aggregate ID, followed by the
+ * fields of its type. Strings are modified UTF-8 and may be null. New event types need a case in
+ * both {@link #encode(DomainEvent)} and {@link #decode(byte[])}; fields may only be appended.
+ */
+public final class DomainEventCodec {
+    
+    private DomainEventCodec() {
+    }
+    
+    /**
+     * Encodes a domain event
+     */
+    public static byte[] encode(DomainEvent event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(event.getEventType());
+            out.writeLong(event.getEventId().getMostSignificantBits());
+            out.writeLong(event.getEventId().getLeastSignificantBits());
+            writeDateTime(out, event.getOccurredAt());
+            writeString(out, event.getAggregateId());
+            
+            if (event instanceof KPIDefinitionCreated created) {
+                writeString(out, created.getName());
+                writeString(out, created.getCategory() != null ? created.getCategory().name() : null);
+                writeString(out, created.getCreatedBy());
+                writeDateTime(out, created.getCreatedAt());
+            } else if (event instanceof KPIDefinitionUpdated updated) {
+                writeString(out, updated.getName());
+                writeDateTime(out, updated.getUpdatedAt());
+            } else {
+                throw new IllegalArgumentException("No encoding for domain event type " + event.getEventType());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode domain event", e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Decodes a domain event written by {@link #encode(DomainEvent)}
+     */
+    public static DomainEvent decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            String type = in.readUTF();
+            UUID eventId = new UUID(in.readLong(), in.readLong());
+            LocalDateTime occurredAt = readDateTime(in);
+            String aggregateId = readString(in);
+            
+            return switch (type) {
+                case "KPIDefinitionCreated" -> {
+                    String name = readString(in);
+                    String category = readString(in);
+                    yield new KPIDefinitionCreated(eventId, occurredAt, aggregateId, name,
+                        category != null ? KPICategory.valueOf(category) : null, readString(in), readDateTime(in));
+                }
+                case "KPIDefinitionUpdated" ->
+                    new KPIDefinitionUpdated(eventId, occurredAt, aggregateId, readString(in), readDateTime(in));
+                default -> throw new IllegalArgumentException("Unknown domain event type " + type);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode domain event", e);
+        }
+    }
+    
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    private static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        writeString(out, value != null ? value.toString() : null);
+    }
+    
+    private static LocalDateTime readDateTime(DataInput in) throws IOException {
+        String value = readString(in);
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+}
@@ -17,4 +17,19 @@ public interface EventHandler {
      * Handles the domain event
      */
     void handle(DomainEvent event);
+    
+    /**
+     * Whether the handler must run on the thread that stored the event, e.g. because callers
+     * expect its effect as soon as the save returns. Other handlers may be called asynchronously.
+     */
+    default boolean requiresSynchronousDelivery() {
+        return false;
+    }
+    
+    /**
+     * Called after events meant for this handler were dropped by asynchronous delivery, so that it can
+     * rebuild whatever it derives from them. Does nothing by default.
+     */
+    default void onEventsDropped() {
+    }
 }
\ No newline at end of file
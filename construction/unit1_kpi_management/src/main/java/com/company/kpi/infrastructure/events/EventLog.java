@@ -0,0 +1,55 @@
+package com.company.kpi.infrastructure.events;
+
+import com.company.kpi.domain.shared.DomainEvent;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of domain events, in the order they were stored.
+ * Implementations are safe for concurrent appends and reads.
+ */
+public interface EventLog {
+    
+    /**
+     * Appends events to the end of the log
+     */
+    default void append(List<DomainEvent> events) {
+        append(events, () -> {});
+    }
+    
+    /**
+     * Appends events to the end of the log and runs {@code onAppended} before any later append is
+     * written, so callers can publish events in the order they were stored. {@code onAppended} may run
+     * before the events are durable, and holds up other appends while it runs.
+     */
+    void append(List<DomainEvent> events, Runnable onAppended);
+    
+    /**
+     * All events in append order
+     */
+    List<DomainEvent> readAll();
+    
+    /**
+     * Passes every event to the consumer in append order, without holding them all in memory
+     * where the implementation allows it
+     */
+    default void replay(Consumer<DomainEvent> consumer) {
+        readAll().forEach(consumer);
+    }
+    
+    /**
+     * Events of one aggregate in append order
+     */
+    List<DomainEvent> readAggregate(String aggregateId);
+    
+    /**
+     * Number of events in the log
+     */
+    long size();
+    
+    /**
+     * Removes all events (for testing)
+     */
+    void clear();
+}
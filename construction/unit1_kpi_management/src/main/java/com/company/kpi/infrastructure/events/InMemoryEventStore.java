@@ -1,91 +1,191 @@
 package com.company.kpi.infrastructure.events;
 
 import com.company.kpi.domain.shared.DomainEvent;
+import com.company.kpi.infrastructure.events.AsyncEventDispatcher.BackPressurePolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * In-memory implementation of event store for demo purposes.
- * In production, this would be replaced with a persistent event store like Kafka.
+ * Event store: events are appended to an {@link EventLog} and published to the registered handlers.
+ * The log is kept on the heap ({@link ChunkedEventLog}) or, with {@code app.events.store=file}, in
+ * durable local files ({@link MappedFileEventLog}) that read models can be rebuilt from with
+ * {@link #replay(EventHandler)}.
+ * <p>
+ * With {@code app.events.dispatch=ASYNC} (the default) each handler gets its own
+ * {@link AsyncEventDispatcher}, so a slow handler no longer adds to the latency of the save that stored
+ * the event. Handlers that return true from {@link EventHandler#requiresSynchronousDelivery()}, and
+ * every handler with {@code SYNC}, are still called on the storing thread. Events are published while
+ * the log still orders appends, so concurrent saves reach every handler in the order they were stored.
  */
 @Component
 public class InMemoryEventStore {
     
     private static final Logger logger = LoggerFactory.getLogger(InMemoryEventStore.class);
     
-    private final List<DomainEvent> events = new CopyOnWriteArrayList<>();
-    private final List<EventHandler> handlers = new CopyOnWriteArrayList<>();
+    /**
+     * How events are delivered to handlers
+     */
+    public enum DispatchMode {
+        SYNC,
+        ASYNC
+    }
+    
+    private final EventLog eventLog;
+    private final MeterRegistry meterRegistry;
+    private final DispatchMode dispatchMode;
+    private final int lanes;
+    private final int queueCapacity;
+    private final BackPressurePolicy backPressurePolicy;
+    private final Duration shutdownTimeout;
+    private final List<Registration> handlers = new CopyOnWriteArrayList<>();
+    
+    public InMemoryEventStore(EventLog eventLog,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.events.dispatch:ASYNC}") DispatchMode dispatchMode,
+                              @Value("${app.events.async.lanes:4}") int lanes,
+                              @Value("${app.events.async.queue-capacity:10000}") int queueCapacity,
+                              @Value("${app.events.async.back-pressure:BLOCK}") BackPressurePolicy backPressurePolicy,
+                              @Value("${app.events.async.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.eventLog = eventLog;
+        this.meterRegistry = meterRegistry;
+        this.dispatchMode = dispatchMode;
+        this.lanes = lanes;
+        this.queueCapacity = queueCapacity;
+        this.backPressurePolicy = backPressurePolicy;
+        this.shutdownTimeout = shutdownTimeout;
+    }
     
     /**
      * Stores and publishes a domain event
      */
     public void store(DomainEvent event) {
-        logger.debug("Storing domain event: {}", event);
-        events.add(event);
-        publishEvent(event);
+        storeAll(List.of(event));
     }
     
     /**
      * Stores and publishes multiple domain events
      */
     public void storeAll(List<DomainEvent> events) {
-        for (DomainEvent event : events) {
-            store(event);
+        if (events.isEmpty()) {
+            return;
         }
+        logger.debug("Storing {} domain events", events.size());
+        eventLog.append(events, () -> events.forEach(this::publishEvent));
     }
     
     /**
      * Gets all stored events
      */
     public List<DomainEvent> getAllEvents() {
-        return Collections.unmodifiableList(new ArrayList<>(events));
+        return eventLog.readAll();
     }
     
     /**
      * Gets events for a specific aggregate
      */
     public List<DomainEvent> getEventsForAggregate(String aggregateId) {
-        return events.stream()
-            .filter(event -> event.getAggregateId().equals(aggregateId))
-            .toList();
+        return eventLog.readAggregate(aggregateId);
+    }
+    
+    /**
+     * Delivers every stored event the handler accepts, in the order they were stored, on the calling
+     * thread. Used to rebuild read models and caches kept from the events themselves from a durable
+     * event log at startup; handlers that re-read current state from the repositories do not need it.
+     *
+     * @return the number of events handled
+     */
+    public long replay(EventHandler handler) {
+        AtomicLong handled = new AtomicLong();
+        eventLog.replay(event -> {
+            if (handler.canHandle(event)) {
+                handler.handle(event);
+                handled.incrementAndGet();
+            }
+        });
+        logger.info("Replayed {} stored events to handler {}", handled.get(), handlerName(handler));
+        return handled.get();
     }
     
     /**
      * Registers an event handler
      */
     public void registerHandler(EventHandler handler) {
-        handlers.add(handler);
-        logger.debug("Registered event handler: {}", handler.getClass().getSimpleName());
+        String name = handlerName(handler);
+        AsyncEventDispatcher dispatcher = dispatchMode == DispatchMode.ASYNC && !handler.requiresSynchronousDelivery()
+            ? new AsyncEventDispatcher(handler, name, lanes, queueCapacity, backPressurePolicy, meterRegistry)
+            : null;
+        handlers.add(new Registration(handler, name, dispatcher));
+        logger.debug("Registered {} event handler: {}", dispatcher != null ? "async" : "sync", name);
     }
     
     /**
-     * Publishes an event to all registered handlers
+     * Publishes an event to all registered handlers. Synchronous handlers run first, so asynchronous
+     * handlers never observe state that a synchronous handler (e.g. a cache invalidation) has yet to update.
      */
     private void publishEvent(DomainEvent event) {
         logger.debug("Publishing event to {} handlers: {}", handlers.size(), event);
-        for (EventHandler handler : handlers) {
-            try {
-                if (handler.canHandle(event)) {
-                    handler.handle(event);
+        for (Registration registration : handlers) {
+            if (registration.dispatcher() == null && canHandle(registration, event)) {
+                try {
+                    registration.handler().handle(event);
+                } catch (Exception e) {
+                    logger.error("Error handling event {} with handler {}", event, registration.name(), e);
                 }
-            } catch (Exception e) {
-                logger.error("Error handling event {} with handler {}", 
-                    event, handler.getClass().getSimpleName(), e);
             }
         }
+        for (Registration registration : handlers) {
+            if (registration.dispatcher() != null && canHandle(registration, event)) {
+                registration.dispatcher().dispatch(event);
+            }
+        }
+    }
+    
+    private static boolean canHandle(Registration registration, DomainEvent event) {
+        try {
+            return registration.handler().canHandle(event);
+        } catch (Exception e) {
+            logger.error("Error checking event {} with handler {}", event, registration.name(), e);
+            return false;
+        }
     }
     
     /**
      * Clears all stored events (for testing)
      */
     public void clear() {
-        events.clear();
+        eventLog.clear();
         logger.debug("Cleared all events from event store");
     }
-}
\ No newline at end of file
+    
+    /**
+     * Lets queued events finish before the application stops
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Registration registration : handlers) {
+            if (registration.dispatcher() != null) {
+                registration.dispatcher().close(shutdownTimeout);
+            }
+        }
+    }
+    
+    /**
+     * Handler name for logs and metric tags; nested handlers are prefixed with their enclosing class
+     */
+    private static String handlerName(EventHandler handler) {
+        String name = handler.getClass().getName();
+        return name.substring(name.lastIndexOf('.') + 1).replace('$', '.');
+    }
+    
+    private record Registration(EventHandler handler, String name, AsyncEventDispatcher dispatcher) {
+    }
+}
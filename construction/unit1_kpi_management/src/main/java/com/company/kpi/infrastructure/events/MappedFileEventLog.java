@@ -0,0 +1,516 @@
+package com.company.kpi.infrastructure.events;
+
+import com.company.kpi.domain.shared.DomainEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable {@link EventLog} kept in memory-mapped, append-only segment files on local disk.
+ * <p>
+ * Each segment is a preallocated file named after the log offset of its first record. A record is the
+ * payload length, a CRC32 of the payload and the payload from {@link DomainEventCodec}; a zero length
+ * marks the end of the written data. A new segment is started when a record does not fit in the current
+ * one. On startup every segment is scanned to rebuild the aggregate ID to offsets index, and a torn
+ * record at the tail of the log (from a crash mid-write) is ignored and later overwritten.
+ * <p>
+ * Writes are made durable by group commit: one background thread forces the written range to disk and
+ * an fsync covers every append that finished writing while the previous fsync ran. With
+ * {@code app.events.file.await-sync} (the default) {@link #append(List)} returns only once its events
+ * are on disk. A failed fsync is retried with backoff; until a retry succeeds, waiting appends fail and
+ * new appends are refused before anything is written.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.store", havingValue = "file")
+public class MappedFileEventLog implements EventLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedFileEventLog.class);
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8; // Payload length + CRC32
+    private static final int MIN_SEGMENT_SIZE = 4096;
+    private static final long SYNC_RETRY_BASE_MILLIS = 10;
+    private static final long SYNC_RETRY_MAX_MILLIS = 1000;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean awaitSync;
+
+    // Segments, index and counts; reads of records below a segment's end need no lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<String, List<Long>> offsetsByAggregate = new HashMap<>();
+    private long eventCount;
+    private Segment active;
+
+    // Group commit state
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncRequested = syncLock.newCondition();
+    private final Condition synced = syncLock.newCondition();
+    private long writtenOffset;
+    private long durableOffset;
+    private volatile UncheckedIOException syncFailure;
+    private volatile boolean closed;
+    private final Thread syncThread;
+
+    public MappedFileEventLog(@Value("${app.events.file.directory:data/events}") String directory,
+                              @Value("${app.events.file.segment-size:64MB}") DataSize segmentSize,
+                              @Value("${app.events.file.await-sync:true}") boolean awaitSync) {
+        if (segmentSize.toBytes() < MIN_SEGMENT_SIZE || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Event log segment size must be between " + MIN_SEGMENT_SIZE
+                + " bytes and 2GB");
+        }
+        this.directory = Paths.get(directory);
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.awaitSync = awaitSync;
+        try {
+            Files.createDirectories(this.directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open event log in " + directory, e);
+        }
+        this.syncThread = Thread.ofPlatform().daemon().name("kpi-event-log-sync").start(this::syncLoop);
+    }
+
+    @Override
+    public void append(List<DomainEvent> events, Runnable onAppended) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<byte[]> payloads = events.stream().map(DomainEventCodec::encode).toList();
+        for (byte[] payload : payloads) {
+            if (HEADER_BYTES + payload.length > segmentSize) {
+                throw new IllegalArgumentException("Event of " + payload.length + " bytes does not fit in a log segment");
+            }
+        }
+
+        long endOffset;
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Event log is closed");
+            }
+            UncheckedIOException failure = syncFailure;
+            if (failure != null) {
+                throw new UncheckedIOException("Event log cannot sync to disk; not appending", failure.getCause());
+            }
+            for (int i = 0; i < payloads.size(); i++) {
+                byte[] payload = payloads.get(i);
+                if (active.end + HEADER_BYTES + payload.length > active.capacity()) {
+                    roll();
+                }
+                long offset = active.baseOffset + active.end;
+                active.write(payload);
+                String aggregateId = events.get(i).getAggregateId();
+                if (aggregateId != null) {
+                    offsetsByAggregate.computeIfAbsent(aggregateId, id -> new ArrayList<>()).add(offset);
+                }
+                eventCount++;
+            }
+            endOffset = active.baseOffset + active.end;
+            onAppended.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        requestSync(endOffset);
+    }
+
+    @Override
+    public List<DomainEvent> readAll() {
+        List<DomainEvent> events = new ArrayList<>();
+        replay(events::add);
+        return events;
+    }
+
+    /**
+     * Reads the segments one at a time; the consumer may append to the log while the replay runs,
+     * and will not see those appends
+     */
+    @Override
+    public void replay(Consumer<DomainEvent> consumer) {
+        List<Segment> snapshot;
+        List<Integer> ends = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            snapshot = List.copyOf(segments.values());
+            snapshot.forEach(segment -> ends.add(segment.end));
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            Segment segment = snapshot.get(i);
+            int position = 0;
+            while (position < ends.get(i)) {
+                byte[] payload = segment.readPayload(position);
+                consumer.accept(DomainEventCodec.decode(payload));
+                position += HEADER_BYTES + payload.length;
+            }
+        }
+    }
+
+    @Override
+    public List<DomainEvent> readAggregate(String aggregateId) {
+        lock.readLock().lock();
+        try {
+            List<Long> offsets = offsetsByAggregate.getOrDefault(aggregateId, List.of());
+            List<DomainEvent> events = new ArrayList<>(offsets.size());
+            for (long offset : offsets) {
+                Segment segment = segments.floorEntry(offset).getValue();
+                events.add(DomainEventCodec.decode(segment.readPayload((int) (offset - segment.baseOffset))));
+            }
+            return events;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return eventCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes every segment and starts a new one; offsets keep increasing so they are never reused
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            long nextOffset = active.baseOffset + active.end;
+            for (Segment segment : segments.values()) {
+                segment.close();
+                Files.deleteIfExists(segment.file);
+            }
+            segments.clear();
+            offsetsByAggregate.clear();
+            eventCount = 0;
+            active = openSegment(nextOffset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear event log in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Syncs outstanding writes and closes the segment files
+     */
+    @PreDestroy
+    public void close() {
+        syncLock.lock();
+        try {
+            closed = true;
+            syncRequested.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+        try {
+            syncThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to close event log segments in {}", directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Opens the existing segments and rebuilds the index from their records
+     */
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long baseOffset = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = Segment.open(file, baseOffset, (int) Math.max(segmentSize, Files.size(file)));
+            segments.put(baseOffset, segment);
+            scan(segment);
+        }
+        active = segments.isEmpty() ? openSegment(0) : segments.lastEntry().getValue();
+        active.markEnd();
+        writtenOffset = active.baseOffset + active.end;
+        durableOffset = writtenOffset;
+        logger.info("Opened event log in {} with {} events in {} segments", directory, eventCount, segments.size());
+    }
+
+    private void scan(Segment segment) {
+        int position = 0;
+        int length;
+        while ((length = segment.validRecordLength(position)) > 0) {
+            long offset = segment.baseOffset + position;
+            DomainEvent event;
+            try {
+                event = DomainEventCodec.decode(segment.readPayload(position));
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Event log record at offset " + offset + " in " + segment.file
+                    + " cannot be decoded", e);
+            }
+            if (event.getAggregateId() != null) {
+                offsetsByAggregate.computeIfAbsent(event.getAggregateId(), id -> new ArrayList<>()).add(offset);
+            }
+            eventCount++;
+            position += HEADER_BYTES + length;
+        }
+        segment.end = position;
+        if (length < 0) {
+            logger.warn("Ignoring incomplete record at offset {} in {}", segment.baseOffset + position, segment.file);
+        }
+    }
+
+    private void roll() {
+        try {
+            active = openSegment(active.baseOffset + active.end);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start a new event log segment in " + directory, e);
+        }
+        logger.debug("Rolled event log to segment {}", active.file);
+    }
+
+    private Segment openSegment(long baseOffset) throws IOException {
+        Segment segment = Segment.open(directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX)),
+            baseOffset, segmentSize);
+        segments.put(baseOffset, segment);
+        syncDirectory();
+        return segment;
+    }
+
+    /**
+     * Makes a new segment file itself durable; not supported on every platform
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.debug("Could not sync event log directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Asks the sync thread to make everything up to the offset durable, and waits for it if configured to
+     */
+    private void requestSync(long offset) {
+        syncLock.lock();
+        try {
+            writtenOffset = Math.max(writtenOffset, offset);
+            syncRequested.signal();
+            if (!awaitSync) {
+                return;
+            }
+            while (durableOffset < offset) {
+                if (syncFailure != null) {
+                    throw new UncheckedIOException("Failed to sync event log", syncFailure.getCause());
+                }
+                if (!syncThread.isAlive()) {
+                    throw new IllegalStateException("Event log is closed");
+                }
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void syncLoop() {
+        long backoffMillis = 0;
+        while (true) {
+            long from;
+            long target;
+            syncLock.lock();
+            try {
+                while (writtenOffset == durableOffset && !closed) {
+                    syncRequested.awaitUninterruptibly();
+                }
+                // On close, stop once everything is durable or the disk still fails
+                if (writtenOffset == durableOffset || (closed && syncFailure != null)) {
+                    synced.signalAll();
+                    return;
+                }
+                from = durableOffset;
+                target = writtenOffset;
+            } finally {
+                syncLock.unlock();
+            }
+
+            UncheckedIOException failure = null;
+            try {
+                force(from, target);
+            } catch (UncheckedIOException e) {
+                logger.error("Failed to sync event log in {}", directory, e);
+                failure = e;
+            }
+
+            syncLock.lock();
+            try {
+                if (failure != null) {
+                    syncFailure = failure;
+                } else {
+                    durableOffset = target;
+                    syncFailure = null;
+                }
+                synced.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+            if (failure == null) {
+                backoffMillis = 0;
+                continue;
+            }
+            backoffMillis = Math.min(Math.max(backoffMillis * 2, SYNC_RETRY_BASE_MILLIS), SYNC_RETRY_MAX_MILLIS);
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Forces the written bytes between two log offsets, across as many segments as they span
+     */
+    private void force(long from, long target) {
+        List<Segment> dirty;
+        lock.readLock().lock();
+        try {
+            dirty = segments.values().stream()
+                .filter(segment -> segment.baseOffset < target && segment.baseOffset + segment.end > from)
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (Segment segment : dirty) {
+            int start = (int) Math.max(0, from - segment.baseOffset);
+            int stop = (int) Math.min(segment.end, target - segment.baseOffset);
+            force(segment.buffer, start, stop - start);
+        }
+    }
+
+    /**
+     * Forces one range of a segment mapping to disk; package-private so tests can simulate a failing disk
+     */
+    void force(MappedByteBuffer buffer, int index, int length) {
+        buffer.force(index, length);
+    }
+
+    /**
+     * One preallocated, memory-mapped segment file. Records below {@code end} are immutable,
+     * so they can be read without locking.
+     */
+    private static final class Segment {
+
+        private final Path file;
+        private final long baseOffset;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private volatile int end;
+
+        private Segment(Path file, long baseOffset, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.baseOffset = baseOffset;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, long baseOffset, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(file, baseOffset, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        /**
+         * Writes a record at the end; the end moves only after the record and the end marker are in place
+         */
+        void write(byte[] payload) {
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            int position = end;
+            buffer.putInt(position, payload.length);
+            buffer.putInt(position + 4, (int) crc.getValue());
+            buffer.put(position + HEADER_BYTES, payload);
+            end = position + HEADER_BYTES + payload.length;
+            markEnd();
+        }
+
+        /**
+         * Writes the end marker after the last record, over any torn record left by a crash
+         */
+        void markEnd() {
+            if (end + 4 <= capacity()) {
+                buffer.putInt(end, 0);
+            }
+        }
+
+        byte[] readPayload(int position) {
+            byte[] payload = new byte[buffer.getInt(position)];
+            buffer.get(position + HEADER_BYTES, payload);
+            return payload;
+        }
+
+        /**
+         * Payload length of the record at the position: 0 at the end marker, -1 if the record is incomplete
+         */
+        int validRecordLength(int position) {
+            if (position + HEADER_BYTES > capacity()) {
+                return 0;
+            }
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                return 0;
+            }
+            if (length < 0 || position + HEADER_BYTES + length > capacity()) {
+                return -1;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(position + HEADER_BYTES, length));
+            return (int) crc.getValue() == buffer.getInt(position + 4) ? length : -1;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.company.kpi.infrastructure.health;
+
+import com.company.kpi.infrastructure.repositories.CountMode;
+import com.company.kpi.repository.interfaces.ApprovalWorkflowRepositoryInterface;
+import com.company.kpi.repository.interfaces.KPIAssignmentRepositoryInterface;
+import com.company.kpi.repository.interfaces.KPIDefinitionRepositoryInterface;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the item count of each KPI table on {@code /actuator/health}.
+ * Uses the approximate counters, so polling the endpoint does not scan the tables;
+ * the first check per table costs one DescribeTable call, which also confirms the table is reachable.
+ */
+@Component("kpiTables")
+public class TableCountsHealthIndicator implements HealthIndicator {
+    
+    private final KPIDefinitionRepositoryInterface kpiDefinitionRepository;
+    private final KPIAssignmentRepositoryInterface kpiAssignmentRepository;
+    private final ApprovalWorkflowRepositoryInterface approvalWorkflowRepository;
+    
+    public TableCountsHealthIndicator(KPIDefinitionRepositoryInterface kpiDefinitionRepository,
+                                      KPIAssignmentRepositoryInterface kpiAssignmentRepository,
+                                      ApprovalWorkflowRepositoryInterface approvalWorkflowRepository) {
+        this.kpiDefinitionRepository = kpiDefinitionRepository;
+        this.kpiAssignmentRepository = kpiAssignmentRepository;
+        this.approvalWorkflowRepository = approvalWorkflowRepository;
+    }
+    
+    @Override
+    public Health health() {
+        try {
+            return Health.up()
+                .withDetail("countMode", CountMode.APPROXIMATE)
+                .withDetail("kpiDefinitions", kpiDefinitionRepository.count(CountMode.APPROXIMATE))
+                .withDetail("kpiAssignments", kpiAssignmentRepository.count(CountMode.APPROXIMATE))
+                .withDetail("approvalWorkflows", approvalWorkflowRepository.count(CountMode.APPROXIMATE))
+                .build();
+        } catch (RuntimeException e) {
+            return Health.down(e).build();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.company.kpi.infrastructure.json;
+
+import software.amazon.awssdk.core.SdkBytes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GZIP helpers for JSON text stored as DynamoDB binary attributes
+ */
+public final class CompressedJson {
+
+    private CompressedJson() {
+    }
+
+    public static SdkBytes compress(String json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress JSON", e);
+        }
+        return SdkBytes.fromByteArray(bytes.toByteArray());
+    }
+
+    public static String decompress(SdkBytes compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(compressed.asInputStream())) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress JSON", e);
+        }
+    }
+}
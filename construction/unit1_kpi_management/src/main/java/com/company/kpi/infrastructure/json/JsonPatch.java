@@ -0,0 +1,189 @@
+package com.company.kpi.infrastructure.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON Patch (RFC 6902) support: computes the patch turning one document into another
+ * and applies such a patch.
+ * <p>
+ * Diffs use {@code add}, {@code remove} and {@code replace} only. Objects are compared member by
+ * member; arrays of equal length element by element, and arrays whose length changed are replaced
+ * as a whole, which keeps the patches small for the flat entities stored here.
+ */
+public final class JsonPatch {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private JsonPatch() {
+    }
+
+    /**
+     * Patch that turns {@code source} into {@code target}; a missing source is treated as JSON null
+     */
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode patch = NODES.arrayNode();
+        diff(orNull(source), orNull(target), "", patch);
+        return patch;
+    }
+
+    /**
+     * Applies the patch to a copy of {@code source}
+     *
+     * @throws IllegalArgumentException if the patch is malformed or does not fit the document
+     */
+    public static JsonNode apply(JsonNode source, JsonNode patch) {
+        if (patch == null || !patch.isArray()) {
+            throw new IllegalArgumentException("JSON patch must be an array of operations");
+        }
+        JsonNode document = orNull(source).deepCopy();
+        for (JsonNode operation : patch) {
+            String op = operation.path("op").asText();
+            List<String> path = parsePointer(operation.path("path").asText());
+            JsonNode value = operation.get("value");
+            switch (op) {
+                case "add", "replace" -> {
+                    if (value == null) {
+                        throw new IllegalArgumentException("JSON patch " + op + " without a value");
+                    }
+                    document = set(document, path, value.deepCopy(), "add".equals(op));
+                }
+                case "remove" -> remove(document, path);
+                default -> throw new IllegalArgumentException("Unsupported JSON patch operation: " + op);
+            }
+        }
+        return document;
+    }
+
+    private static void diff(JsonNode source, JsonNode target, String path, ArrayNode patch) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> sourceFields = source.fields();
+            while (sourceFields.hasNext()) {
+                Map.Entry<String, JsonNode> field = sourceFields.next();
+                String childPath = path + "/" + escape(field.getKey());
+                JsonNode targetValue = target.get(field.getKey());
+                if (targetValue == null) {
+                    patch.add(operation("remove", childPath, null));
+                } else {
+                    diff(field.getValue(), targetValue, childPath, patch);
+                }
+            }
+            Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+            while (targetFields.hasNext()) {
+                Map.Entry<String, JsonNode> field = targetFields.next();
+                if (!source.has(field.getKey())) {
+                    patch.add(operation("add", path + "/" + escape(field.getKey()), field.getValue()));
+                }
+            }
+        } else if (source.isArray() && target.isArray() && source.size() == target.size()) {
+            for (int i = 0; i < source.size(); i++) {
+                diff(source.get(i), target.get(i), path + "/" + i, patch);
+            }
+        } else {
+            patch.add(operation("replace", path, target));
+        }
+    }
+
+    private static ObjectNode operation(String op, String path, JsonNode value) {
+        ObjectNode operation = NODES.objectNode();
+        operation.put("op", op);
+        operation.put("path", path);
+        if (value != null) {
+            operation.set("value", value);
+        }
+        return operation;
+    }
+
+    private static JsonNode set(JsonNode document, List<String> path, JsonNode value, boolean insert) {
+        if (path.isEmpty()) {
+            return value;
+        }
+        JsonNode parent = resolve(document, path.subList(0, path.size() - 1));
+        String token = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object) {
+            object.set(token, value);
+        } else if (parent instanceof ArrayNode array) {
+            if (insert && "-".equals(token)) {
+                array.add(value);
+            } else if (insert) {
+                array.insert(index(token, array.size() + 1), value);
+            } else {
+                array.set(index(token, array.size()), value);
+            }
+        } else {
+            throw new IllegalArgumentException("JSON patch path does not exist: /" + String.join("/", path));
+        }
+        return document;
+    }
+
+    private static void remove(JsonNode document, List<String> path) {
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("JSON patch cannot remove the whole document");
+        }
+        JsonNode parent = resolve(document, path.subList(0, path.size() - 1));
+        String token = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object && object.has(token)) {
+            object.remove(token);
+        } else if (parent instanceof ArrayNode array) {
+            array.remove(index(token, array.size()));
+        } else {
+            throw new IllegalArgumentException("JSON patch path does not exist: /" + String.join("/", path));
+        }
+    }
+
+    private static JsonNode resolve(JsonNode document, List<String> path) {
+        JsonNode node = document;
+        for (String token : path) {
+            node = node.isArray() ? node.get(index(token, node.size())) : node.get(token);
+            if (node == null) {
+                throw new IllegalArgumentException("JSON patch path does not exist: /" + String.join("/", path));
+            }
+        }
+        return node;
+    }
+
+    private static int index(String token, int size) {
+        try {
+            int index = Integer.parseInt(token);
+            if (index >= 0 && index < size) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Invalid JSON patch array index: " + token);
+    }
+
+    private static List<String> parsePointer(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return tokens;
+        }
+        if (!pointer.startsWith("/")) {
+            throw new IllegalArgumentException("Invalid JSON pointer: " + pointer);
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static String escape(String token) {
+        return token.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static JsonNode orNull(JsonNode node) {
+        return node != null ? node : NullNode.getInstance();
+    }
+}
@@ -0,0 +1,75 @@
+package com.company.kpi.infrastructure.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token-bucket rate limiter.
+ * Tokens are added continuously at {@code permitsPerSecond} up to {@code capacity}, so short bursts
+ * up to the capacity are allowed while the long-run rate stays at the configured limit.
+ * All operations are thread-safe.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double permitsPerSecond;
+    private final double capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, double capacity) {
+        if (permitsPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Rate must be positive and capacity at least 1");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes one token, waiting until one is available
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            lock.lock();
+            try {
+                refill(System.nanoTime());
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / permitsPerSecond * NANOS_PER_SECOND);
+            } finally {
+                lock.unlock();
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Takes one token if one is available right now
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long nowNanos) {
+        double added = (nowNanos - lastRefillNanos) * permitsPerSecond / NANOS_PER_SECOND;
+        tokens = Math.min(capacity, tokens + added);
+        lastRefillNanos = nowNanos;
+    }
+}
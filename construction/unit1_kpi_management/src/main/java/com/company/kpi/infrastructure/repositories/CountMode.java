@@ -0,0 +1,18 @@
+package com.company.kpi.infrastructure.repositories;
+
+/**
+ * How a repository should count the items in its table
+ */
+public enum CountMode {
+    
+    /**
+     * Full parallel {@code Select.COUNT} scan of the table. Accurate, but reads every item.
+     */
+    EXACT,
+    
+    /**
+     * In-process counter seeded from DescribeTable and adjusted on save and delete.
+     * Costs no reads after seeding; suitable for health and stats endpoints.
+     */
+    APPROXIMATE
+}
@@ -10,12 +10,15 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.CreateTableEnhancedRequest;
-import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Base DynamoDB repository implementation for aggregates.
@@ -28,14 +31,22 @@ public abstract class DynamoDBRepository<T extends AggregateRoot<ID>, ID, E> imp
     protected final DynamoDbTable<E> table;
     protected final InMemoryEventStore eventStore;
     protected final String tableName;
+    protected final ParallelScanner<E> scanner;
+    protected final TableItemCounter itemCounter;
+    private final Class<E> entityClass;
     
     protected DynamoDBRepository(DynamoDbEnhancedClient dynamoDbClient, 
+                               DynamoDbClient dynamoDb,
                                InMemoryEventStore eventStore,
                                String tableName, 
-                               Class<E> entityClass) {
+                               Class<E> entityClass,
+                               int scanSegments) {
         this.eventStore = eventStore;
         this.tableName = tableName;
         this.table = dynamoDbClient.table(tableName, TableSchema.fromBean(entityClass));
+        this.scanner = new ParallelScanner<>(table, scanSegments);
+        this.itemCounter = new TableItemCounter(dynamoDb, tableName, scanSegments);
+        this.entityClass = entityClass;
         
         // Create table if it doesn't exist (for demo purposes)
         createTableIfNotExists();
@@ -49,8 +60,14 @@ public abstract class DynamoDBRepository<T extends AggregateRoot<ID>, ID, E> imp
             // Convert domain aggregate to DynamoDB entity
             E entity = toDynamoEntity(aggregate);
             
-            // Save to DynamoDB
-            table.putItem(entity);
+            // Save to DynamoDB, keeping the approximate count in step with real inserts
+            E previous = table.putItemWithResponse(PutItemEnhancedRequest.builder(entityClass)
+                .item(entity)
+                .returnValues(ReturnValue.ALL_OLD)
+                .build()).attributes();
+            if (previous == null) {
+                itemCounter.recordInsert();
+            }
             
             // Publish domain events
             if (aggregate.hasDomainEvents()) {
@@ -96,12 +113,8 @@ public abstract class DynamoDBRepository<T extends AggregateRoot<ID>, ID, E> imp
     public List<T> findAll() {
         logger.debug("Finding all aggregates in DynamoDB table: {}", tableName);
         
-        try {
-            return table.scan(ScanEnhancedRequest.builder().build())
-                .items()
-                .stream()
-                .map(this::fromDynamoEntity)
-                .collect(Collectors.toList());
+        try (Stream<T> aggregates = streamAll()) {
+            return aggregates.collect(Collectors.toList());
                 
         } catch (Exception e) {
             logger.error("Error finding all aggregates in DynamoDB", e);
@@ -109,6 +122,14 @@ public abstract class DynamoDBRepository<T extends AggregateRoot<ID>, ID, E> imp
         }
     }
     
+    /**
+     * Streams every aggregate using a parallel segmented scan, for full-table work such as
+     * migrations and exports. Items arrive in no particular order; the stream must be closed.
+     */
+    public Stream<T> streamAll() {
+        return scanner.scan().map(this::fromDynamoEntity);
+    }
+    
     @Override
     public void deleteById(ID id) {
         logger.debug("Deleting aggregate by ID in DynamoDB: {}", id);
@@ -118,7 +139,9 @@ public abstract class DynamoDBRepository<T extends AggregateRoot<ID>, ID, E> imp
                 .partitionValue(id.toString())
                 .build();
             
-            table.deleteItem(key);
+            if (table.deleteItem(key) != null) {
+                itemCounter.recordDelete();
+            }
             logger.debug("Deleted aggregate from DynamoDB: {}", id);
             
         } catch (Exception e) {
@@ -134,11 +157,18 @@ public abstract class DynamoDBRepository<T extends AggregateRoot<ID>, ID, E> imp
     
     @Override
     public long count() {
+        return count(CountMode.EXACT);
+    }
+    
+    /**
+     * Counts aggregates with a segmented {@code Select.COUNT} scan or from the maintained approximate counter
+     */
+    public long count(CountMode mode) {
         try {
-            return table.scan().items().stream().count();
+            return itemCounter.count(mode);
         } catch (Exception e) {
-            logger.error("Error counting aggregates in DynamoDB", e);
-            return 0;
+            logger.error("Error counting aggregates in DynamoDB table: {}", tableName, e);
+            throw new RuntimeException("Failed to count aggregates", e);
         }
     }
     
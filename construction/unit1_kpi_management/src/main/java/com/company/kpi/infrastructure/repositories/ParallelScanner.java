@@ -0,0 +1,185 @@
+package com.company.kpi.infrastructure.repositories;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parallel segmented scan over a DynamoDB table.
+ * Each scan splits the table into {@code totalSegments} segments, reads every segment on its own
+ * virtual thread and hands the items to the consumer through a bounded queue. Workers block when
+ * the queue is full, so a slow consumer throttles the read rate instead of buffering the table in memory.
+ * Streams returned by {@link #scan()} must be fully consumed or closed.
+ */
+public class ParallelScanner<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelScanner.class);
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1_000;
+
+    private static final Object END_OF_SCAN = new Object();
+
+    private final DynamoDbTable<T> table;
+    private final int totalSegments;
+    private final int queueCapacity;
+
+    public ParallelScanner(DynamoDbTable<T> table, int totalSegments) {
+        this(table, totalSegments, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public ParallelScanner(DynamoDbTable<T> table, int totalSegments, int queueCapacity) {
+        this.table = table;
+        this.totalSegments = Math.max(1, totalSegments);
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * Streams every item of the table
+     */
+    public Stream<T> scan() {
+        return scan(null);
+    }
+
+    /**
+     * Streams the items of the table matching the filter expression (evaluated by DynamoDB)
+     */
+    public Stream<T> scan(Expression filterExpression) {
+        ScanRun run = new ScanRun(filterExpression);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(run, Spliterator.NONNULL), false)
+            .onClose(run::cancel);
+    }
+
+    /**
+     * Reads every item of the table into a list
+     */
+    public List<T> scanAll() {
+        try (Stream<T> items = scan()) {
+            return items.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Passes every item of the table to the consumer, on the calling thread
+     */
+    public void forEach(Consumer<? super T> consumer) {
+        try (Stream<T> items = scan()) {
+            items.forEach(consumer);
+        }
+    }
+
+    /**
+     * One in-flight scan: segment workers feeding a bounded queue, drained through the iterator
+     */
+    private final class ScanRun implements Iterator<T> {
+
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicInteger runningSegments = new AtomicInteger(totalSegments);
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private volatile boolean cancelled;
+        private Object next;
+
+        ScanRun(Expression filterExpression) {
+            for (int segment = 0; segment < totalSegments; segment++) {
+                ScanEnhancedRequest request = ScanEnhancedRequest.builder()
+                    .segment(segment)
+                    .totalSegments(totalSegments)
+                    .filterExpression(filterExpression)
+                    .build();
+                executor.execute(() -> scanSegment(request));
+            }
+            executor.shutdown();
+        }
+
+        private void scanSegment(ScanEnhancedRequest request) {
+            try {
+                for (T item : table.scan(request).items()) {
+                    if (cancelled) {
+                        return;
+                    }
+                    queue.put(item);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("Scan of segment {} of {} failed", request.segment(), table.tableName(), e);
+                failure.compareAndSet(null, e);
+                cancelled = true;
+            } finally {
+                if (runningSegments.decrementAndGet() == 0) {
+                    signalEnd();
+                }
+            }
+        }
+
+        private void signalEnd() {
+            try {
+                queue.put(END_OF_SCAN);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = take();
+            }
+            if (next == END_OF_SCAN) {
+                RuntimeException error = failure.get();
+                if (error != null) {
+                    throw error;
+                }
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T item = (T) next;
+            next = null;
+            return item;
+        }
+
+        private Object take() {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new IllegalStateException("Interrupted while scanning " + table.tableName(), e);
+            }
+        }
+
+        void cancel() {
+            if (next != END_OF_SCAN) {
+                cancelled = true;
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.company.kpi.infrastructure.repositories;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the items of one DynamoDB table.
+ * Exact counts run a {@code Select.COUNT} scan split into parallel segments, so no items are
+ * transferred or deserialised. Approximate counts come from an in-process counter that is seeded
+ * once from DescribeTable's item count and then adjusted by the owning repository on inserts and deletes.
+ */
+public class TableItemCounter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TableItemCounter.class);
+    
+    private static final long UNSEEDED = -1;
+    
+    private final DynamoDbClient dynamoDb;
+    private final String tableName;
+    private final int totalSegments;
+    private final AtomicLong approximateCount = new AtomicLong(UNSEEDED);
+    
+    public TableItemCounter(DynamoDbClient dynamoDb, String tableName, int totalSegments) {
+        this.dynamoDb = dynamoDb;
+        this.tableName = tableName;
+        this.totalSegments = Math.max(1, totalSegments);
+    }
+    
+    /**
+     * Counts the table items in the requested mode
+     */
+    public long count(CountMode mode) {
+        return mode == CountMode.EXACT ? exactCount() : approximateCount();
+    }
+    
+    /**
+     * Counts every item with a parallel segmented {@code Select.COUNT} scan.
+     * The result also re-seeds the approximate counter.
+     */
+    public long exactCount() {
+        long total = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> segments = new ArrayList<>(totalSegments);
+            for (int segment = 0; segment < totalSegments; segment++) {
+                int currentSegment = segment;
+                segments.add(executor.submit(() -> countSegment(currentSegment)));
+            }
+            for (Future<Long> segment : segments) {
+                total += segment.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while counting table " + tableName, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to count table " + tableName, e.getCause());
+        }
+        
+        approximateCount.set(total);
+        return total;
+    }
+    
+    /**
+     * Returns the maintained approximate count, seeding it from DescribeTable on first use.
+     * DescribeTable's item count is refreshed by DynamoDB roughly every six hours, and each
+     * application instance only sees its own writes, so the value can drift from the exact count.
+     */
+    public long approximateCount() {
+        long current = approximateCount.get();
+        if (current != UNSEEDED) {
+            return current;
+        }
+        
+        long described = dynamoDb.describeTable(request -> request.tableName(tableName)).table().itemCount();
+        approximateCount.compareAndSet(UNSEEDED, described);
+        logger.debug("Seeded approximate item count for {} with {}", tableName, described);
+        return approximateCount.get();
+    }
+    
+    /**
+     * Records that an item was inserted (not overwritten)
+     */
+    public void recordInsert() {
+        approximateCount.getAndUpdate(count -> count == UNSEEDED ? UNSEEDED : count + 1);
+    }
+    
+    /**
+     * Records that an existing item was deleted
+     */
+    public void recordDelete() {
+        approximateCount.getAndUpdate(count -> count == UNSEEDED ? UNSEEDED : Math.max(0, count - 1));
+    }
+    
+    private long countSegment(int segment) {
+        long count = 0;
+        Map<String, AttributeValue> startKey = null;
+        do {
+            Map<String, AttributeValue> exclusiveStartKey = startKey;
+            ScanResponse response = dynamoDb.scan(request -> request
+                .tableName(tableName)
+                .select(Select.COUNT)
+                .segment(segment)
+                .totalSegments(totalSegments)
+                .exclusiveStartKey(exclusiveStartKey));
+            count += response.count();
+            startKey = response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null;
+        } while (startKey != null && !startKey.isEmpty());
+        return count;
+    }
+}
@@ -31,36 +31,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
-        // Extract JWT token from Authorization header
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.warn("JWT token extraction failed: " + e.getMessage());
-            }
-        }
-
-        // Validate token and set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt)) {
-                String role = jwtUtil.extractRole(jwt);
-                String userId = jwtUtil.extractUserId(jwt);
-                
+        // Extract and verify the JWT token from the Authorization header (one verification per request)
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            JwtPrincipal principal = jwtUtil.authenticate(jwt).orElse(null);
+            if (principal == null) {
+                logger.warn("JWT token validation failed");
+            } else {
                 // Create authentication token with role
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
+                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + principal.role());
                 UsernamePasswordAuthenticationToken authToken = 
-                    new UsernamePasswordAuthenticationToken(username, null, Collections.singletonList(authority));
+                    new UsernamePasswordAuthenticationToken(principal.username(), null, Collections.singletonList(authority));
                 
                 // Add user details to authentication
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 // Set additional user info in request attributes
-                request.setAttribute("userId", userId);
-                request.setAttribute("userRole", role);
+                request.setAttribute("userId", principal.userId());
+                request.setAttribute("userRole", principal.role());
                 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
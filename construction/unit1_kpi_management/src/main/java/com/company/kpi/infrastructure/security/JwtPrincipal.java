@@ -0,0 +1,16 @@
+package com.company.kpi.infrastructure.security;
+
+import java.time.Instant;
+
+/**
+ * Identity carried by a verified JWT
+ */
+public record JwtPrincipal(String username, String userId, String role, Instant expiresAt) {
+
+    /**
+     * A token without an expiry never counts as valid
+     */
+    public boolean isExpired(Instant now) {
+        return expiresAt == null || !now.isBefore(expiresAt);
+    }
+}
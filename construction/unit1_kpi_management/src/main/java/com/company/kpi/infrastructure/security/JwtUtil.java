@@ -1,16 +1,23 @@
 package com.company.kpi.infrastructure.security;
 
+import com.company.kpi.infrastructure.cache.BoundedCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
 import java.util.function.Function;
 
 /**
- * JWT utility class for token validation in KPI Management Service
+ * JWT utility class for token validation in KPI Management Service.
+ * The signing key and parser are built once and reused. Verified tokens are kept in a small
+ * bounded cache until they expire, so a token presented again is not verified again.
  */
 @Component
 public class JwtUtil {
@@ -18,8 +25,52 @@ public class JwtUtil {
     @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
     private String secret;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Value("${jwt.cache.max-ttl:PT15M}")
+    private Duration cacheMaxTtl;
+
+    private JwtParser parser;
+    private BoundedCache<String, JwtPrincipal> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        SecretKey signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedTokens = new BoundedCache<>(cacheMaxSize, cacheMaxTtl);
+    }
+
+    /**
+     * Verifies the token once and returns its principal, or empty if the token is invalid, expired
+     * or carries no expiry.
+     * Tokens already verified are answered from the cache until they expire.
+     */
+    public Optional<JwtPrincipal> authenticate(String token) {
+        Instant now = Instant.now();
+        JwtPrincipal cached = verifiedTokens.get(token);
+        if (cached != null && !cached.isExpired(now)) {
+            return Optional.of(cached);
+        }
+
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+        Instant expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+        JwtPrincipal principal = new JwtPrincipal(claims.getSubject(),
+                claims.get("userId", String.class), claims.get("role", String.class), expiresAt);
+        if (principal.username() == null || principal.isExpired(now)) {
+            return Optional.empty();
+        }
+
+        Duration ttl = Duration.between(now, expiresAt);
+        verifiedTokens.put(token, principal, ttl.compareTo(cacheMaxTtl) < 0 ? ttl : cacheMaxTtl);
+        return Optional.of(principal);
     }
 
     public String extractUsername(String token) {
@@ -45,10 +96,7 @@ public class JwtUtil {
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
+            return parser.parseSignedClaims(token)
                     .getPayload();
         } catch (JwtException e) {
             throw new RuntimeException("Invalid JWT token", e);
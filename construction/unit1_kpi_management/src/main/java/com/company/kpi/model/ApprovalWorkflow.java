@@ -1,7 +1,12 @@
 package com.company.kpi.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
 
 import java.time.LocalDateTime;
 
@@ -11,11 +16,36 @@ import java.time.LocalDateTime;
 @DynamoDbBean
 public class ApprovalWorkflow {
     
+    /**
+     * GSI keyed by checker and status (sorted by creation time) for the checker inbox
+     */
+    public static final String CHECKER_STATUS_INDEX = "checkerStatus-createdAt-index";
+    
+    /**
+     * GSI keyed by maker (sorted by submission time) for "my requests"
+     */
+    public static final String MAKER_INDEX = "makerId-createdAt-index";
+    
+    /**
+     * GSI keyed by status (sorted by priority, highest first, then creation time) for status queues
+     */
+    public static final String STATUS_PRIORITY_INDEX = "status-priorityRank-index";
+    
+    /**
+     * GSI keyed by the changed entity (sorted by creation time) for per-entity history
+     */
+    public static final String ENTITY_INDEX = "entityId-createdAt-index";
+    
     private String workflowId;
     private ChangeRequestType requestType;
     private String entityId; // ID of the entity being changed (KPI ID, Assignment ID, etc.)
     private String originalData; // JSON representation of original data
     private String proposedData; // JSON representation of proposed changes
+    private SdkBytes compressedOriginalData; // GZIP of originalData when it is large
+    private String baseVersion; // updatedAt of the original entity the change is based on
+    private String changePatch; // JSON Patch from original to proposed data
+    private SdkBytes compressedChangePatch; // GZIP of changePatch when it is large
+    private Boolean baseVersionChanged; // Set on rebuilt views only, never stored
     private String justification;
     private String makerId; // User who initiated the change
     private String checkerId; // User who will approve/reject
@@ -47,6 +77,7 @@ public class ApprovalWorkflow {
     public ChangeRequestType getRequestType() { return requestType; }
     public void setRequestType(ChangeRequestType requestType) { this.requestType = requestType; }
     
+    @DynamoDbSecondaryPartitionKey(indexNames = ENTITY_INDEX)
     public String getEntityId() { return entityId; }
     public void setEntityId(String entityId) { this.entityId = entityId; }
     
@@ -56,15 +87,36 @@ public class ApprovalWorkflow {
     public String getProposedData() { return proposedData; }
     public void setProposedData(String proposedData) { this.proposedData = proposedData; }
     
+    @JsonIgnore
+    public SdkBytes getCompressedOriginalData() { return compressedOriginalData; }
+    public void setCompressedOriginalData(SdkBytes compressedOriginalData) { this.compressedOriginalData = compressedOriginalData; }
+    
+    public String getBaseVersion() { return baseVersion; }
+    public void setBaseVersion(String baseVersion) { this.baseVersion = baseVersion; }
+    
+    @JsonIgnore
+    public String getChangePatch() { return changePatch; }
+    public void setChangePatch(String changePatch) { this.changePatch = changePatch; }
+    
+    @JsonIgnore
+    public SdkBytes getCompressedChangePatch() { return compressedChangePatch; }
+    public void setCompressedChangePatch(SdkBytes compressedChangePatch) { this.compressedChangePatch = compressedChangePatch; }
+    
+    @DynamoDbIgnore
+    public Boolean getBaseVersionChanged() { return baseVersionChanged; }
+    public void setBaseVersionChanged(Boolean baseVersionChanged) { this.baseVersionChanged = baseVersionChanged; }
+    
     public String getJustification() { return justification; }
     public void setJustification(String justification) { this.justification = justification; }
     
+    @DynamoDbSecondaryPartitionKey(indexNames = MAKER_INDEX)
     public String getMakerId() { return makerId; }
     public void setMakerId(String makerId) { this.makerId = makerId; }
     
     public String getCheckerId() { return checkerId; }
     public void setCheckerId(String checkerId) { this.checkerId = checkerId; }
     
+    @DynamoDbSecondaryPartitionKey(indexNames = STATUS_PRIORITY_INDEX)
     public ApprovalStatus getStatus() { return status; }
     public void setStatus(ApprovalStatus status) { this.status = status; }
     
@@ -74,6 +126,7 @@ public class ApprovalWorkflow {
     public String getDecisionReason() { return decisionReason; }
     public void setDecisionReason(String decisionReason) { this.decisionReason = decisionReason; }
     
+    @DynamoDbSecondarySortKey(indexNames = {CHECKER_STATUS_INDEX, MAKER_INDEX, ENTITY_INDEX})
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
@@ -83,6 +136,30 @@ public class ApprovalWorkflow {
     public LocalDateTime getDueDate() { return dueDate; }
     public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; }
     
+    // Derived index keys; computed from the fields above, so they can never go out of sync
+    @JsonIgnore
+    @DynamoDbSecondaryPartitionKey(indexNames = CHECKER_STATUS_INDEX)
+    public String getCheckerStatus() { return checkerStatusOf(checkerId, status); }
+    public void setCheckerStatus(String checkerStatus) { /* derived */ }
+    
+    @JsonIgnore
+    @DynamoDbSecondarySortKey(indexNames = STATUS_PRIORITY_INDEX)
+    public String getPriorityRank() {
+        if (priority == null || createdAt == null) {
+            return null;
+        }
+        // Highest priority gets the lowest rank, so an ascending query returns it first
+        return (Priority.values().length - 1 - priority.ordinal()) + "#" + createdAt;
+    }
+    public void setPriorityRank(String priorityRank) { /* derived */ }
+    
+    /**
+     * Checker inbox key for a checker and status
+     */
+    public static String checkerStatusOf(String checkerId, ApprovalStatus status) {
+        return checkerId != null && status != null ? checkerId + "#" + status.name() : null;
+    }
+    
     // Additional methods for interface compatibility
     public String getId() { return workflowId; }
     
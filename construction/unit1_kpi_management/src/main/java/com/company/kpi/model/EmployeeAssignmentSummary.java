@@ -0,0 +1,62 @@
+package com.company.kpi.model;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Per-employee summary of active KPI assignments: count, total weight and a version bumped on every change.
+ * Written in the same transaction as each assignment change, so it always agrees with the assignment table.
+ */
+@DynamoDbBean
+public class EmployeeAssignmentSummary {
+
+    public static final String ACTIVE_COUNT = "activeCount";
+    public static final String TOTAL_CUSTOM_WEIGHT = "totalCustomWeight";
+    public static final String VERSION = "version";
+    public static final String UPDATED_AT = "updatedAt";
+
+    private String employeeId;
+    private int activeCount;
+    private BigDecimal totalCustomWeight;
+    private long version;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public EmployeeAssignmentSummary() {}
+
+    public EmployeeAssignmentSummary(String employeeId, int activeCount, BigDecimal totalCustomWeight) {
+        this.employeeId = employeeId;
+        this.activeCount = activeCount;
+        this.totalCustomWeight = totalCustomWeight;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Summary for an employee with no assignment history
+     */
+    public static EmployeeAssignmentSummary empty(String employeeId) {
+        EmployeeAssignmentSummary summary = new EmployeeAssignmentSummary(employeeId, 0, BigDecimal.ZERO);
+        summary.setUpdatedAt(null);
+        return summary;
+    }
+
+    // Getters and Setters
+    @DynamoDbPartitionKey
+    public String getEmployeeId() { return employeeId; }
+    public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+
+    public int getActiveCount() { return activeCount; }
+    public void setActiveCount(int activeCount) { this.activeCount = activeCount; }
+
+    public BigDecimal getTotalCustomWeight() { return totalCustomWeight; }
+    public void setTotalCustomWeight(BigDecimal totalCustomWeight) { this.totalCustomWeight = totalCustomWeight; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,78 @@
+package com.company.kpi.model;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one third-party ingestion run for one data source.
+ * Employees are processed in ID order; every employee up to and including
+ * {@code lastCompletedEmployeeId} has been ingested, so an interrupted run resumes after it.
+ */
+@DynamoDbBean
+public class IngestionCheckpoint {
+
+    private String checkpointId;
+    private String source;
+    private LocalDate runDate;
+    private String lastCompletedEmployeeId;
+    private long processedCount;
+    private long failedCount;
+    private Status status;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public IngestionCheckpoint() {}
+
+    public IngestionCheckpoint(String source, LocalDate runDate) {
+        this.checkpointId = idOf(source, runDate);
+        this.source = source;
+        this.runDate = runDate;
+        this.status = Status.RUNNING;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Checkpoint ID for a source and run date
+     */
+    public static String idOf(String source, LocalDate runDate) {
+        return source + "#" + runDate;
+    }
+
+    // Getters and Setters
+    @DynamoDbPartitionKey
+    public String getCheckpointId() { return checkpointId; }
+    public void setCheckpointId(String checkpointId) { this.checkpointId = checkpointId; }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public LocalDate getRunDate() { return runDate; }
+    public void setRunDate(LocalDate runDate) { this.runDate = runDate; }
+
+    public String getLastCompletedEmployeeId() { return lastCompletedEmployeeId; }
+    public void setLastCompletedEmployeeId(String lastCompletedEmployeeId) { this.lastCompletedEmployeeId = lastCompletedEmployeeId; }
+
+    public long getProcessedCount() { return processedCount; }
+    public void setProcessedCount(long processedCount) { this.processedCount = processedCount; }
+
+    public long getFailedCount() { return failedCount; }
+    public void setFailedCount(long failedCount) { this.failedCount = failedCount; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    /**
+     * Run status
+     */
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
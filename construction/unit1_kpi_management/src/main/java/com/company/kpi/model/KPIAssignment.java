@@ -2,6 +2,8 @@ package com.company.kpi.model;
 
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
 
 import java.math.BigDecimal;
@@ -14,6 +16,21 @@ import java.time.LocalDateTime;
 @DynamoDbBean
 public class KPIAssignment {
     
+    /**
+     * GSI keyed by KPI Definition ID (sorted by employee) for "who has KPI X" lookups
+     */
+    public static final String KPI_DEFINITION_INDEX = "kpiDefinitionId-employeeId-index";
+    
+    /**
+     * GSI keyed by assignment ID so by-id operations resolve the composite key in one query
+     */
+    public static final String ASSIGNMENT_ID_INDEX = "assignmentId-index";
+    
+    /**
+     * GSI keyed by supervisor ID (sorted by employee) for team views
+     */
+    public static final String SUPERVISOR_INDEX = "supervisorId-employeeId-index";
+    
     private String employeeId;
     private String kpiDefinitionId;
     private String assignmentId;
@@ -45,16 +62,20 @@ public class KPIAssignment {
     
     // Getters and Setters
     @DynamoDbPartitionKey
+    @DynamoDbSecondarySortKey(indexNames = {KPI_DEFINITION_INDEX, SUPERVISOR_INDEX})
     public String getEmployeeId() { return employeeId; }
     public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
     
     @DynamoDbSortKey
+    @DynamoDbSecondaryPartitionKey(indexNames = KPI_DEFINITION_INDEX)
     public String getKpiDefinitionId() { return kpiDefinitionId; }
     public void setKpiDefinitionId(String kpiDefinitionId) { this.kpiDefinitionId = kpiDefinitionId; }
     
+    @DynamoDbSecondaryPartitionKey(indexNames = ASSIGNMENT_ID_INDEX)
     public String getAssignmentId() { return assignmentId; }
     public void setAssignmentId(String assignmentId) { this.assignmentId = assignmentId; }
     
+    @DynamoDbSecondaryPartitionKey(indexNames = SUPERVISOR_INDEX)
     public String getSupervisorId() { return supervisorId; }
     public void setSupervisorId(String supervisorId) { this.supervisorId = supervisorId; }
     
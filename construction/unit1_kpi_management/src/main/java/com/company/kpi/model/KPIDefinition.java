@@ -1,7 +1,10 @@
 package com.company.kpi.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,6 +15,21 @@ import java.time.LocalDateTime;
 @DynamoDbBean
 public class KPIDefinition {
     
+    /**
+     * GSI keyed by category, sorted by name
+     */
+    public static final String CATEGORY_INDEX = "category-name-index";
+    
+    /**
+     * Sparse GSI holding only active definitions (see {@link #getActiveFlag()}), sorted by name
+     */
+    public static final String ACTIVE_INDEX = "activeFlag-name-index";
+    
+    /**
+     * Value of {@code activeFlag} on active definitions
+     */
+    public static final String ACTIVE_FLAG = "ACTIVE";
+    
     private String id;
     private String name;
     private String description;
@@ -50,12 +68,14 @@ public class KPIDefinition {
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
     
+    @DynamoDbSecondarySortKey(indexNames = {CATEGORY_INDEX, ACTIVE_INDEX})
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
     
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     
+    @DynamoDbSecondaryPartitionKey(indexNames = CATEGORY_INDEX)
     public KPICategory getCategory() { return category; }
     public void setCategory(KPICategory category) { this.category = category; }
     
@@ -108,6 +128,12 @@ public class KPIDefinition {
     public boolean isActive() { return isActive; }
     public void setActive(boolean active) { isActive = active; }
     
+    // Derived index key: only present on active definitions, so inactive ones stay out of the active index
+    @JsonIgnore
+    @DynamoDbSecondaryPartitionKey(indexNames = ACTIVE_INDEX)
+    public String getActiveFlag() { return isActive ? ACTIVE_FLAG : null; }
+    public void setActiveFlag(String activeFlag) { /* derived */ }
+    
     // Department field for filtering (can be derived from other fields or set separately)
     public String getDepartment() { 
         // For now, return a default or derive from category
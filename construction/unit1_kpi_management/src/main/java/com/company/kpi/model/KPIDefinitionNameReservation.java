@@ -0,0 +1,34 @@
+package com.company.kpi.model;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+/**
+ * Claims a KPI Definition name for one definition.
+ * Keyed by name, so uniqueness is checked with a single read and enforced with a conditional write.
+ */
+@DynamoDbBean
+public class KPIDefinitionNameReservation {
+
+    public static final String NAME = "name";
+    public static final String KPI_ID = "kpiId";
+
+    private String name;
+    private String kpiId;
+
+    // Constructors
+    public KPIDefinitionNameReservation() {}
+
+    public KPIDefinitionNameReservation(String name, String kpiId) {
+        this.name = name;
+        this.kpiId = kpiId;
+    }
+
+    // Getters and Setters
+    @DynamoDbPartitionKey
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getKpiId() { return kpiId; }
+    public void setKpiId(String kpiId) { this.kpiId = kpiId; }
+}
@@ -0,0 +1,63 @@
+package com.company.kpi.model;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Third-party metrics ingested for one employee, data source and day.
+ * Keyed by employee, with {@code source#date} as sort key, so re-ingesting a day overwrites it.
+ */
+@DynamoDbBean
+public class ThirdPartyMetricSnapshot {
+
+    private String employeeId;
+    private String metricKey;
+    private String source;
+    private LocalDate periodDate;
+    private Map<String, String> metrics;
+    private LocalDateTime ingestedAt;
+
+    // Constructors
+    public ThirdPartyMetricSnapshot() {}
+
+    public ThirdPartyMetricSnapshot(String employeeId, String source, LocalDate periodDate, Map<String, Object> data) {
+        this.employeeId = employeeId;
+        this.metricKey = source + "#" + periodDate;
+        this.source = source;
+        this.periodDate = periodDate;
+        this.metrics = new LinkedHashMap<>();
+        data.forEach((name, value) -> {
+            if (value != null) {
+                metrics.put(name, value.toString());
+            }
+        });
+        this.ingestedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    @DynamoDbPartitionKey
+    public String getEmployeeId() { return employeeId; }
+    public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+
+    @DynamoDbSortKey
+    public String getMetricKey() { return metricKey; }
+    public void setMetricKey(String metricKey) { this.metricKey = metricKey; }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public LocalDate getPeriodDate() { return periodDate; }
+    public void setPeriodDate(LocalDate periodDate) { this.periodDate = periodDate; }
+
+    public Map<String, String> getMetrics() { return metrics; }
+    public void setMetrics(Map<String, String> metrics) { this.metrics = metrics; }
+
+    public LocalDateTime getIngestedAt() { return ingestedAt; }
+    public void setIngestedAt(LocalDateTime ingestedAt) { this.ingestedAt = ingestedAt; }
+}
@@ -0,0 +1,51 @@
+package com.company.kpi.model.dto;
+
+import com.company.kpi.model.ApprovalStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request to approve or reject several approval workflows at once
+ */
+@Schema(description = "Bulk approval workflow decision request")
+public class BulkApprovalDecisionRequest {
+    
+    public static final int MAX_WORKFLOWS = 500;
+    
+    @Schema(description = "IDs of the workflows to decide", example = "[\"wf-1\", \"wf-2\"]")
+    @NotEmpty(message = "At least one workflow ID is required")
+    @Size(max = MAX_WORKFLOWS, message = "At most " + MAX_WORKFLOWS + " workflows can be decided at once")
+    private List<String> workflowIds;
+    
+    @Schema(description = "Decision applied to every workflow (APPROVED or REJECTED)", example = "APPROVED")
+    @NotNull(message = "Decision is required")
+    private ApprovalStatus decision;
+    
+    @Schema(description = "Reason for approval/rejection", example = "Quarterly assignments reviewed")
+    @NotBlank(message = "Reason is required")
+    private String reason;
+    
+    // Constructors
+    public BulkApprovalDecisionRequest() {}
+    
+    public BulkApprovalDecisionRequest(List<String> workflowIds, ApprovalStatus decision, String reason) {
+        this.workflowIds = workflowIds;
+        this.decision = decision;
+        this.reason = reason;
+    }
+    
+    // Getters and setters
+    public List<String> getWorkflowIds() { return workflowIds; }
+    public void setWorkflowIds(List<String> workflowIds) { this.workflowIds = workflowIds; }
+    
+    public ApprovalStatus getDecision() { return decision; }
+    public void setDecision(ApprovalStatus decision) { this.decision = decision; }
+    
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
@@ -0,0 +1,92 @@
+package com.company.kpi.model.dto;
+
+import com.company.kpi.model.ApprovalStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk approval decision, one result per requested workflow in request order
+ */
+@Schema(description = "Bulk approval workflow decision result")
+public class BulkApprovalDecisionResponse {
+    
+    /**
+     * What happened to a single workflow
+     */
+    public enum Outcome {
+        APPLIED,
+        NOT_FOUND,
+        INVALID,
+        CONFLICT,
+        FAILED
+    }
+    
+    @Schema(description = "Decision that was applied")
+    private ApprovalStatus decision;
+    
+    @Schema(description = "Number of distinct workflows requested")
+    private int requested;
+    
+    @Schema(description = "Number of workflows the decision was applied to")
+    private int applied;
+    
+    @Schema(description = "Per-workflow results")
+    private List<ItemResult> results;
+    
+    // Constructors
+    public BulkApprovalDecisionResponse() {}
+    
+    public BulkApprovalDecisionResponse(ApprovalStatus decision, List<ItemResult> results) {
+        this.decision = decision;
+        this.results = results;
+        this.requested = results.size();
+        this.applied = (int) results.stream().filter(result -> result.getOutcome() == Outcome.APPLIED).count();
+    }
+    
+    // Getters and setters
+    public ApprovalStatus getDecision() { return decision; }
+    public void setDecision(ApprovalStatus decision) { this.decision = decision; }
+    
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+    
+    public int getApplied() { return applied; }
+    public void setApplied(int applied) { this.applied = applied; }
+    
+    public List<ItemResult> getResults() { return results; }
+    public void setResults(List<ItemResult> results) { this.results = results; }
+    
+    /**
+     * Result for a single workflow
+     */
+    @Schema(description = "Bulk decision result for one workflow")
+    public static class ItemResult {
+        
+        @Schema(description = "Workflow ID")
+        private String workflowId;
+        
+        @Schema(description = "Outcome for this workflow")
+        private Outcome outcome;
+        
+        @Schema(description = "Why the decision was not applied", example = "Request is not in pending status")
+        private String message;
+        
+        public ItemResult() {}
+        
+        public ItemResult(String workflowId, Outcome outcome, String message) {
+            this.workflowId = workflowId;
+            this.outcome = outcome;
+            this.message = message;
+        }
+        
+        public String getWorkflowId() { return workflowId; }
+        public void setWorkflowId(String workflowId) { this.workflowId = workflowId; }
+        
+        public Outcome getOutcome() { return outcome; }
+        public void setOutcome(Outcome outcome) { this.outcome = outcome; }
+        
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
@@ -0,0 +1,41 @@
+package com.company.kpi.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request to generate AI KPI suggestions for several job titles of one department
+ */
+@Schema(description = "Request to generate AI KPI suggestions for several job titles")
+public class GenerateAISuggestionBatchRequest {
+    
+    public static final int MAX_JOB_TITLES = 500;
+    
+    @Schema(description = "Job titles to generate suggestions for", example = "[\"Sales Manager\", \"Account Executive\"]")
+    @NotEmpty(message = "At least one job title is required")
+    @Size(max = MAX_JOB_TITLES, message = "At most " + MAX_JOB_TITLES + " job titles can be generated at once")
+    private List<String> job_titles;
+    
+    @Schema(description = "Department", example = "Sales")
+    @NotBlank(message = "Department is required")
+    private String department;
+    
+    // Constructors
+    public GenerateAISuggestionBatchRequest() {}
+    
+    public GenerateAISuggestionBatchRequest(List<String> jobTitles, String department) {
+        this.job_titles = jobTitles;
+        this.department = department;
+    }
+    
+    // Getters and setters
+    public List<String> getJob_titles() { return job_titles; }
+    public void setJob_titles(List<String> job_titles) { this.job_titles = job_titles; }
+    
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+}
@@ -0,0 +1,40 @@
+package com.company.kpi.model.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Filter criteria for KPI Assignment searches. All fields are optional.
+ */
+public class KPIAssignmentQuery {
+    
+    private String employeeId;
+    private String supervisorId;
+    private String kpiDefinitionId;
+    private LocalDate effectiveDate;
+    
+    // Constructors
+    public KPIAssignmentQuery() {}
+    
+    public KPIAssignmentQuery(String employeeId, String supervisorId, String kpiDefinitionId, LocalDate effectiveDate) {
+        this.employeeId = employeeId;
+        this.supervisorId = supervisorId;
+        this.kpiDefinitionId = kpiDefinitionId;
+        this.effectiveDate = effectiveDate;
+    }
+    
+    // Getters and Setters
+    public String getEmployeeId() { return employeeId; }
+    public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+    
+    public String getSupervisorId() { return supervisorId; }
+    public void setSupervisorId(String supervisorId) { this.supervisorId = supervisorId; }
+    
+    public String getKpiDefinitionId() { return kpiDefinitionId; }
+    public void setKpiDefinitionId(String kpiDefinitionId) { this.kpiDefinitionId = kpiDefinitionId; }
+    
+    /**
+     * Date on which returned assignments must be in effect
+     */
+    public LocalDate getEffectiveDate() { return effectiveDate; }
+    public void setEffectiveDate(LocalDate effectiveDate) { this.effectiveDate = effectiveDate; }
+}
@@ -0,0 +1,85 @@
+package com.company.kpi.model.dto;
+
+import com.company.kpi.model.KPIHierarchy;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Effective (cascaded) target and weight of a KPI in the hierarchy
+ */
+@Schema(description = "KPI hierarchy roll-up entry with cascaded target and weight")
+public class KPIRollupResponse {
+
+    @Schema(description = "KPI ID")
+    private String kpiId;
+
+    @Schema(description = "KPI name")
+    private String kpiName;
+
+    @Schema(description = "Hierarchy level")
+    private KPIHierarchy.HierarchyLevel level;
+
+    @Schema(description = "Unit/Department ID")
+    private String unitId;
+
+    @Schema(description = "Parent KPI IDs the target cascades from (empty for root KPIs)")
+    private List<String> parentKpiIds;
+
+    @Schema(description = "Default target value of the KPI definition")
+    private BigDecimal defaultTargetValue;
+
+    @Schema(description = "Effective target value after cascading from parent KPIs")
+    private BigDecimal effectiveTargetValue;
+
+    @Schema(description = "Target unit")
+    private String targetUnit;
+
+    @Schema(description = "Effective weight of the KPI relative to the company level, in percent")
+    private Double effectiveWeight;
+
+    @Schema(description = "When this entry was last computed")
+    private LocalDateTime computedAt;
+
+    // Constructors
+    public KPIRollupResponse() {}
+
+    public KPIRollupResponse(String kpiId, String kpiName, KPIHierarchy.HierarchyLevel level) {
+        this.kpiId = kpiId;
+        this.kpiName = kpiName;
+        this.level = level;
+    }
+
+    // Getters and setters
+    public String getKpiId() { return kpiId; }
+    public void setKpiId(String kpiId) { this.kpiId = kpiId; }
+
+    public String getKpiName() { return kpiName; }
+    public void setKpiName(String kpiName) { this.kpiName = kpiName; }
+
+    public KPIHierarchy.HierarchyLevel getLevel() { return level; }
+    public void setLevel(KPIHierarchy.HierarchyLevel level) { this.level = level; }
+
+    public String getUnitId() { return unitId; }
+    public void setUnitId(String unitId) { this.unitId = unitId; }
+
+    public List<String> getParentKpiIds() { return parentKpiIds; }
+    public void setParentKpiIds(List<String> parentKpiIds) { this.parentKpiIds = parentKpiIds; }
+
+    public BigDecimal getDefaultTargetValue() { return defaultTargetValue; }
+    public void setDefaultTargetValue(BigDecimal defaultTargetValue) { this.defaultTargetValue = defaultTargetValue; }
+
+    public BigDecimal getEffectiveTargetValue() { return effectiveTargetValue; }
+    public void setEffectiveTargetValue(BigDecimal effectiveTargetValue) { this.effectiveTargetValue = effectiveTargetValue; }
+
+    public String getTargetUnit() { return targetUnit; }
+    public void setTargetUnit(String targetUnit) { this.targetUnit = targetUnit; }
+
+    public Double getEffectiveWeight() { return effectiveWeight; }
+    public void setEffectiveWeight(Double effectiveWeight) { this.effectiveWeight = effectiveWeight; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
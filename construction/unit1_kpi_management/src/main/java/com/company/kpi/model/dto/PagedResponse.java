@@ -0,0 +1,40 @@
+package com.company.kpi.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Cursor-paginated response. The next cursor is an opaque token that is passed back
+ * to fetch the following page; it is null once the last page has been returned.
+ */
+@Schema(description = "Cursor-paginated response")
+public class PagedResponse<T> {
+    
+    @Schema(description = "Items in this page")
+    private List<T> items;
+    
+    @Schema(description = "Opaque cursor for the next page (null when there are no more pages)")
+    private String nextCursor;
+    
+    // Constructors
+    public PagedResponse() {}
+    
+    public PagedResponse(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    @Schema(description = "Number of items in this page")
+    public int getCount() { return items != null ? items.size() : 0; }
+    
+    @Schema(description = "Whether more pages are available")
+    public boolean isHasMore() { return nextCursor != null; }
+}
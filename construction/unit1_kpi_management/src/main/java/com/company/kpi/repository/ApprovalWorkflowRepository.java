@@ -1,36 +1,101 @@
 package com.company.kpi.repository;
 
+import com.company.kpi.infrastructure.repositories.CountMode;
+import com.company.kpi.infrastructure.repositories.ParallelScanner;
+import com.company.kpi.infrastructure.repositories.TableItemCounter;
 import com.company.kpi.model.ApprovalStatus;
 import com.company.kpi.model.ApprovalWorkflow;
+import com.company.kpi.model.dto.PagedResponse;
 import com.company.kpi.repository.interfaces.ApprovalWorkflowRepositoryInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.CreateTableEnhancedRequest;
-import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.EnhancedGlobalSecondaryIndex;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+import software.amazon.awssdk.services.dynamodb.model.Put;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
- * DynamoDB repository for Approval Workflow
+ * DynamoDB repository for Approval Workflow.
+ * Lookups by checker, maker, status and entity are served by global secondary indexes
+ * (see {@link ApprovalWorkflow}), so their cost depends on the result size, not the table size.
  */
 @Repository("approvalWorkflowRepositoryImpl")
 public class ApprovalWorkflowRepository implements ApprovalWorkflowRepositoryInterface {
     
+    private static final Logger logger = LoggerFactory.getLogger(ApprovalWorkflowRepository.class);
+    
+    private final DynamoDbClient dynamoDb;
     private final DynamoDbTable<ApprovalWorkflow> table;
     private final String tableName;
+    private final TableItemCounter itemCounter;
+    private final ParallelScanner<ApprovalWorkflow> scanner;
+    private final DynamoDbIndex<ApprovalWorkflow> checkerStatusIndex;
+    private final DynamoDbIndex<ApprovalWorkflow> makerIndex;
+    private final DynamoDbIndex<ApprovalWorkflow> statusPriorityIndex;
+    private final DynamoDbIndex<ApprovalWorkflow> entityIndex;
+    
+    /**
+     * Upper bound on index pages read to fill one API page
+     */
+    private static final int MAX_PAGE_ROUNDS = 10;
+    
+    private static final int BATCH_GET_LIMIT = 100;
+    private static final int BATCH_GET_MAX_ATTEMPTS = 5;
+    private static final long BATCH_GET_BASE_BACKOFF_MILLIS = 50;
+    
+    /**
+     * Workflows per decision transaction; well below the 100 item limit so that
+     * workflows carrying large original/proposed data stay under the 4 MB request limit
+     */
+    private static final int DECISION_TRANSACTION_SIZE = 25;
+    private static final int DECISION_MAX_ATTEMPTS = 5;
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
     
     public ApprovalWorkflowRepository(DynamoDbEnhancedClient dynamoDbClient,
-                                    @Value("${aws.dynamodb.table-prefix:kpi-management-}") String tablePrefix) {
+                                    DynamoDbClient dynamoDb,
+                                    @Value("${aws.dynamodb.table-prefix:kpi-management-}") String tablePrefix,
+                                    @Value("${aws.dynamodb.scan-segments:4}") int scanSegments) {
+        this.dynamoDb = dynamoDb;
         this.tableName = tablePrefix + "approval-workflows";
         this.table = dynamoDbClient.table(tableName, TableSchema.fromBean(ApprovalWorkflow.class));
+        this.itemCounter = new TableItemCounter(dynamoDb, tableName, scanSegments);
+        this.scanner = new ParallelScanner<>(table, scanSegments);
+        this.checkerStatusIndex = table.index(ApprovalWorkflow.CHECKER_STATUS_INDEX);
+        this.makerIndex = table.index(ApprovalWorkflow.MAKER_INDEX);
+        this.statusPriorityIndex = table.index(ApprovalWorkflow.STATUS_PRIORITY_INDEX);
+        this.entityIndex = table.index(ApprovalWorkflow.ENTITY_INDEX);
         
         // Create table if it doesn't exist (for demo purposes)
         createTableIfNotExists();
@@ -40,7 +105,13 @@ public class ApprovalWorkflowRepository implements ApprovalWorkflowRepositoryInt
      * Saves an Approval Workflow
      */
     public ApprovalWorkflow save(ApprovalWorkflow workflow) {
-        table.putItem(workflow);
+        ApprovalWorkflow previous = table.putItemWithResponse(request -> request
+                .item(workflow)
+                .returnValues(ReturnValue.ALL_OLD))
+            .attributes();
+        if (previous == null) {
+            itemCounter.recordInsert();
+        }
         return workflow;
     }
     
@@ -54,41 +125,83 @@ public class ApprovalWorkflowRepository implements ApprovalWorkflowRepositoryInt
     }
     
     /**
-     * Finds all Approval Workflows
+     * Finds Approval Workflows by ID with batched gets of up to 100 keys, retrying unprocessed keys
+     * with exponential backoff. IDs that do not exist are absent from the result.
+     */
+    public Map<String, ApprovalWorkflow> findAllByIds(Collection<String> workflowIds) {
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(workflowIds));
+        Map<String, ApprovalWorkflow> found = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += BATCH_GET_LIMIT) {
+            batchGet(distinctIds.subList(from, Math.min(from + BATCH_GET_LIMIT, distinctIds.size())), found);
+        }
+        return found;
+    }
+    
+    /**
+     * Saves decided workflows in transactions of {@value #DECISION_TRANSACTION_SIZE}, each write
+     * conditional on the stored workflow still being pending. Workflows decided concurrently by
+     * someone else are left untouched and returned; the rest of their transaction is retried without them.
+     * A transaction that still fails is reported as failed and does not stop the remaining ones.
+     */
+    public DecisionWriteResult saveDecisions(List<ApprovalWorkflow> workflows) {
+        Set<String> conflicts = new HashSet<>();
+        Set<String> failed = new HashSet<>();
+        for (int from = 0; from < workflows.size(); from += DECISION_TRANSACTION_SIZE) {
+            List<ApprovalWorkflow> chunk = workflows.subList(from, Math.min(from + DECISION_TRANSACTION_SIZE, workflows.size()));
+            try {
+                writeDecisions(chunk, conflicts);
+            } catch (RuntimeException e) {
+                logger.error("Failed to save {} approval decisions", chunk.size(), e);
+                chunk.stream()
+                    .map(ApprovalWorkflow::getWorkflowId)
+                    .filter(workflowId -> !conflicts.contains(workflowId))
+                    .forEach(failed::add);
+            }
+        }
+        return new DecisionWriteResult(conflicts, failed);
+    }
+    
+    /**
+     * Finds all Approval Workflows with a parallel segmented scan
      */
     public List<ApprovalWorkflow> findAll() {
-        return table.scan(ScanEnhancedRequest.builder().build())
-            .items()
-            .stream()
-            .collect(Collectors.toList());
+        return scanner.scanAll();
     }
     
     /**
-     * Finds workflows by checker ID and status
+     * Finds workflows by checker ID and status, oldest first
      */
     public List<ApprovalWorkflow> findByCheckerIdAndStatus(String checkerId, ApprovalStatus status) {
-        return findAll().stream()
-            .filter(workflow -> checkerId.equals(workflow.getCheckerId()) && 
-                              workflow.getStatus() == status)
-            .collect(Collectors.toList());
+        return queryAll(checkerStatusIndex, checkerStatusKey(checkerId, status), true);
     }
     
     /**
-     * Finds workflows by maker ID
+     * Finds one page of a checker's inbox for a status, oldest first
+     */
+    public PagedResponse<ApprovalWorkflow> findPageByCheckerIdAndStatus(String checkerId, ApprovalStatus status,
+                                                                        String cursor, int limit) {
+        return queryPage(checkerStatusIndex, checkerStatusKey(checkerId, status), true, cursor, limit);
+    }
+    
+    /**
+     * Finds workflows by maker ID, most recently submitted first
      */
     public List<ApprovalWorkflow> findByMakerId(String makerId) {
-        return findAll().stream()
-            .filter(workflow -> makerId.equals(workflow.getMakerId()))
-            .collect(Collectors.toList());
+        return queryAll(makerIndex, partitionKey(makerId), false);
+    }
+    
+    /**
+     * Finds one page of a maker's requests, most recently submitted first
+     */
+    public PagedResponse<ApprovalWorkflow> findPageByMakerId(String makerId, String cursor, int limit) {
+        return queryPage(makerIndex, partitionKey(makerId), false, cursor, limit);
     }
     
     /**
-     * Finds pending workflows
+     * Finds pending workflows, highest priority first
      */
     public List<ApprovalWorkflow> findPendingWorkflows() {
-        return findAll().stream()
-            .filter(workflow -> workflow.getStatus() == ApprovalStatus.PENDING)
-            .collect(Collectors.toList());
+        return findByStatus(ApprovalStatus.PENDING);
     }
     
     /**
@@ -96,41 +209,58 @@ public class ApprovalWorkflowRepository implements ApprovalWorkflowRepositoryInt
      */
     public void deleteById(String workflowId) {
         Key key = Key.builder().partitionValue(workflowId).build();
-        table.deleteItem(key);
+        if (table.deleteItem(key) != null) {
+            itemCounter.recordDelete();
+        }
     }
     
     /**
-     * Counts total Approval Workflows
+     * Counts total Approval Workflows exactly
      */
     public long count() {
-        return findAll().size();
+        return count(CountMode.EXACT);
+    }
+    
+    /**
+     * Counts Approval Workflows, exactly or from the maintained approximate counter
+     */
+    public long count(CountMode mode) {
+        return itemCounter.count(mode);
     }
     
     /**
      * Finds workflows by KPI Assignment ID
      */
     public List<ApprovalWorkflow> findByKpiAssignmentId(String kpiAssignmentId) {
-        return findAll().stream()
+        return queryAll(entityIndex, partitionKey(kpiAssignmentId), true).stream()
             .filter(workflow -> kpiAssignmentId.equals(workflow.getKpiAssignmentId()))
             .collect(Collectors.toList());
     }
     
     /**
-     * Finds workflows by status
+     * Finds workflows by status, highest priority first and oldest first within a priority
      */
     public List<ApprovalWorkflow> findByStatus(ApprovalStatus status) {
-        return findAll().stream()
-            .filter(workflow -> workflow.getStatus() == status)
-            .collect(Collectors.toList());
+        return queryAll(statusPriorityIndex, partitionKey(status.name()), true);
     }
     
     /**
-     * Finds workflows by approver ID
+     * Finds one page of workflows in a status, highest priority first
+     */
+    public PagedResponse<ApprovalWorkflow> findPageByStatus(ApprovalStatus status, String cursor, int limit) {
+        return queryPage(statusPriorityIndex, partitionKey(status.name()), true, cursor, limit);
+    }
+    
+    /**
+     * Finds workflows by approver ID, with one inbox query per status
      */
     public List<ApprovalWorkflow> findByApproverId(String approverId) {
-        return findAll().stream()
-            .filter(workflow -> approverId.equals(workflow.getApproverId()))
-            .collect(Collectors.toList());
+        List<ApprovalWorkflow> workflows = new ArrayList<>();
+        for (ApprovalStatus status : ApprovalStatus.values()) {
+            workflows.addAll(findByCheckerIdAndStatus(approverId, status));
+        }
+        workflows.sort(Comparator.comparing(ApprovalWorkflow::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())));
+        return workflows;
     }
     
     /**
@@ -140,12 +270,161 @@ public class ApprovalWorkflowRepository implements ApprovalWorkflowRepositoryInt
         return findById(id).isPresent();
     }
     
+    private void batchGet(List<String> workflowIds, Map<String, ApprovalWorkflow> found) {
+        List<Map<String, AttributeValue>> keys = workflowIds.stream()
+            .map(workflowId -> Map.of("workflowId", AttributeValue.fromS(workflowId)))
+            .collect(Collectors.toList());
+        KeysAndAttributes pending = KeysAndAttributes.builder().keys(keys).build();
+        
+        for (int attempt = 1; ; attempt++) {
+            KeysAndAttributes request = pending;
+            BatchGetItemResponse response = dynamoDb.batchGetItem(builder -> builder
+                .requestItems(Map.of(tableName, request)));
+            for (Map<String, AttributeValue> item : response.responses().getOrDefault(tableName, List.of())) {
+                ApprovalWorkflow workflow = table.tableSchema().mapToItem(item);
+                found.put(workflow.getWorkflowId(), workflow);
+            }
+            
+            pending = response.unprocessedKeys().get(tableName);
+            if (pending == null || !pending.hasKeys() || pending.keys().isEmpty()) {
+                return;
+            }
+            if (attempt == BATCH_GET_MAX_ATTEMPTS) {
+                throw new IllegalStateException(pending.keys().size() + " approval workflows still unprocessed after "
+                    + attempt + " batch get attempts");
+            }
+            backOff(BATCH_GET_BASE_BACKOFF_MILLIS << (attempt - 1));
+        }
+    }
+    
+    private void writeDecisions(List<ApprovalWorkflow> chunk, Set<String> conflicts) {
+        List<ApprovalWorkflow> pending = chunk;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            List<TransactWriteItem> items = pending.stream()
+                .map(workflow -> TransactWriteItem.builder().put(decisionPut(workflow)).build())
+                .collect(Collectors.toList());
+            try {
+                dynamoDb.transactWriteItems(request -> request.transactItems(items));
+                return;
+            } catch (TransactionCanceledException e) {
+                List<ApprovalWorkflow> retry = new ArrayList<>();
+                for (int i = 0; i < pending.size(); i++) {
+                    if (conditionFailed(e, i)) {
+                        conflicts.add(pending.get(i).getWorkflowId());
+                    } else {
+                        retry.add(pending.get(i));
+                    }
+                }
+                // No condition failed: throttled or clashing with another transaction, so back off first
+                if (retry.size() == pending.size()) {
+                    if (attempt >= DECISION_MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                    backOff(BATCH_GET_BASE_BACKOFF_MILLIS << (attempt - 1));
+                }
+                pending = retry;
+            }
+        }
+    }
+    
+    private Put decisionPut(ApprovalWorkflow workflow) {
+        return Put.builder()
+            .tableName(tableName)
+            .item(table.tableSchema().itemToMap(workflow, true))
+            .conditionExpression("#status = :pending")
+            .expressionAttributeNames(Map.of("#status", "status"))
+            .expressionAttributeValues(Map.of(":pending", AttributeValue.fromS(ApprovalStatus.PENDING.name())))
+            .build();
+    }
+    
+    private boolean conditionFailed(TransactionCanceledException e, int itemIndex) {
+        List<CancellationReason> reasons = e.cancellationReasons();
+        return reasons != null && reasons.size() > itemIndex
+            && CONDITIONAL_CHECK_FAILED.equals(reasons.get(itemIndex).code());
+    }
+    
+    private static void backOff(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying approval workflow batch", e);
+        }
+    }
+    
+    /**
+     * Reads every item matching the key condition, following the index pages to the end
+     */
+    private List<ApprovalWorkflow> queryAll(DynamoDbIndex<ApprovalWorkflow> index, QueryConditional condition,
+                                            boolean ascending) {
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+            .queryConditional(condition)
+            .scanIndexForward(ascending)
+            .build();
+        List<ApprovalWorkflow> workflows = new ArrayList<>();
+        for (Page<ApprovalWorkflow> page : index.query(request)) {
+            workflows.addAll(page.items());
+        }
+        return workflows;
+    }
+    
+    /**
+     * Reads up to {@code limit} items matching the key condition, starting after the cursor
+     */
+    private PagedResponse<ApprovalWorkflow> queryPage(DynamoDbIndex<ApprovalWorkflow> index, QueryConditional condition,
+                                                      boolean ascending, String cursor, int limit) {
+        Map<String, AttributeValue> startKey = PageCursor.decode(cursor);
+        List<ApprovalWorkflow> items = new ArrayList<>();
+        int rounds = 0;
+        
+        do {
+            Page<ApprovalWorkflow> page = index.query(QueryEnhancedRequest.builder()
+                    .queryConditional(condition)
+                    .scanIndexForward(ascending)
+                    .exclusiveStartKey(startKey)
+                    .limit(limit - items.size())
+                    .build())
+                .iterator().next();
+            items.addAll(page.items());
+            startKey = page.lastEvaluatedKey();
+            rounds++;
+        } while (startKey != null && !startKey.isEmpty() && items.size() < limit && rounds < MAX_PAGE_ROUNDS);
+        
+        return new PagedResponse<>(items, PageCursor.encode(startKey));
+    }
+    
+    private static QueryConditional checkerStatusKey(String checkerId, ApprovalStatus status) {
+        return partitionKey(ApprovalWorkflow.checkerStatusOf(checkerId, status));
+    }
+    
+    private static QueryConditional partitionKey(String value) {
+        return QueryConditional.keyEqualTo(Key.builder().partitionValue(value).build());
+    }
+    
     /**
-     * Creates the DynamoDB table if it doesn't exist
+     * Creates the DynamoDB table with its secondary indexes if it doesn't exist
      */
     private void createTableIfNotExists() {
         try {
-            table.createTable(CreateTableEnhancedRequest.builder().build());
+            table.createTable(CreateTableEnhancedRequest.builder()
+                .globalSecondaryIndices(
+                    EnhancedGlobalSecondaryIndex.builder()
+                        .indexName(ApprovalWorkflow.CHECKER_STATUS_INDEX)
+                        .projection(projection -> projection.projectionType(ProjectionType.ALL))
+                        .build(),
+                    EnhancedGlobalSecondaryIndex.builder()
+                        .indexName(ApprovalWorkflow.MAKER_INDEX)
+                        .projection(projection -> projection.projectionType(ProjectionType.ALL))
+                        .build(),
+                    EnhancedGlobalSecondaryIndex.builder()
+                        .indexName(ApprovalWorkflow.STATUS_PRIORITY_INDEX)
+                        .projection(projection -> projection.projectionType(ProjectionType.ALL))
+                        .build(),
+                    EnhancedGlobalSecondaryIndex.builder()
+                        .indexName(ApprovalWorkflow.ENTITY_INDEX)
+                        .projection(projection -> projection.projectionType(ProjectionType.ALL))
+                        .build())
+                .build());
         } catch (ResourceNotFoundException e) {
             // Table already exists, which is fine
         } catch (Exception e) {
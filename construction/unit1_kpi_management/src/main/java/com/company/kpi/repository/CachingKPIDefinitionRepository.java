@@ -0,0 +1,231 @@
+package com.company.kpi.repository;
+
+import com.company.kpi.domain.kpidefinition.events.KPIDefinitionCreated;
+import com.company.kpi.domain.kpidefinition.events.KPIDefinitionUpdated;
+import com.company.kpi.domain.shared.DomainEvent;
+import com.company.kpi.infrastructure.cache.BoundedCache;
+import com.company.kpi.infrastructure.events.EventHandler;
+import com.company.kpi.infrastructure.events.InMemoryEventStore;
+import com.company.kpi.infrastructure.repositories.CountMode;
+import com.company.kpi.model.KPICategory;
+import com.company.kpi.model.KPIDefinition;
+import com.company.kpi.model.dto.PagedResponse;
+import com.company.kpi.repository.interfaces.KPIDefinitionRepositoryInterface;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of the KPI Definition repository.
+ * By-ID lookups are served from a bounded, TTL-limited cache, including "not found" results
+ * (kept for a shorter TTL). Entries are invalidated on save and delete, and on
+ * {@link KPIDefinitionCreated}/{@link KPIDefinitionUpdated} events published through the event store.
+ * A load that overlaps an invalidation of the same key is returned but not cached, so a lookup racing
+ * a save cannot cache the definition from before the save.
+ * Cached definitions are handed out as copies, so callers may modify what they get back.
+ */
+@Repository
+@Primary
+public class CachingKPIDefinitionRepository implements KPIDefinitionRepositoryInterface {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingKPIDefinitionRepository.class);
+
+    private static final TableSchema<KPIDefinition> SCHEMA = TableSchema.fromBean(KPIDefinition.class);
+
+    private final KPIDefinitionRepositoryInterface delegate;
+    private final BoundedCache<String, Optional<KPIDefinition>> cache;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingKPIDefinitionRepository(@Qualifier("kpiDefinitionRepositoryImpl") KPIDefinitionRepositoryInterface delegate,
+                                          InMemoryEventStore eventStore,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${app.kpi.definition-cache.max-size:10000}") int maxSize,
+                                          @Value("${app.kpi.definition-cache.ttl:PT10M}") Duration ttl,
+                                          @Value("${app.kpi.definition-cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.delegate = delegate;
+        this.cache = new BoundedCache<>(maxSize, ttl);
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.hits = Counter.builder("kpi.definition.cache")
+            .description("KPI Definition cache lookups")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("kpi.definition.cache")
+            .description("KPI Definition cache lookups")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder("kpi.definition.cache.size", cache, BoundedCache::size)
+            .description("Entries held in the KPI Definition cache")
+            .register(meterRegistry);
+
+        eventStore.registerHandler(new DefinitionChangedHandler());
+    }
+
+    @Override
+    public Optional<KPIDefinition> findById(String id) {
+        Optional<KPIDefinition> cached = cache.get(id);
+        if (cached != null) {
+            hits.increment();
+            return cached.map(CachingKPIDefinitionRepository::copyOf);
+        }
+
+        misses.increment();
+        long generation = cache.generation(id);
+        Optional<KPIDefinition> loaded = delegate.findById(id);
+        cache.putIfGeneration(id, loaded.map(CachingKPIDefinitionRepository::copyOf),
+            loaded.isPresent() ? ttl : negativeTtl, generation);
+        return loaded;
+    }
+
+    /**
+     * Serves cached definitions first and batch-loads only the IDs not in the cache
+     */
+    @Override
+    public Map<String, KPIDefinition> findAllByIds(Collection<String> ids) {
+        Map<String, KPIDefinition> found = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            Optional<KPIDefinition> cached = cache.get(id);
+            if (cached == null) {
+                missing.add(id);
+            } else {
+                hits.increment();
+                cached.ifPresent(kpi -> found.put(id, copyOf(kpi)));
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+        
+        misses.increment(missing.size());
+        Map<String, Long> generations = new HashMap<>();
+        missing.forEach(id -> generations.put(id, cache.generation(id)));
+        Map<String, KPIDefinition> loaded = delegate.findAllByIds(missing);
+        for (String id : missing) {
+            KPIDefinition kpi = loaded.get(id);
+            if (kpi != null) {
+                cache.putIfGeneration(id, Optional.of(copyOf(kpi)), ttl, generations.get(id));
+                found.put(id, kpi);
+            } else {
+                cache.putIfGeneration(id, Optional.empty(), negativeTtl, generations.get(id));
+            }
+        }
+        return found;
+    }
+    
+    @Override
+    public boolean existsById(String id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public KPIDefinition save(KPIDefinition kpiDefinition) {
+        try {
+            return delegate.save(kpiDefinition);
+        } finally {
+            cache.invalidate(kpiDefinition.getId());
+        }
+    }
+
+    @Override
+    public void deleteById(String id) {
+        try {
+            delegate.deleteById(id);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public List<KPIDefinition> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<KPIDefinition> findByCategory(KPICategory category) {
+        return delegate.findByCategory(category);
+    }
+
+    @Override
+    public List<KPIDefinition> findByDepartment(String department) {
+        return delegate.findByDepartment(department);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long count(CountMode mode) {
+        return delegate.count(mode);
+    }
+
+    @Override
+    public boolean existsByName(String name) {
+        return delegate.existsByName(name);
+    }
+
+    @Override
+    public List<KPIDefinition> findByIsActiveTrue() {
+        return delegate.findByIsActiveTrue();
+    }
+
+    @Override
+    public PagedResponse<KPIDefinition> findPage(KPICategory category, boolean activeOnly, String cursor, int limit) {
+        return delegate.findPage(category, activeOnly, cursor, limit);
+    }
+
+    @Override
+    public Optional<KPIDefinition> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    private static KPIDefinition copyOf(KPIDefinition kpiDefinition) {
+        return SCHEMA.mapToItem(SCHEMA.itemToMap(kpiDefinition, false));
+    }
+
+    /**
+     * Drops cached entries for definitions changed elsewhere in the application.
+     * Not replayed from the event log at startup: the cache starts empty, so there is nothing stale to drop.
+     */
+    private final class DefinitionChangedHandler implements EventHandler {
+
+        @Override
+        public boolean canHandle(DomainEvent event) {
+            return event instanceof KPIDefinitionCreated || event instanceof KPIDefinitionUpdated;
+        }
+
+        @Override
+        public void handle(DomainEvent event) {
+            logger.debug("Invalidating cached KPI Definition {} after {}", event.getAggregateId(), event.getEventType());
+            cache.invalidate(event.getAggregateId());
+        }
+
+        @Override
+        public boolean requiresSynchronousDelivery() {
+            // Reads right after a save must not see the cached old definition
+            return true;
+        }
+    }
+}
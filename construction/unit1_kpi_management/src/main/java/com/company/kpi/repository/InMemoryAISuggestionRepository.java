@@ -0,0 +1,240 @@
+package com.company.kpi.repository;
+
+import com.company.kpi.model.AISuggestion;
+import com.company.kpi.repository.interfaces.AISuggestionRepositoryInterface;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory AI Suggestion store.
+ * Suggestions are held in a concurrent map by ID and indexed by status, department, job title and
+ * assignee under normalized (trimmed, lower-case) keys. A filtered lookup starts from the smallest
+ * index bucket among the given filters and checks the remaining filters on those candidates only.
+ * Each user's history (suggestions assigned to or reviewed by them) is kept newest first, so it is
+ * read without sorting.
+ * <p>
+ * Index maintenance runs under a write lock and uses the keys recorded at the last save, so a
+ * suggestion changed in place is re-indexed correctly when it is saved.
+ */
+@Repository("aiSuggestionRepositoryImpl")
+@ConditionalOnProperty(name = "app.ai-suggestions.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryAISuggestionRepository implements AISuggestionRepositoryInterface {
+    
+    private static final Comparator<HistoryEntry> NEWEST_FIRST = Comparator
+        .comparing(HistoryEntry::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(HistoryEntry::suggestionId);
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, AISuggestion> suggestionsById = new ConcurrentHashMap<>();
+    private final Map<String, IndexedKeys> indexedKeysById = new HashMap<>();
+    private final Map<AISuggestion.SuggestionStatus, Set<String>> idsByStatus = new EnumMap<>(AISuggestion.SuggestionStatus.class);
+    private final Map<String, Set<String>> idsByDepartment = new HashMap<>();
+    private final Map<String, Set<String>> idsByJobTitle = new HashMap<>();
+    private final Map<String, Set<String>> idsByAssignee = new HashMap<>();
+    private final Map<String, NavigableSet<HistoryEntry>> historyByUser = new HashMap<>();
+    
+    public AISuggestion save(AISuggestion suggestion) {
+        lock.writeLock().lock();
+        try {
+            index(suggestion);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return suggestion;
+    }
+    
+    public List<AISuggestion> saveAll(Collection<AISuggestion> suggestions) {
+        lock.writeLock().lock();
+        try {
+            suggestions.forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new ArrayList<>(suggestions);
+    }
+    
+    public boolean saveAllIfEmpty(Collection<AISuggestion> suggestions) {
+        lock.writeLock().lock();
+        try {
+            if (!suggestionsById.isEmpty()) {
+                return false;
+            }
+            suggestions.forEach(this::index);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public Optional<AISuggestion> findById(String suggestionId) {
+        return Optional.ofNullable(suggestionsById.get(suggestionId));
+    }
+    
+    public List<AISuggestion> findByFilters(AISuggestion.SuggestionStatus status, String jobTitle,
+                                            String department, String assignedTo) {
+        String jobTitleKey = normalize(jobTitle);
+        String departmentKey = normalize(department);
+        String assigneeKey = normalize(assignedTo);
+        
+        lock.readLock().lock();
+        try {
+            Collection<String> candidates = suggestionsById.keySet();
+            if (status != null) {
+                candidates = smaller(candidates, idsByStatus.getOrDefault(status, Set.of()));
+            }
+            if (jobTitleKey != null) {
+                candidates = smaller(candidates, idsByJobTitle.getOrDefault(jobTitleKey, Set.of()));
+            }
+            if (departmentKey != null) {
+                candidates = smaller(candidates, idsByDepartment.getOrDefault(departmentKey, Set.of()));
+            }
+            if (assigneeKey != null) {
+                candidates = smaller(candidates, idsByAssignee.getOrDefault(assigneeKey, Set.of()));
+            }
+            
+            List<AISuggestion> matches = new ArrayList<>();
+            for (String suggestionId : candidates) {
+                IndexedKeys keys = indexedKeysById.get(suggestionId);
+                if (keys != null
+                        && (status == null || keys.status() == status)
+                        && (jobTitleKey == null || jobTitleKey.equals(keys.jobTitle()))
+                        && (departmentKey == null || departmentKey.equals(keys.department()))
+                        && (assigneeKey == null || assigneeKey.equals(keys.assignee()))) {
+                    matches.add(suggestionsById.get(suggestionId));
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public List<AISuggestion> findHistoryForUser(String userId) {
+        lock.readLock().lock();
+        try {
+            return historyByUser.getOrDefault(userId, new TreeSet<>(NEWEST_FIRST)).stream()
+                .map(entry -> suggestionsById.get(entry.suggestionId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public boolean isEmpty() {
+        return suggestionsById.isEmpty();
+    }
+    
+    public long count() {
+        return suggestionsById.size();
+    }
+    
+    /**
+     * Replaces the index entries recorded for the suggestion with its current values; caller holds the write lock
+     */
+    private void index(AISuggestion suggestion) {
+        String suggestionId = suggestion.getSuggestionId();
+        if (suggestionId == null) {
+            throw new IllegalArgumentException("AI suggestion ID is required");
+        }
+        IndexedKeys previous = indexedKeysById.get(suggestionId);
+        if (previous != null) {
+            unindex(suggestionId, previous);
+        }
+        
+        IndexedKeys keys = new IndexedKeys(suggestion.getStatus(), normalize(suggestion.getDepartment()),
+            normalize(suggestion.getJobTitle()), normalize(suggestion.getAssignedTo()),
+            suggestion.getAssignedTo(), suggestion.getReviewedBy(), suggestion.getCreatedAt());
+        suggestionsById.put(suggestionId, suggestion);
+        indexedKeysById.put(suggestionId, keys);
+        
+        if (keys.status() != null) {
+            idsByStatus.computeIfAbsent(keys.status(), key -> new LinkedHashSet<>()).add(suggestionId);
+        }
+        addTo(idsByDepartment, keys.department(), suggestionId);
+        addTo(idsByJobTitle, keys.jobTitle(), suggestionId);
+        addTo(idsByAssignee, keys.assignee(), suggestionId);
+        HistoryEntry entry = new HistoryEntry(keys.createdAt(), suggestionId);
+        for (String userId : keys.historyUsers()) {
+            historyByUser.computeIfAbsent(userId, key -> new TreeSet<>(NEWEST_FIRST)).add(entry);
+        }
+    }
+    
+    private void unindex(String suggestionId, IndexedKeys keys) {
+        if (keys.status() != null) {
+            removeFrom(idsByStatus, keys.status(), suggestionId);
+        }
+        removeFrom(idsByDepartment, keys.department(), suggestionId);
+        removeFrom(idsByJobTitle, keys.jobTitle(), suggestionId);
+        removeFrom(idsByAssignee, keys.assignee(), suggestionId);
+        HistoryEntry entry = new HistoryEntry(keys.createdAt(), suggestionId);
+        for (String userId : keys.historyUsers()) {
+            NavigableSet<HistoryEntry> history = historyByUser.get(userId);
+            if (history != null && history.remove(entry) && history.isEmpty()) {
+                historyByUser.remove(userId);
+            }
+        }
+    }
+    
+    private static void addTo(Map<String, Set<String>> index, String key, String suggestionId) {
+        if (key != null) {
+            index.computeIfAbsent(key, ignored -> new LinkedHashSet<>()).add(suggestionId);
+        }
+    }
+    
+    private static <K> void removeFrom(Map<K, Set<String>> index, K key, String suggestionId) {
+        Set<String> ids = key != null ? index.get(key) : null;
+        if (ids != null && ids.remove(suggestionId) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+    
+    private static Collection<String> smaller(Collection<String> current, Collection<String> candidate) {
+        return candidate.size() < current.size() ? candidate : current;
+    }
+    
+    private static String normalize(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : null;
+    }
+    
+    /**
+     * Index keys a suggestion was stored under at its last save
+     */
+    private record IndexedKeys(AISuggestion.SuggestionStatus status, String department, String jobTitle,
+                               String assignee, String assignedTo, String reviewedBy, LocalDateTime createdAt) {
+        
+        Set<String> historyUsers() {
+            Set<String> users = new LinkedHashSet<>(2);
+            if (assignedTo != null) {
+                users.add(assignedTo);
+            }
+            if (reviewedBy != null) {
+                users.add(reviewedBy);
+            }
+            return users;
+        }
+    }
+    
+    private record HistoryEntry(LocalDateTime createdAt, String suggestionId) {
+    }
+}
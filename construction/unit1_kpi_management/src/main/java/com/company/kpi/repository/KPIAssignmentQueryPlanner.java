@@ -0,0 +1,144 @@
+package com.company.kpi.repository;
+
+import com.company.kpi.model.KPIAssignment;
+import com.company.kpi.model.dto.KPIAssignmentQuery;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the cheapest key path for a KPI Assignment search and turns the remaining
+ * criteria into a DynamoDB filter expression.
+ *
+ * Key paths in order of preference: full primary key, employee partition,
+ * KPI Definition GSI, supervisor GSI, and a filtered table scan when no key criterion is given.
+ */
+class KPIAssignmentQueryPlanner {
+    
+    /**
+     * How the plan reads the table
+     */
+    enum AccessPath {
+        PRIMARY_KEY,
+        EMPLOYEE_PARTITION,
+        KPI_DEFINITION_INDEX,
+        SUPERVISOR_INDEX,
+        TABLE_SCAN
+    }
+    
+    /**
+     * Planned key path plus residual filter
+     */
+    static class QueryPlan {
+        private final AccessPath accessPath;
+        private final String indexName;
+        private final Key key;
+        private final Expression filterExpression;
+        
+        QueryPlan(AccessPath accessPath, String indexName, Key key, Expression filterExpression) {
+            this.accessPath = accessPath;
+            this.indexName = indexName;
+            this.key = key;
+            this.filterExpression = filterExpression;
+        }
+        
+        AccessPath getAccessPath() { return accessPath; }
+        
+        /**
+         * GSI to query, or null for the base table
+         */
+        String getIndexName() { return indexName; }
+        
+        QueryConditional getKeyCondition() { return QueryConditional.keyEqualTo(key); }
+        
+        /**
+         * Residual filter, or null when the key path covers every criterion
+         */
+        Expression getFilterExpression() { return filterExpression; }
+        
+        boolean isScan() { return accessPath == AccessPath.TABLE_SCAN; }
+    }
+    
+    QueryPlan plan(KPIAssignmentQuery query) {
+        String employeeId = query.getEmployeeId();
+        String supervisorId = query.getSupervisorId();
+        String kpiDefinitionId = query.getKpiDefinitionId();
+        
+        FilterBuilder filter = new FilterBuilder();
+        if (query.getEffectiveDate() != null) {
+            filter.effectiveOn(query.getEffectiveDate().toString());
+        }
+        
+        if (employeeId != null && kpiDefinitionId != null) {
+            filter.equalTo("supervisorId", supervisorId);
+            return new QueryPlan(AccessPath.PRIMARY_KEY, null,
+                Key.builder().partitionValue(employeeId).sortValue(kpiDefinitionId).build(), filter.build());
+        }
+        
+        if (employeeId != null) {
+            filter.equalTo("supervisorId", supervisorId);
+            return new QueryPlan(AccessPath.EMPLOYEE_PARTITION, null,
+                Key.builder().partitionValue(employeeId).build(), filter.build());
+        }
+        
+        if (kpiDefinitionId != null) {
+            filter.equalTo("supervisorId", supervisorId);
+            return new QueryPlan(AccessPath.KPI_DEFINITION_INDEX, KPIAssignment.KPI_DEFINITION_INDEX,
+                Key.builder().partitionValue(kpiDefinitionId).build(), filter.build());
+        }
+        
+        if (supervisorId != null) {
+            return new QueryPlan(AccessPath.SUPERVISOR_INDEX, KPIAssignment.SUPERVISOR_INDEX,
+                Key.builder().partitionValue(supervisorId).build(), filter.build());
+        }
+        
+        return new QueryPlan(AccessPath.TABLE_SCAN, null, null, filter.build());
+    }
+    
+    /**
+     * Accumulates AND-ed filter conditions
+     */
+    private static class FilterBuilder {
+        private final List<String> conditions = new ArrayList<>();
+        private final Map<String, String> names = new HashMap<>();
+        private final Map<String, AttributeValue> values = new HashMap<>();
+        
+        void equalTo(String attribute, String value) {
+            if (value == null) {
+                return;
+            }
+            names.put("#" + attribute, attribute);
+            values.put(":" + attribute, AttributeValue.fromS(value));
+            conditions.add("#" + attribute + " = :" + attribute);
+        }
+        
+        /**
+         * Assignment has started on or before the date and has not ended before it.
+         * Dates are stored as ISO-8601 strings, so lexical comparison matches date order.
+         */
+        void effectiveOn(String isoDate) {
+            names.put("#effectiveDate", "effectiveDate");
+            names.put("#endDate", "endDate");
+            values.put(":effectiveOn", AttributeValue.fromS(isoDate));
+            conditions.add("#effectiveDate <= :effectiveOn AND "
+                + "(attribute_not_exists(#endDate) OR #endDate >= :effectiveOn)");
+        }
+        
+        Expression build() {
+            if (conditions.isEmpty()) {
+                return null;
+            }
+            return Expression.builder()
+                .expression(String.join(" AND ", conditions))
+                .expressionNames(names)
+                .expressionValues(values)
+                .build();
+        }
+    }
+}
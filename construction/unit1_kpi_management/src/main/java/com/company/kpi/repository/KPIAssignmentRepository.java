@@ -1,23 +1,55 @@
 package com.company.kpi.repository;
 
+import com.company.kpi.infrastructure.repositories.CountMode;
+import com.company.kpi.infrastructure.repositories.ParallelScanner;
+import com.company.kpi.infrastructure.repositories.TableItemCounter;
 import com.company.kpi.model.AssignmentStatus;
+import com.company.kpi.model.EmployeeAssignmentSummary;
 import com.company.kpi.model.KPIAssignment;
+import com.company.kpi.model.dto.KPIAssignmentQuery;
+import com.company.kpi.model.dto.PagedResponse;
 import com.company.kpi.repository.interfaces.KPIAssignmentRepositoryInterface;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.DefaultAttributeConverterProvider;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.CreateTableEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.EnhancedGlobalSecondaryIndex;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+import software.amazon.awssdk.services.dynamodb.model.ResourceInUseException;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * DynamoDB repository for KPI Assignment
@@ -25,26 +57,246 @@ import java.util.stream.Collectors;
 @Repository("kpiAssignmentRepositoryImpl")
 public class KPIAssignmentRepository implements KPIAssignmentRepositoryInterface {
     
+    private static final int INDEX_QUERY_PAGE_SIZE = 100;
+    private static final char COMPOSITE_ID_SEPARATOR = '#';
+    private static final int MAX_PAGE_ROUNDS = 10;
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+    private static final AttributeConverter<LocalDateTime> LOCAL_DATE_TIME_CONVERTER =
+        DefaultAttributeConverterProvider.create().converterFor(EnhancedType.of(LocalDateTime.class));
+    
+    private final DynamoDbClient dynamoDb;
     private final DynamoDbTable<KPIAssignment> table;
+    private final DynamoDbTable<EmployeeAssignmentSummary> summaryTable;
+    private final DynamoDbIndex<KPIAssignment> kpiDefinitionIndex;
+    private final DynamoDbIndex<KPIAssignment> assignmentIdIndex;
     private final String tableName;
+    private final String summaryTableName;
+    private final KPIAssignmentQueryPlanner queryPlanner = new KPIAssignmentQueryPlanner();
+    private final TableItemCounter itemCounter;
+    private final ParallelScanner<KPIAssignment> scanner;
     
     public KPIAssignmentRepository(DynamoDbEnhancedClient dynamoDbClient,
-                                 @Value("${aws.dynamodb.table-prefix:kpi-management-}") String tablePrefix) {
+                                 DynamoDbClient dynamoDb,
+                                 @Value("${aws.dynamodb.table-prefix:kpi-management-}") String tablePrefix,
+                                 @Value("${aws.dynamodb.scan-segments:4}") int scanSegments) {
+        this.dynamoDb = dynamoDb;
         this.tableName = tablePrefix + "kpi-assignments";
+        this.summaryTableName = tablePrefix + "employee-assignment-summaries";
         this.table = dynamoDbClient.table(tableName, TableSchema.fromBean(KPIAssignment.class));
-        
-        // Create table if it doesn't exist (for demo purposes)
+        this.summaryTable = dynamoDbClient.table(summaryTableName, TableSchema.fromBean(EmployeeAssignmentSummary.class));
+        this.kpiDefinitionIndex = table.index(KPIAssignment.KPI_DEFINITION_INDEX);
+        this.assignmentIdIndex = table.index(KPIAssignment.ASSIGNMENT_ID_INDEX);
+        this.itemCounter = new TableItemCounter(dynamoDb, tableName, scanSegments);
+        this.scanner = new ParallelScanner<>(table, scanSegments);
+    }
+    
+    /**
+     * Creates the tables if they don't exist (for demo purposes).
+     * Runs once the repository is fully constructed, since seeding the summary table reads assignments.
+     */
+    @PostConstruct
+    void createTablesIfNotExist() {
         createTableIfNotExists();
+        createSummaryTableIfNotExists();
     }
     
     /**
-     * Saves a KPI Assignment
+     * Saves an inactive KPI Assignment.
+     * Active assignments count towards the employee summary, so they are only written through
+     * {@link #createAssignment}, {@link #updateAssignment} and {@link #expireAssignment}; the put is
+     * also conditional on the stored item not being active.
+     *
+     * @throws IllegalArgumentException if either the given or the stored assignment is active
      */
     public KPIAssignment save(KPIAssignment assignment) {
-        table.putItem(assignment);
+        if (assignment.getStatus() == AssignmentStatus.ACTIVE) {
+            throw new IllegalArgumentException("Active KPI assignments must be created through createAssignment");
+        }
+        KPIAssignment previous;
+        try {
+            previous = table.putItemWithResponse(request -> request
+                    .item(assignment)
+                    .conditionExpression(notActive())
+                    .returnValues(ReturnValue.ALL_OLD))
+                .attributes();
+        } catch (ConditionalCheckFailedException e) {
+            throw new IllegalArgumentException("KPI assignment is active and cannot be overwritten");
+        }
+        if (previous == null) {
+            itemCounter.recordInsert();
+        }
         return assignment;
     }
     
+    /**
+     * Creates an active assignment in a single transaction.
+     * The assignment put is conditional on the KPI not already being actively assigned, and the
+     * employee's summary is incremented (count and weight) only while its count is below
+     * {@code maxActiveAssignments}, so concurrent assignments cannot exceed the limit.
+     * A new key is tried first; re-activating an expired assignment takes a second attempt that
+     * overwrites it, so only genuinely new items count as inserts for the approximate count.
+     *
+     * @throws IllegalArgumentException if the KPI is already assigned or the employee is at the limit
+     */
+    public KPIAssignment createAssignment(KPIAssignment assignment, int maxActiveAssignments) {
+        Map<String, AttributeValue> item = table.tableSchema().itemToMap(assignment, true);
+        Update incrementSummary = summaryUpdate(assignment.getEmployeeId(), 1, weightOf(assignment),
+            "attribute_not_exists(#activeCount) OR #activeCount < :max",
+            Map.of(":max", AttributeValue.fromN(Integer.toString(maxActiveAssignments))));
+        
+        Put insert = Put.builder()
+            .tableName(tableName)
+            .item(item)
+            .conditionExpression("attribute_not_exists(employeeId)")
+            .build();
+        if (transactCreate(insert, incrementSummary, maxActiveAssignments)) {
+            itemCounter.recordInsert();
+            return assignment;
+        }
+        
+        Put reactivate = Put.builder()
+            .tableName(tableName)
+            .item(item)
+            .conditionExpression("attribute_exists(employeeId) AND #status <> :active")
+            .expressionAttributeNames(Map.of("#status", "status"))
+            .expressionAttributeValues(Map.of(":active", AttributeValue.fromS(AssignmentStatus.ACTIVE.name())))
+            .build();
+        if (!transactCreate(reactivate, incrementSummary, maxActiveAssignments)) {
+            throw new IllegalArgumentException("KPI is already assigned to this employee");
+        }
+        return assignment;
+    }
+    
+    /**
+     * Writes the assignment put and summary increment together.
+     *
+     * @return false if the put's condition failed
+     */
+    private boolean transactCreate(Put put, Update incrementSummary, int maxActiveAssignments) {
+        try {
+            dynamoDb.transactWriteItems(request -> request.transactItems(
+                TransactWriteItem.builder().put(put).build(),
+                TransactWriteItem.builder().update(incrementSummary).build()));
+            return true;
+        } catch (TransactionCanceledException e) {
+            if (conditionFailed(e, 0)) {
+                return false;
+            }
+            if (conditionFailed(e, 1)) {
+                throw new IllegalArgumentException(
+                    "Employee has reached maximum number of KPI assignments: " + maxActiveAssignments);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Saves changes to an existing assignment, guarded by the {@code updatedAt} value it was read with.
+     * When an active assignment's weight changes, the employee summary is adjusted in the same transaction.
+     *
+     * @throws IllegalArgumentException if the assignment was changed since it was read
+     */
+    public KPIAssignment updateAssignment(KPIAssignment assignment, BigDecimal previousWeight,
+                                          LocalDateTime previousUpdatedAt) {
+        Map<String, AttributeValue> item = table.tableSchema().itemToMap(assignment, true);
+        Map<String, String> names = Map.of("#updatedAt", "updatedAt");
+        String condition = previousUpdatedAt == null
+            ? "attribute_not_exists(#updatedAt)"
+            : "#updatedAt = :previousUpdatedAt";
+        Map<String, AttributeValue> values = previousUpdatedAt == null
+            ? null
+            : Map.of(":previousUpdatedAt", toAttributeValue(previousUpdatedAt));
+        
+        BigDecimal weightDelta = weightOf(assignment).subtract(previousWeight != null ? previousWeight : BigDecimal.ZERO);
+        try {
+            if (assignment.getStatus() == AssignmentStatus.ACTIVE && weightDelta.signum() != 0) {
+                Put put = Put.builder()
+                    .tableName(tableName)
+                    .item(item)
+                    .conditionExpression(condition)
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values)
+                    .build();
+                Update adjustSummary = summaryUpdate(assignment.getEmployeeId(), 0, weightDelta, null, Map.of());
+                dynamoDb.transactWriteItems(request -> request.transactItems(
+                    TransactWriteItem.builder().put(put).build(),
+                    TransactWriteItem.builder().update(adjustSummary).build()));
+            } else {
+                dynamoDb.putItem(request -> request
+                    .tableName(tableName)
+                    .item(item)
+                    .conditionExpression(condition)
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values));
+            }
+        } catch (TransactionCanceledException e) {
+            if (conditionFailed(e, 0)) {
+                throw new IllegalArgumentException("KPI assignment was modified concurrently, please retry");
+            }
+            throw e;
+        } catch (ConditionalCheckFailedException e) {
+            throw new IllegalArgumentException("KPI assignment was modified concurrently, please retry");
+        }
+        return assignment;
+    }
+    
+    /**
+     * Marks an assignment as expired.
+     * An active assignment is removed from the employee summary in the same transaction; an inactive one
+     * is only written while it is still inactive, so a concurrent re-activation is never overwritten.
+     *
+     * @throws IllegalArgumentException if the assignment's status changed since it was read
+     */
+    public KPIAssignment expireAssignment(KPIAssignment assignment) {
+        boolean wasActive = assignment.getStatus() == AssignmentStatus.ACTIVE;
+        assignment.setStatus(AssignmentStatus.EXPIRED);
+        assignment.setUpdatedAt(LocalDateTime.now());
+        
+        if (!wasActive) {
+            try {
+                dynamoDb.putItem(request -> request
+                    .tableName(tableName)
+                    .item(table.tableSchema().itemToMap(assignment, true))
+                    .conditionExpression("attribute_exists(employeeId) AND #status <> :active")
+                    .expressionAttributeNames(Map.of("#status", "status"))
+                    .expressionAttributeValues(Map.of(":active", AttributeValue.fromS(AssignmentStatus.ACTIVE.name()))));
+            } catch (ConditionalCheckFailedException e) {
+                throw new IllegalArgumentException("KPI assignment was modified concurrently, please retry");
+            }
+            return assignment;
+        }
+        
+        Put put = Put.builder()
+            .tableName(tableName)
+            .item(table.tableSchema().itemToMap(assignment, true))
+            .conditionExpression("#status = :active")
+            .expressionAttributeNames(Map.of("#status", "status"))
+            .expressionAttributeValues(Map.of(":active", AttributeValue.fromS(AssignmentStatus.ACTIVE.name())))
+            .build();
+        
+        Update decrementSummary = summaryUpdate(assignment.getEmployeeId(), -1, weightOf(assignment).negate(),
+            null, Map.of());
+        
+        try {
+            dynamoDb.transactWriteItems(request -> request.transactItems(
+                TransactWriteItem.builder().put(put).build(),
+                TransactWriteItem.builder().update(decrementSummary).build()));
+        } catch (TransactionCanceledException e) {
+            if (conditionFailed(e, 0)) {
+                throw new IllegalArgumentException("KPI assignment is not active");
+            }
+            throw e;
+        }
+        return assignment;
+    }
+    
+    /**
+     * Finds the active assignment summary for an employee
+     */
+    public Optional<EmployeeAssignmentSummary> findSummaryByEmployeeId(String employeeId) {
+        return Optional.ofNullable(summaryTable.getItem(Key.builder().partitionValue(employeeId).build()));
+    }
+    
     /**
      * Finds KPI Assignment by employee ID and KPI Definition ID
      */
@@ -72,81 +324,166 @@ public class KPIAssignmentRepository implements KPIAssignmentRepositoryInterface
     }
     
     /**
-     * Finds all active KPI Assignments for an employee
+     * Finds all active KPI Assignments for an employee.
+     * The status filter runs in DynamoDB so inactive assignments are not transferred.
      */
     public List<KPIAssignment> findActiveByEmployeeId(String employeeId) {
-        return findByEmployeeId(employeeId).stream()
-            .filter(assignment -> assignment.getStatus() == AssignmentStatus.ACTIVE)
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+            .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(employeeId).build()))
+            .filterExpression(Expression.builder()
+                .expression("#status = :active")
+                .putExpressionName("#status", "status")
+                .putExpressionValue(":active", AttributeValue.fromS(AssignmentStatus.ACTIVE.name()))
+                .build())
+            .build();
+        
+        return table.query(request)
+            .items()
+            .stream()
             .collect(Collectors.toList());
     }
     
     /**
-     * Finds all KPI Assignments for a specific KPI Definition
+     * Finds all KPI Assignments for a specific KPI Definition.
+     * Queries the KPI Definition GSI page by page instead of scanning the table.
      */
     public List<KPIAssignment> findByKpiDefinitionId(String kpiDefinitionId) {
-        return table.scan(ScanEnhancedRequest.builder().build())
-            .items()
-            .stream()
-            .filter(assignment -> assignment.getKpiDefinitionId().equals(kpiDefinitionId))
-            .collect(Collectors.toList());
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+            .queryConditional(QueryConditional.keyEqualTo(
+                Key.builder().partitionValue(kpiDefinitionId).build()))
+            .limit(INDEX_QUERY_PAGE_SIZE)
+            .build();
+        
+        List<KPIAssignment> assignments = new ArrayList<>();
+        for (Page<KPIAssignment> page : kpiDefinitionIndex.query(request)) {
+            assignments.addAll(page.items());
+        }
+        return assignments;
     }
     
     /**
-     * Finds all KPI Assignments
+     * Finds one page of KPI Assignments matching the query.
+     * The planner picks the key path; remaining criteria are applied as DynamoDB filter expressions.
+     * Because filters run after the read limit, a page is topped up from following reads
+     * (up to a bounded number of rounds) and may still hold fewer than {@code limit} items.
+     */
+    public PagedResponse<KPIAssignment> findPage(KPIAssignmentQuery query, String cursor, int limit) {
+        KPIAssignmentQueryPlanner.QueryPlan plan = queryPlanner.plan(query);
+        Map<String, AttributeValue> startKey = PageCursor.decode(cursor);
+        List<KPIAssignment> items = new ArrayList<>();
+        int rounds = 0;
+        
+        do {
+            Page<KPIAssignment> page = readPage(plan, startKey, limit - items.size());
+            items.addAll(page.items());
+            startKey = page.lastEvaluatedKey();
+            rounds++;
+        } while (startKey != null && !startKey.isEmpty() && items.size() < limit && rounds < MAX_PAGE_ROUNDS);
+        
+        return new PagedResponse<>(items, PageCursor.encode(startKey));
+    }
+    
+    private Page<KPIAssignment> readPage(KPIAssignmentQueryPlanner.QueryPlan plan,
+                                         Map<String, AttributeValue> startKey, int pageSize) {
+        if (plan.isScan()) {
+            return table.scan(ScanEnhancedRequest.builder()
+                    .filterExpression(plan.getFilterExpression())
+                    .exclusiveStartKey(startKey)
+                    .limit(pageSize)
+                    .build())
+                .iterator().next();
+        }
+        
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+            .queryConditional(plan.getKeyCondition())
+            .filterExpression(plan.getFilterExpression())
+            .exclusiveStartKey(startKey)
+            .limit(pageSize)
+            .build();
+        return plan.getIndexName() == null
+            ? table.query(request).iterator().next()
+            : table.index(plan.getIndexName()).query(request).iterator().next();
+    }
+    
+    /**
+     * Finds all KPI Assignments with a parallel segmented scan
      */
     public List<KPIAssignment> findAll() {
-        return table.scan(ScanEnhancedRequest.builder().build())
-            .items()
-            .stream()
-            .collect(Collectors.toList());
+        return scanner.scanAll();
     }
     
     /**
-     * Deletes KPI Assignment
+     * Deletes an inactive KPI Assignment.
+     * Active assignments must be expired first so that the employee summary stays in step.
+     *
+     * @throws IllegalArgumentException if the assignment is active
      */
     public void delete(String employeeId, String kpiDefinitionId) {
         Key key = Key.builder()
             .partitionValue(employeeId)
             .sortValue(kpiDefinitionId)
             .build();
-        table.deleteItem(key);
+        KPIAssignment deleted;
+        try {
+            deleted = table.deleteItem(request -> request.key(key).conditionExpression(notActive()));
+        } catch (ConditionalCheckFailedException e) {
+            throw new IllegalArgumentException("KPI assignment is active; remove it before deleting");
+        }
+        if (deleted != null) {
+            itemCounter.recordDelete();
+        }
     }
     
     /**
-     * Counts total KPI Assignments
+     * Counts total KPI Assignments exactly
      */
     public long count() {
-        return findAll().size();
+        return count(CountMode.EXACT);
     }
     
     /**
-     * Finds KPI Assignment by ID
+     * Counts KPI Assignments, exactly or from the maintained approximate counter
      */
-    public Optional<KPIAssignment> findById(String id) {
-        // For composite key, we'll need to parse the ID or use a different approach
-        // For now, let's scan and find by ID field
-        return findAll().stream()
-            .filter(assignment -> id.equals(assignment.getId()))
-            .findFirst();
+    public long count(CountMode mode) {
+        return itemCounter.count(mode);
     }
     
     /**
-     * Finds KPI Assignments by status
+     * Finds KPI Assignment by ID.
+     * Assignment IDs resolve through the assignment ID GSI; composite
+     * "employeeId#kpiDefinitionId" IDs (assignments without an assignment ID) map straight to the table key.
      */
-    public List<KPIAssignment> findByStatus(AssignmentStatus status) {
-        return findAll().stream()
-            .filter(assignment -> assignment.getStatus() == status)
-            .collect(Collectors.toList());
+    public Optional<KPIAssignment> findById(String id) {
+        Optional<KPIAssignment> byAssignmentId = assignmentIdIndex.query(QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(id).build()))
+                .limit(1)
+                .build())
+            .stream()
+            .flatMap(page -> page.items().stream())
+            .findFirst();
+        if (byAssignmentId.isPresent()) {
+            return byAssignmentId;
+        }
+        
+        int separator = id.indexOf(COMPOSITE_ID_SEPARATOR);
+        if (separator <= 0 || separator == id.length() - 1) {
+            return Optional.empty();
+        }
+        return findByEmployeeIdAndKpiDefinitionId(id.substring(0, separator), id.substring(separator + 1))
+            .filter(assignment -> id.equals(assignment.getId()));
     }
     
     /**
-     * Deletes KPI Assignment by ID
+     * Finds KPI Assignments by status
      */
-    public void deleteById(String id) {
-        Optional<KPIAssignment> assignment = findById(id);
-        if (assignment.isPresent()) {
-            KPIAssignment kpiAssignment = assignment.get();
-            delete(kpiAssignment.getEmployeeId(), kpiAssignment.getKpiDefinitionId());
+    public List<KPIAssignment> findByStatus(AssignmentStatus status) {
+        Expression statusFilter = Expression.builder()
+            .expression("#status = :status")
+            .putExpressionName("#status", "status")
+            .putExpressionValue(":status", AttributeValue.fromS(status.name()))
+            .build();
+        try (Stream<KPIAssignment> assignments = scanner.scan(statusFilter)) {
+            return assignments.collect(Collectors.toList());
         }
     }
     
@@ -157,12 +494,81 @@ public class KPIAssignmentRepository implements KPIAssignmentRepositoryInterface
         return findById(id).isPresent();
     }
     
+    /**
+     * Builds the summary update applying a count and weight delta and bumping the version.
+     * Missing attributes start from zero, so the first change for an employee creates the item.
+     */
+    private Update summaryUpdate(String employeeId, int countDelta, BigDecimal weightDelta,
+                                 String condition, Map<String, AttributeValue> conditionValues) {
+        Map<String, AttributeValue> values = new HashMap<>(conditionValues);
+        values.put(":zero", AttributeValue.fromN("0"));
+        values.put(":one", AttributeValue.fromN("1"));
+        values.put(":countDelta", AttributeValue.fromN(Integer.toString(countDelta)));
+        values.put(":weightDelta", AttributeValue.fromN(weightDelta.toPlainString()));
+        values.put(":now", toAttributeValue(LocalDateTime.now()));
+        
+        return Update.builder()
+            .tableName(summaryTableName)
+            .key(Map.of("employeeId", AttributeValue.fromS(employeeId)))
+            .updateExpression("SET #activeCount = if_not_exists(#activeCount, :zero) + :countDelta, "
+                + "#totalCustomWeight = if_not_exists(#totalCustomWeight, :zero) + :weightDelta, "
+                + "#version = if_not_exists(#version, :zero) + :one, "
+                + "#updatedAt = :now")
+            .conditionExpression(condition)
+            .expressionAttributeNames(Map.of(
+                "#activeCount", EmployeeAssignmentSummary.ACTIVE_COUNT,
+                "#totalCustomWeight", EmployeeAssignmentSummary.TOTAL_CUSTOM_WEIGHT,
+                "#version", EmployeeAssignmentSummary.VERSION,
+                "#updatedAt", EmployeeAssignmentSummary.UPDATED_AT))
+            .expressionAttributeValues(values)
+            .build();
+    }
+    
+    /**
+     * Condition matching a missing item or one that is not active
+     */
+    private static Expression notActive() {
+        return Expression.builder()
+            .expression("attribute_not_exists(employeeId) OR #status <> :active")
+            .putExpressionName("#status", "status")
+            .putExpressionValue(":active", AttributeValue.fromS(AssignmentStatus.ACTIVE.name()))
+            .build();
+    }
+    
+    private static BigDecimal weightOf(KPIAssignment assignment) {
+        return assignment.getCustomWeightPercentage() != null ? assignment.getCustomWeightPercentage() : BigDecimal.ZERO;
+    }
+    
+    private static AttributeValue toAttributeValue(LocalDateTime dateTime) {
+        return LOCAL_DATE_TIME_CONVERTER.transformFrom(dateTime);
+    }
+    
+    private boolean conditionFailed(TransactionCanceledException e, int itemIndex) {
+        List<CancellationReason> reasons = e.cancellationReasons();
+        return reasons != null && reasons.size() > itemIndex
+            && CONDITIONAL_CHECK_FAILED.equals(reasons.get(itemIndex).code());
+    }
+    
     /**
      * Creates the DynamoDB table if it doesn't exist
      */
     private void createTableIfNotExists() {
         try {
-            table.createTable(CreateTableEnhancedRequest.builder().build());
+            table.createTable(CreateTableEnhancedRequest.builder()
+                .globalSecondaryIndices(
+                    EnhancedGlobalSecondaryIndex.builder()
+                        .indexName(KPIAssignment.KPI_DEFINITION_INDEX)
+                        .projection(projection -> projection.projectionType(ProjectionType.ALL))
+                        .build(),
+                    EnhancedGlobalSecondaryIndex.builder()
+                        .indexName(KPIAssignment.ASSIGNMENT_ID_INDEX)
+                        .projection(projection -> projection.projectionType(ProjectionType.ALL))
+                        .build(),
+                    EnhancedGlobalSecondaryIndex.builder()
+                        .indexName(KPIAssignment.SUPERVISOR_INDEX)
+                        .projection(projection -> projection.projectionType(ProjectionType.ALL))
+                        .build())
+                .build());
         } catch (ResourceNotFoundException e) {
             // Table already exists, which is fine
         } catch (Exception e) {
@@ -170,4 +576,35 @@ public class KPIAssignmentRepository implements KPIAssignmentRepositoryInterface
             System.out.println("Could not create DynamoDB table " + tableName + ": " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Creates the employee summary table if it doesn't exist.
+     * A freshly created summary table is seeded from the active assignments already stored,
+     * so counters start out consistent when the service is upgraded in place.
+     */
+    private void createSummaryTableIfNotExists() {
+        try {
+            summaryTable.createTable();
+            dynamoDb.waiter().waitUntilTableExists(request -> request.tableName(summaryTableName));
+            rebuildSummaries();
+        } catch (ResourceInUseException e) {
+            // Table already exists, which is fine
+        } catch (Exception e) {
+            // Log warning but don't fail the application
+            System.out.println("Could not create DynamoDB table " + summaryTableName + ": " + e.getMessage());
+        }
+    }
+    
+    private void rebuildSummaries() {
+        Map<String, List<KPIAssignment>> activeByEmployee = findByStatus(AssignmentStatus.ACTIVE).stream()
+            .collect(Collectors.groupingBy(KPIAssignment::getEmployeeId));
+        activeByEmployee.forEach((employeeId, assignments) -> {
+            BigDecimal totalWeight = assignments.stream()
+                .map(KPIAssignmentRepository::weightOf)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            EmployeeAssignmentSummary summary = new EmployeeAssignmentSummary(employeeId, assignments.size(), totalWeight);
+            summary.setVersion(1);
+            summaryTable.putItem(summary);
+        });
+    }
+}
@@ -1,46 +1,172 @@
 package com.company.kpi.repository;
 
+import com.company.kpi.infrastructure.repositories.CountMode;
+import com.company.kpi.infrastructure.repositories.ParallelScanner;
+import com.company.kpi.infrastructure.repositories.TableItemCounter;
 import com.company.kpi.model.KPICategory;
 import com.company.kpi.model.KPIDefinition;
+import com.company.kpi.model.KPIDefinitionNameReservation;
+import com.company.kpi.model.dto.PagedResponse;
 import com.company.kpi.repository.interfaces.KPIDefinitionRepositoryInterface;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.CreateTableEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.EnhancedGlobalSecondaryIndex;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
-import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.ResourceInUseException;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 /**
- * DynamoDB repository for KPI Definition
+ * DynamoDB repository for KPI Definition.
+ * Category and active listings query the {@link KPIDefinition#CATEGORY_INDEX} and sparse
+ * {@link KPIDefinition#ACTIVE_INDEX} GSIs, so they read only the matching definitions, ordered by name.
  */
 @Repository("kpiDefinitionRepositoryImpl")
 public class KPIDefinitionRepository implements KPIDefinitionRepositoryInterface {
     
+    private static final Logger logger = LoggerFactory.getLogger(KPIDefinitionRepository.class);
+    
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+    
+    /** DynamoDB's limit on keys per BatchGetItem request */
+    private static final int BATCH_GET_LIMIT = 100;
+    private static final int BATCH_GET_MAX_ATTEMPTS = 5;
+    private static final long BATCH_GET_BASE_BACKOFF_MILLIS = 50;
+    private static final int MAX_PAGE_ROUNDS = 10;
+    
+    private final DynamoDbClient dynamoDb;
     private final DynamoDbTable<KPIDefinition> table;
+    private final DynamoDbTable<KPIDefinitionNameReservation> nameTable;
     private final String tableName;
+    private final String nameTableName;
+    private final TableItemCounter itemCounter;
+    private final ParallelScanner<KPIDefinition> scanner;
+    private final DynamoDbIndex<KPIDefinition> categoryIndex;
+    private final DynamoDbIndex<KPIDefinition> activeIndex;
     
     public KPIDefinitionRepository(DynamoDbEnhancedClient dynamoDbClient,
-                                 @Value("${aws.dynamodb.table-prefix:kpi-management-}") String tablePrefix) {
+                                 DynamoDbClient dynamoDb,
+                                 @Value("${aws.dynamodb.table-prefix:kpi-management-}") String tablePrefix,
+                                 @Value("${aws.dynamodb.scan-segments:4}") int scanSegments) {
+        this.dynamoDb = dynamoDb;
         this.tableName = tablePrefix + "kpi-definitions";
+        this.nameTableName = tablePrefix + "kpi-definition-names";
         this.table = dynamoDbClient.table(tableName, TableSchema.fromBean(KPIDefinition.class));
-        
-        // Create table if it doesn't exist (for demo purposes)
+        this.nameTable = dynamoDbClient.table(nameTableName, TableSchema.fromBean(KPIDefinitionNameReservation.class));
+        this.itemCounter = new TableItemCounter(dynamoDb, tableName, scanSegments);
+        this.scanner = new ParallelScanner<>(table, scanSegments);
+        this.categoryIndex = table.index(KPIDefinition.CATEGORY_INDEX);
+        this.activeIndex = table.index(KPIDefinition.ACTIVE_INDEX);
+    }
+    
+    /**
+     * Creates the tables if they don't exist (for demo purposes).
+     * Runs once the repository is fully constructed, since seeding the name table scans definitions.
+     */
+    @PostConstruct
+    void createTablesIfNotExist() {
         createTableIfNotExists();
+        createNameTableIfNotExists();
     }
     
     /**
-     * Saves a KPI Definition
+     * Saves a KPI Definition together with the reservation of its name, in one transaction.
+     * The reservation put only succeeds if the name is free or already held by this definition,
+     * so duplicate names are rejected atomically even under concurrent creates. A rename releases
+     * the old reservation in the same transaction.
+     *
+     * @throws IllegalArgumentException if another definition holds the name, or the definition was
+     *                                  changed concurrently
      */
     public KPIDefinition save(KPIDefinition kpi) {
-        table.putItem(kpi);
+        KPIDefinition previous = table.getItem(request -> request
+            .key(Key.builder().partitionValue(kpi.getId()).build())
+            .consistentRead(true));
+        
+        List<TransactWriteItem> writes = new ArrayList<>();
+        writes.add(TransactWriteItem.builder().put(Put.builder()
+                .tableName(nameTableName)
+                .item(nameTable.tableSchema().itemToMap(new KPIDefinitionNameReservation(kpi.getName(), kpi.getId()), true))
+                .conditionExpression("attribute_not_exists(#name) OR #kpiId = :kpiId")
+                .expressionAttributeNames(Map.of(
+                    "#name", KPIDefinitionNameReservation.NAME,
+                    "#kpiId", KPIDefinitionNameReservation.KPI_ID))
+                .expressionAttributeValues(Map.of(":kpiId", AttributeValue.fromS(kpi.getId())))
+                .build())
+            .build());
+        
+        // Guard against a concurrent write to the same definition between the read above and this transaction
+        Put.Builder definitionPut = Put.builder()
+            .tableName(tableName)
+            .item(table.tableSchema().itemToMap(kpi, true));
+        if (previous == null) {
+            definitionPut.conditionExpression("attribute_not_exists(#id)")
+                .expressionAttributeNames(Map.of("#id", "id"));
+        } else if (previous.getName() == null) {
+            definitionPut.conditionExpression("attribute_not_exists(#name)")
+                .expressionAttributeNames(Map.of("#name", "name"));
+        } else {
+            definitionPut.conditionExpression("#name = :previousName")
+                .expressionAttributeNames(Map.of("#name", "name"))
+                .expressionAttributeValues(Map.of(":previousName", AttributeValue.fromS(previous.getName())));
+        }
+        writes.add(TransactWriteItem.builder().put(definitionPut.build()).build());
+        
+        if (previous != null && previous.getName() != null && !previous.getName().equals(kpi.getName())) {
+            writes.add(TransactWriteItem.builder().delete(releaseName(previous)).build());
+        }
+        
+        try {
+            dynamoDb.transactWriteItems(request -> request.transactItems(writes));
+        } catch (TransactionCanceledException e) {
+            if (conditionFailed(e, 0)) {
+                throw new IllegalArgumentException("KPI with name '" + kpi.getName() + "' already exists");
+            }
+            if (conditionFailed(e, 1)) {
+                throw new IllegalArgumentException("KPI Definition was modified concurrently: " + kpi.getId());
+            }
+            throw e;
+        }
+        
+        if (previous == null) {
+            itemCounter.recordInsert();
+        }
         return kpi;
     }
     
@@ -54,47 +180,179 @@ public class KPIDefinitionRepository implements KPIDefinitionRepositoryInterface
     }
     
     /**
-     * Finds all KPI Definitions
+     * Finds KPI Definitions by ID with BatchGetItem, in chunks of 100 keys read in parallel.
+     * Unprocessed keys are retried with exponential backoff. IDs that do not exist are absent
+     * from the result.
+     *
+     * @throws IllegalStateException if keys are still unprocessed after the last retry
      */
-    public List<KPIDefinition> findAll() {
-        return table.scan(ScanEnhancedRequest.builder().build())
-            .items()
-            .stream()
+    public Map<String, KPIDefinition> findAllByIds(Collection<String> ids) {
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<String, KPIDefinition> found = new ConcurrentHashMap<>();
+        if (distinctIds.isEmpty()) {
+            return found;
+        }
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int from = 0; from < distinctIds.size(); from += BATCH_GET_LIMIT) {
+                List<String> chunk = distinctIds.subList(from, Math.min(from + BATCH_GET_LIMIT, distinctIds.size()));
+                futures.add(executor.submit(() -> {
+                    batchGet(chunk, found);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                awaitBatchGet(future);
+            }
+        }
+        return found;
+    }
+    
+    private void batchGet(List<String> ids, Map<String, KPIDefinition> found) throws InterruptedException {
+        List<Map<String, AttributeValue>> keys = ids.stream()
+            .map(id -> Map.of("id", AttributeValue.fromS(id)))
             .collect(Collectors.toList());
+        KeysAndAttributes pending = KeysAndAttributes.builder().keys(keys).build();
+        
+        for (int attempt = 1; ; attempt++) {
+            KeysAndAttributes request = pending;
+            BatchGetItemResponse response = dynamoDb.batchGetItem(builder -> builder
+                .requestItems(Map.of(tableName, request)));
+            for (Map<String, AttributeValue> item : response.responses().getOrDefault(tableName, List.of())) {
+                KPIDefinition kpi = table.tableSchema().mapToItem(item);
+                found.put(kpi.getId(), kpi);
+            }
+            
+            pending = response.unprocessedKeys().get(tableName);
+            if (pending == null || !pending.hasKeys() || pending.keys().isEmpty()) {
+                return;
+            }
+            if (attempt == BATCH_GET_MAX_ATTEMPTS) {
+                throw new IllegalStateException(pending.keys().size() + " KPI Definitions still unprocessed after "
+                    + attempt + " batch get attempts");
+            }
+            Thread.sleep(BATCH_GET_BASE_BACKOFF_MILLIS << (attempt - 1));
+        }
+    }
+    
+    private void awaitBatchGet(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading KPI Definitions", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to load KPI Definitions", e.getCause());
+        }
     }
     
     /**
-     * Finds KPI Definition by name
+     * Finds all KPI Definitions with a parallel segmented scan
+     */
+    public List<KPIDefinition> findAll() {
+        return scanner.scanAll();
+    }
+    
+    /**
+     * Finds KPI Definition by name through its name reservation
      */
     public Optional<KPIDefinition> findByName(String name) {
-        return findAll().stream()
-            .filter(kpi -> kpi.getName().equals(name))
-            .findFirst();
+        return findReservation(name)
+            .flatMap(reservation -> findById(reservation.getKpiId()))
+            .filter(kpi -> name.equals(kpi.getName()));
     }
     
     /**
-     * Checks if KPI Definition exists by name
+     * Checks if KPI Definition exists by name (a single read of the name reservation)
      */
     public boolean existsByName(String name) {
-        return findByName(name).isPresent();
+        return findReservation(name).isPresent();
+    }
+    
+    private Optional<KPIDefinitionNameReservation> findReservation(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(nameTable.getItem(Key.builder().partitionValue(name).build()));
     }
     
     /**
-     * Finds KPI Definitions by category
+     * Finds KPI Definitions by category, ordered by name
      */
     public List<KPIDefinition> findByCategory(KPICategory category) {
-        return findAll().stream()
-            .filter(kpi -> kpi.getCategory() == category)
-            .collect(Collectors.toList());
+        return queryAll(categoryIndex, category.name());
     }
     
     /**
-     * Finds active KPI Definitions
+     * Finds active KPI Definitions, ordered by name
      */
     public List<KPIDefinition> findByIsActiveTrue() {
-        return findAll().stream()
-            .filter(KPIDefinition::isActive)
-            .collect(Collectors.toList());
+        return queryAll(activeIndex, KPIDefinition.ACTIVE_FLAG);
+    }
+    
+    /**
+     * Finds one page of KPI Definitions, optionally restricted to a category and/or to active ones.
+     * Filtered listings query a GSI and are ordered by name; unfiltered listings page through a table scan.
+     */
+    public PagedResponse<KPIDefinition> findPage(KPICategory category, boolean activeOnly, String cursor, int limit) {
+        Map<String, AttributeValue> startKey = PageCursor.decode(cursor);
+        List<KPIDefinition> items = new ArrayList<>();
+        int rounds = 0;
+        
+        do {
+            Page<KPIDefinition> page = readPage(category, activeOnly, startKey, limit - items.size());
+            items.addAll(page.items());
+            startKey = page.lastEvaluatedKey();
+            rounds++;
+        } while (startKey != null && !startKey.isEmpty() && items.size() < limit && rounds < MAX_PAGE_ROUNDS);
+        
+        return new PagedResponse<>(items, PageCursor.encode(startKey));
+    }
+    
+    private Page<KPIDefinition> readPage(KPICategory category, boolean activeOnly,
+                                         Map<String, AttributeValue> startKey, int pageSize) {
+        if (category == null && !activeOnly) {
+            return table.scan(ScanEnhancedRequest.builder()
+                    .exclusiveStartKey(startKey)
+                    .limit(pageSize)
+                    .build())
+                .iterator().next();
+        }
+        
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder()
+            .exclusiveStartKey(startKey)
+            .limit(pageSize);
+        if (category == null) {
+            return activeIndex.query(request.queryConditional(partitionKey(KPIDefinition.ACTIVE_FLAG)).build())
+                .iterator().next();
+        }
+        request.queryConditional(partitionKey(category.name()));
+        if (activeOnly) {
+            request.filterExpression(Expression.builder()
+                .expression("#active = :active")
+                .expressionNames(Map.of("#active", "active"))
+                .expressionValues(Map.of(":active", AttributeValue.fromBool(true)))
+                .build());
+        }
+        return categoryIndex.query(request.build()).iterator().next();
+    }
+    
+    private List<KPIDefinition> queryAll(DynamoDbIndex<KPIDefinition> index, String partitionValue) {
+        List<KPIDefinition> kpis = new ArrayList<>();
+        for (Page<KPIDefinition> page : index.query(QueryEnhancedRequest.builder()
+                .queryConditional(partitionKey(partitionValue))
+                .build())) {
+            kpis.addAll(page.items());
+        }
+        return kpis;
+    }
+    
+    private static QueryConditional partitionKey(String value) {
+        return QueryConditional.keyEqualTo(Key.builder().partitionValue(value).build());
     }
     
     /**
@@ -102,14 +360,36 @@ public class KPIDefinitionRepository implements KPIDefinitionRepositoryInterface
      */
     public void deleteById(String id) {
         Key key = Key.builder().partitionValue(id).build();
-        table.deleteItem(key);
+        KPIDefinition existing = table.getItem(key);
+        if (existing == null) {
+            return;
+        }
+        
+        Delete deleteDefinition = Delete.builder()
+            .tableName(tableName)
+            .key(Map.of("id", AttributeValue.fromS(id)))
+            .build();
+        List<TransactWriteItem> writes = new ArrayList<>();
+        writes.add(TransactWriteItem.builder().delete(deleteDefinition).build());
+        if (existing.getName() != null) {
+            writes.add(TransactWriteItem.builder().delete(releaseName(existing)).build());
+        }
+        dynamoDb.transactWriteItems(request -> request.transactItems(writes));
+        itemCounter.recordDelete();
     }
     
     /**
-     * Counts total KPI Definitions
+     * Counts total KPI Definitions exactly
      */
     public long count() {
-        return findAll().size();
+        return count(CountMode.EXACT);
+    }
+    
+    /**
+     * Counts KPI Definitions, exactly or from the maintained approximate counter
+     */
+    public long count(CountMode mode) {
+        return itemCounter.count(mode);
     }
     
     /**
@@ -120,25 +400,94 @@ public class KPIDefinitionRepository implements KPIDefinitionRepositoryInterface
     }
     
     /**
-     * Finds KPI Definitions by department
+     * Finds KPI Definitions by department.
+     * The department is derived from the category, so this queries the category index; only
+     * definitions without a category ("GENERAL") need a scan.
      */
     public List<KPIDefinition> findByDepartment(String department) {
+        for (KPICategory category : KPICategory.values()) {
+            if (category.toString().equals(department)) {
+                return findByCategory(category);
+            }
+        }
         return findAll().stream()
             .filter(kpi -> department.equals(kpi.getDepartment()))
             .collect(Collectors.toList());
     }
     
     /**
-     * Creates the DynamoDB table if it doesn't exist
+     * Deletes a definition's name reservation, provided it still belongs to that definition
+     */
+    private Delete releaseName(KPIDefinition kpi) {
+        return Delete.builder()
+            .tableName(nameTableName)
+            .key(Map.of(KPIDefinitionNameReservation.NAME, AttributeValue.fromS(kpi.getName())))
+            .conditionExpression("attribute_not_exists(#name) OR #kpiId = :kpiId")
+            .expressionAttributeNames(Map.of(
+                "#name", KPIDefinitionNameReservation.NAME,
+                "#kpiId", KPIDefinitionNameReservation.KPI_ID))
+            .expressionAttributeValues(Map.of(":kpiId", AttributeValue.fromS(kpi.getId())))
+            .build();
+    }
+    
+    private boolean conditionFailed(TransactionCanceledException e, int itemIndex) {
+        List<CancellationReason> reasons = e.cancellationReasons();
+        return reasons != null && reasons.size() > itemIndex
+            && CONDITIONAL_CHECK_FAILED.equals(reasons.get(itemIndex).code());
+    }
+    
+    /**
+     * Creates the DynamoDB table with its secondary indexes if it doesn't exist
      */
     private void createTableIfNotExists() {
         try {
-            table.createTable(CreateTableEnhancedRequest.builder().build());
-        } catch (ResourceNotFoundException e) {
-            // Table already exists, which is fine
+            table.createTable(CreateTableEnhancedRequest.builder()
+                .globalSecondaryIndices(
+                    EnhancedGlobalSecondaryIndex.builder()
+                        .indexName(KPIDefinition.CATEGORY_INDEX)
+                        .projection(projection -> projection.projectionType(ProjectionType.ALL))
+                        .build(),
+                    EnhancedGlobalSecondaryIndex.builder()
+                        .indexName(KPIDefinition.ACTIVE_INDEX)
+                        .projection(projection -> projection.projectionType(ProjectionType.ALL))
+                        .build())
+                .build());
+            logger.info("Created DynamoDB table: {}", tableName);
+        } catch (ResourceInUseException e) {
+            logger.debug("DynamoDB table already exists: {}", tableName);
+        } catch (Exception e) {
+            // Don't fail the application
+            logger.warn("Could not create DynamoDB table {}: {}", tableName, e.getMessage());
+        }
+    }
+    
+    /**
+     * Creates the name reservation table if it doesn't exist.
+     * A freshly created table is filled from the definitions already stored; if existing data
+     * holds duplicate names, the first definition read keeps the name.
+     */
+    private void createNameTableIfNotExists() {
+        try {
+            nameTable.createTable();
+            dynamoDb.waiter().waitUntilTableExists(request -> request.tableName(nameTableName));
+            logger.info("Created DynamoDB table: {}", nameTableName);
+            reserveExistingNames();
+        } catch (ResourceInUseException e) {
+            logger.debug("DynamoDB table already exists: {}", nameTableName);
         } catch (Exception e) {
-            // Log warning but don't fail the application
-            System.out.println("Could not create DynamoDB table " + tableName + ": " + e.getMessage());
+            // Don't fail the application
+            logger.warn("Could not create DynamoDB table {}: {}", nameTableName, e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    private void reserveExistingNames() {
+        Map<String, String> reservations = new HashMap<>();
+        scanner.forEach(kpi -> {
+            if (kpi.getName() != null && reservations.putIfAbsent(kpi.getName(), kpi.getId()) != null) {
+                logger.warn("Duplicate KPI Definition name '{}' left unreserved for {}", kpi.getName(), kpi.getId());
+            }
+        });
+        reservations.forEach((name, kpiId) -> nameTable.putItem(new KPIDefinitionNameReservation(name, kpiId)));
+        logger.info("Reserved {} existing KPI Definition names", reservations.size());
+    }
+}
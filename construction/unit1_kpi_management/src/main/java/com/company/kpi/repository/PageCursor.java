@@ -0,0 +1,87 @@
+package com.company.kpi.repository;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes DynamoDB LastEvaluatedKey maps as opaque, URL-safe cursor tokens and back.
+ * Only string and number key attributes are supported, which covers every table key in this service.
+ */
+public final class PageCursor {
+    
+    private static final byte STRING_TYPE = 'S';
+    private static final byte NUMBER_TYPE = 'N';
+    
+    private PageCursor() {}
+    
+    /**
+     * Encodes a LastEvaluatedKey, returning null when there is no further page
+     */
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(lastEvaluatedKey.size());
+            for (Map.Entry<String, AttributeValue> entry : lastEvaluatedKey.entrySet()) {
+                AttributeValue value = entry.getValue();
+                out.writeUTF(entry.getKey());
+                if (value.s() != null) {
+                    out.writeByte(STRING_TYPE);
+                    out.writeUTF(value.s());
+                } else if (value.n() != null) {
+                    out.writeByte(NUMBER_TYPE);
+                    out.writeUTF(value.n());
+                } else {
+                    throw new IllegalArgumentException("Unsupported key attribute type for " + entry.getKey());
+                }
+            }
+            out.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode page cursor", e);
+        }
+    }
+    
+    /**
+     * Decodes a cursor token into an ExclusiveStartKey, returning null for an absent cursor
+     */
+    public static Map<String, AttributeValue> decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        
+        try {
+            DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)));
+            int size = in.readShort();
+            Map<String, AttributeValue> key = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                String name = in.readUTF();
+                byte type = in.readByte();
+                String value = in.readUTF();
+                if (type == STRING_TYPE) {
+                    key.put(name, AttributeValue.fromS(value));
+                } else if (type == NUMBER_TYPE) {
+                    key.put(name, AttributeValue.fromN(value));
+                } else {
+                    throw new IllegalArgumentException("Invalid page cursor");
+                }
+            }
+            return key;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
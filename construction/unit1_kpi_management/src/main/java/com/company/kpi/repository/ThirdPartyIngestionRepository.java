@@ -0,0 +1,116 @@
+package com.company.kpi.repository;
+
+import com.company.kpi.model.IngestionCheckpoint;
+import com.company.kpi.model.ThirdPartyMetricSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ResourceInUseException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DynamoDB repository for third-party ingestion: metric snapshots and run checkpoints
+ */
+@Repository
+public class ThirdPartyIngestionRepository {
+    
+    /** DynamoDB's limit on items per BatchWriteItem request */
+    private static final int BATCH_WRITE_LIMIT = 25;
+    private static final int BATCH_WRITE_MAX_ATTEMPTS = 5;
+    private static final long BATCH_WRITE_BASE_BACKOFF_MILLIS = 50;
+    
+    private final DynamoDbEnhancedClient dynamoDbClient;
+    private final DynamoDbClient dynamoDb;
+    private final DynamoDbTable<ThirdPartyMetricSnapshot> snapshotTable;
+    private final DynamoDbTable<IngestionCheckpoint> checkpointTable;
+    
+    public ThirdPartyIngestionRepository(DynamoDbEnhancedClient dynamoDbClient,
+                                         DynamoDbClient dynamoDb,
+                                         @Value("${aws.dynamodb.table-prefix:kpi-management-}") String tablePrefix) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.dynamoDb = dynamoDb;
+        this.snapshotTable = dynamoDbClient.table(tablePrefix + "third-party-metrics",
+            TableSchema.fromBean(ThirdPartyMetricSnapshot.class));
+        this.checkpointTable = dynamoDbClient.table(tablePrefix + "ingestion-checkpoints",
+            TableSchema.fromBean(IngestionCheckpoint.class));
+        
+        // Create tables if they don't exist (for demo purposes)
+        createTableIfNotExists(snapshotTable);
+        createTableIfNotExists(checkpointTable);
+    }
+    
+    /**
+     * Saves metric snapshots with BatchWriteItem, 25 items per request.
+     * Unprocessed items are retried with exponential backoff.
+     *
+     * @throws IllegalStateException if items are still unprocessed after the last retry
+     */
+    public void saveSnapshots(List<ThirdPartyMetricSnapshot> snapshots) throws InterruptedException {
+        for (int from = 0; from < snapshots.size(); from += BATCH_WRITE_LIMIT) {
+            List<ThirdPartyMetricSnapshot> pending = snapshots.subList(from, Math.min(from + BATCH_WRITE_LIMIT, snapshots.size()));
+            for (int attempt = 1; !pending.isEmpty(); attempt++) {
+                WriteBatch.Builder<ThirdPartyMetricSnapshot> batch = WriteBatch.builder(ThirdPartyMetricSnapshot.class)
+                    .mappedTableResource(snapshotTable);
+                pending.forEach(batch::addPutItem);
+                BatchWriteResult result = dynamoDbClient.batchWriteItem(request -> request.addWriteBatch(batch.build()));
+                
+                pending = result.unprocessedPutItemsForTable(snapshotTable);
+                if (!pending.isEmpty()) {
+                    if (attempt == BATCH_WRITE_MAX_ATTEMPTS) {
+                        throw new IllegalStateException(pending.size() + " metric snapshots still unprocessed after "
+                            + attempt + " batch write attempts");
+                    }
+                    Thread.sleep(BATCH_WRITE_BASE_BACKOFF_MILLIS << (attempt - 1));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Finds the metric snapshot of an employee for a source and day
+     */
+    public Optional<ThirdPartyMetricSnapshot> findSnapshot(String employeeId, String source, LocalDate periodDate) {
+        Key key = Key.builder().partitionValue(employeeId).sortValue(source + "#" + periodDate).build();
+        return Optional.ofNullable(snapshotTable.getItem(key));
+    }
+    
+    /**
+     * Finds the checkpoint of a source's run for a day
+     */
+    public Optional<IngestionCheckpoint> findCheckpoint(String source, LocalDate runDate) {
+        Key key = Key.builder().partitionValue(IngestionCheckpoint.idOf(source, runDate)).build();
+        return Optional.ofNullable(checkpointTable.getItem(request -> request.key(key).consistentRead(true)));
+    }
+    
+    /**
+     * Saves a checkpoint
+     */
+    public IngestionCheckpoint saveCheckpoint(IngestionCheckpoint checkpoint) {
+        checkpointTable.putItem(checkpoint);
+        return checkpoint;
+    }
+    
+    /**
+     * Creates the DynamoDB table if it doesn't exist
+     */
+    private void createTableIfNotExists(DynamoDbTable<?> table) {
+        try {
+            table.createTable();
+            dynamoDb.waiter().waitUntilTableExists(request -> request.tableName(table.tableName()));
+        } catch (ResourceInUseException e) {
+            // Table already exists, which is fine
+        } catch (Exception e) {
+            // Log warning but don't fail the application
+            System.out.println("Could not create DynamoDB table " + table.tableName() + ": " + e.getMessage());
+        }
+    }
+}
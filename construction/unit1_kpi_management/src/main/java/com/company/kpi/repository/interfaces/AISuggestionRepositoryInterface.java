@@ -0,0 +1,40 @@
+package com.company.kpi.repository.interfaces;
+
+import com.company.kpi.model.AISuggestion;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for AI Suggestion operations.
+ * Text filters match case-insensitively, ignoring surrounding whitespace; null filters match everything.
+ */
+public interface AISuggestionRepositoryInterface {
+    
+    /**
+     * Saves a suggestion; must be called again after changing any of its filtered fields
+     */
+    AISuggestion save(AISuggestion suggestion);
+    
+    List<AISuggestion> saveAll(Collection<AISuggestion> suggestions);
+    
+    /**
+     * Saves the suggestions only if the store holds none yet; returns whether they were saved
+     */
+    boolean saveAllIfEmpty(Collection<AISuggestion> suggestions);
+    
+    Optional<AISuggestion> findById(String suggestionId);
+    
+    List<AISuggestion> findByFilters(AISuggestion.SuggestionStatus status, String jobTitle,
+                                     String department, String assignedTo);
+    
+    /**
+     * Suggestions assigned to or reviewed by the user, newest first
+     */
+    List<AISuggestion> findHistoryForUser(String userId);
+    
+    boolean isEmpty();
+    
+    long count();
+}
@@ -1,10 +1,15 @@
 package com.company.kpi.repository.interfaces;
 
+import com.company.kpi.infrastructure.repositories.CountMode;
 import com.company.kpi.model.ApprovalStatus;
 import com.company.kpi.model.ApprovalWorkflow;
+import com.company.kpi.model.dto.PagedResponse;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository interface for Approval Workflow operations
@@ -17,6 +22,13 @@ public interface ApprovalWorkflowRepositoryInterface {
     
     List<ApprovalWorkflow> findAll();
     
+    Map<String, ApprovalWorkflow> findAllByIds(Collection<String> ids);
+    
+    /**
+     * Saves decided workflows that are still pending in storage; returns the IDs that were not saved
+     */
+    DecisionWriteResult saveDecisions(List<ApprovalWorkflow> workflows);
+    
     List<ApprovalWorkflow> findByKpiAssignmentId(String kpiAssignmentId);
     
     List<ApprovalWorkflow> findByStatus(ApprovalStatus status);
@@ -27,7 +39,23 @@ public interface ApprovalWorkflowRepositoryInterface {
     
     boolean existsById(String id);
     
+    /**
+     * Workflows whose decision was not saved: {@code conflicts} were decided concurrently by someone else,
+     * {@code failed} were in a write that failed and may be retried
+     */
+    record DecisionWriteResult(Set<String> conflicts, Set<String> failed) {}
+    
+    long count();
+    
+    long count(CountMode mode);
+    
     List<ApprovalWorkflow> findByCheckerIdAndStatus(String checkerId, ApprovalStatus status);
     
     List<ApprovalWorkflow> findByMakerId(String makerId);
+    
+    PagedResponse<ApprovalWorkflow> findPageByCheckerIdAndStatus(String checkerId, ApprovalStatus status, String cursor, int limit);
+    
+    PagedResponse<ApprovalWorkflow> findPageByMakerId(String makerId, String cursor, int limit);
+    
+    PagedResponse<ApprovalWorkflow> findPageByStatus(ApprovalStatus status, String cursor, int limit);
 }
\ No newline at end of file
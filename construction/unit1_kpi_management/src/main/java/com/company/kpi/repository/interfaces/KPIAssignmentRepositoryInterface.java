@@ -1,8 +1,14 @@
 package com.company.kpi.repository.interfaces;
 
+import com.company.kpi.infrastructure.repositories.CountMode;
 import com.company.kpi.model.AssignmentStatus;
+import com.company.kpi.model.EmployeeAssignmentSummary;
 import com.company.kpi.model.KPIAssignment;
+import com.company.kpi.model.dto.KPIAssignmentQuery;
+import com.company.kpi.model.dto.PagedResponse;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +19,14 @@ public interface KPIAssignmentRepositoryInterface {
     
     KPIAssignment save(KPIAssignment kpiAssignment);
     
+    KPIAssignment createAssignment(KPIAssignment kpiAssignment, int maxActiveAssignments);
+    
+    KPIAssignment updateAssignment(KPIAssignment kpiAssignment, BigDecimal previousWeight, LocalDateTime previousUpdatedAt);
+    
+    KPIAssignment expireAssignment(KPIAssignment kpiAssignment);
+    
+    Optional<EmployeeAssignmentSummary> findSummaryByEmployeeId(String employeeId);
+    
     Optional<KPIAssignment> findById(String id);
     
     List<KPIAssignment> findAll();
@@ -23,13 +37,15 @@ public interface KPIAssignmentRepositoryInterface {
     
     List<KPIAssignment> findByStatus(AssignmentStatus status);
     
-    void deleteById(String id);
-    
     boolean existsById(String id);
     
     long count();
     
+    long count(CountMode mode);
+    
     Optional<KPIAssignment> findByEmployeeIdAndKpiDefinitionId(String employeeId, String kpiDefinitionId);
     
     List<KPIAssignment> findActiveByEmployeeId(String employeeId);
+    
+    PagedResponse<KPIAssignment> findPage(KPIAssignmentQuery query, String cursor, int limit);
 }
\ No newline at end of file
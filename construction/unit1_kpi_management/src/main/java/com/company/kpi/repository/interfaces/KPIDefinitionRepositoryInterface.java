@@ -1,9 +1,13 @@
 package com.company.kpi.repository.interfaces;
 
+import com.company.kpi.infrastructure.repositories.CountMode;
 import com.company.kpi.model.KPICategory;
 import com.company.kpi.model.KPIDefinition;
+import com.company.kpi.model.dto.PagedResponse;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -15,6 +19,8 @@ public interface KPIDefinitionRepositoryInterface {
     
     Optional<KPIDefinition> findById(String id);
     
+    Map<String, KPIDefinition> findAllByIds(Collection<String> ids);
+    
     List<KPIDefinition> findAll();
     
     List<KPIDefinition> findByCategory(KPICategory category);
@@ -27,9 +33,13 @@ public interface KPIDefinitionRepositoryInterface {
     
     long count();
     
+    long count(CountMode mode);
+    
     boolean existsByName(String name);
     
     List<KPIDefinition> findByIsActiveTrue();
     
+    PagedResponse<KPIDefinition> findPage(KPICategory category, boolean activeOnly, String cursor, int limit);
+    
     Optional<KPIDefinition> findByName(String name);
 }
\ No newline at end of file
@@ -4,13 +4,18 @@ import com.company.kpi.model.AISuggestion;
 import com.company.kpi.model.KPICategory;
 import com.company.kpi.model.MeasurementType;
 import com.company.kpi.model.dto.GenerateAISuggestionRequest;
+import com.company.kpi.repository.interfaces.AISuggestionRepositoryInterface;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Service for AI-powered KPI suggestions
@@ -20,8 +25,11 @@ public class AISuggestionService {
     
     private static final Logger logger = LoggerFactory.getLogger(AISuggestionService.class);
     
-    // In-memory storage for demo purposes
-    private final List<AISuggestion> suggestions = new ArrayList<>();
+    @Autowired
+    private AISuggestionRepositoryInterface suggestionRepository;
+    
+    @Autowired
+    private SuggestionTemplateCatalog templateCatalog;
     
     /**
      * Get pending AI suggestions with filters
@@ -31,16 +39,11 @@ public class AISuggestionService {
         logger.debug("Getting AI suggestions - status: {}, jobTitle: {}, department: {}, assignedTo: {}", 
             status, jobTitle, department, assignedTo);
         
-        if (suggestions.isEmpty()) {
+        if (suggestionRepository.isEmpty()) {
             initializeDemoSuggestions();
         }
         
-        return suggestions.stream()
-            .filter(s -> status == null || s.getStatus() == status)
-            .filter(s -> jobTitle == null || jobTitle.equalsIgnoreCase(s.getJobTitle()))
-            .filter(s -> department == null || department.equalsIgnoreCase(s.getDepartment()))
-            .filter(s -> assignedTo == null || assignedTo.equalsIgnoreCase(s.getAssignedTo()))
-            .collect(Collectors.toList());
+        return suggestionRepository.findByFilters(status, jobTitle, department, assignedTo);
     }
     
     /**
@@ -50,36 +53,48 @@ public class AISuggestionService {
         logger.info("Generating AI suggestions for job title: {} in department: {}", 
             request.getJob_title(), request.getDepartment());
         
-        List<AISuggestion> newSuggestions = new ArrayList<>();
-        
-        // Simulate AI-generated suggestions based on job title and department
-        Map<String, List<SuggestionTemplate>> templates = getJobTitleTemplates();
-        String jobTitleKey = request.getJob_title().toLowerCase().replace(" ", "_");
-        
-        List<SuggestionTemplate> jobTemplates = templates.getOrDefault(jobTitleKey, 
-            templates.get("default"));
-        
-        for (SuggestionTemplate template : jobTemplates) {
-            AISuggestion suggestion = new AISuggestion(request.getJob_title(), request.getDepartment(), 
-                template.name);
-            suggestion.setSuggestionId(UUID.randomUUID().toString());
-            suggestion.setSuggestedKpiDescription(template.description);
-            suggestion.setCategory(template.category);
-            suggestion.setMeasurementType(template.measurementType);
-            suggestion.setSuggestedTargetValue(template.targetValue);
-            suggestion.setSuggestedTargetUnit(template.targetUnit);
-            suggestion.setRationale(template.rationale);
-            suggestion.setConfidenceScore(template.confidenceScore);
-            suggestion.setAssignedTo("hr-manager"); // Default assignment
-            
-            newSuggestions.add(suggestion);
-            suggestions.add(suggestion);
-        }
+        List<AISuggestion> newSuggestions = buildSuggestions(request.getJob_title(), request.getDepartment());
+        suggestionRepository.saveAll(newSuggestions);
         
         logger.info("Generated {} AI suggestions for {}", newSuggestions.size(), request.getJob_title());
         return newSuggestions;
     }
     
+    /**
+     * Generate AI KPI suggestions for many job titles of one department.
+     * Titles are processed in parallel on virtual threads and all suggestions are stored in one bulk write;
+     * results are keyed by job title in request order.
+     */
+    public Map<String, List<AISuggestion>> generateSuggestionsBatch(List<String> jobTitles, String department) {
+        List<String> distinctTitles = jobTitles.stream()
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .filter(title -> !title.isEmpty())
+            .distinct()
+            .toList();
+        if (distinctTitles.isEmpty()) {
+            throw new IllegalArgumentException("At least one job title is required");
+        }
+        logger.info("Generating AI suggestions for {} job titles in department: {}", distinctTitles.size(), department);
+        
+        Map<String, List<AISuggestion>> suggestionsByTitle = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<String, Future<List<AISuggestion>>> futures = new LinkedHashMap<>();
+            for (String jobTitle : distinctTitles) {
+                futures.put(jobTitle, executor.submit(() -> buildSuggestions(jobTitle, department)));
+            }
+            futures.forEach((jobTitle, future) -> suggestionsByTitle.put(jobTitle, awaitSuggestions(future)));
+        }
+        
+        List<AISuggestion> allSuggestions = suggestionsByTitle.values().stream()
+            .flatMap(List::stream)
+            .toList();
+        suggestionRepository.saveAll(allSuggestions);
+        
+        logger.info("Generated {} AI suggestions for {} job titles", allSuggestions.size(), distinctTitles.size());
+        return suggestionsByTitle;
+    }
+    
     /**
      * Approve or reject AI suggestion
      */
@@ -87,9 +102,7 @@ public class AISuggestionService {
                                              String feedback, String reviewedBy) {
         logger.info("Updating AI suggestion {} to status: {} by user: {}", suggestionId, status, reviewedBy);
         
-        AISuggestion suggestion = suggestions.stream()
-            .filter(s -> s.getSuggestionId().equals(suggestionId))
-            .findFirst()
+        AISuggestion suggestion = suggestionRepository.findById(suggestionId)
             .orElseThrow(() -> new IllegalArgumentException("AI suggestion not found: " + suggestionId));
         
         suggestion.setStatus(status);
@@ -97,6 +110,7 @@ public class AISuggestionService {
         suggestion.setReviewedBy(reviewedBy);
         suggestion.setReviewedAt(LocalDateTime.now());
         suggestion.setUpdatedAt(LocalDateTime.now());
+        suggestionRepository.save(suggestion);
         
         logger.info("Successfully updated AI suggestion {} to status: {}", suggestionId, status);
         return suggestion;
@@ -108,17 +122,49 @@ public class AISuggestionService {
     public List<AISuggestion> getSuggestionHistory(String userId) {
         logger.debug("Getting AI suggestion history for user: {}", userId);
         
-        return suggestions.stream()
-            .filter(s -> userId.equals(s.getAssignedTo()) || userId.equals(s.getReviewedBy()))
-            .sorted((s1, s2) -> s2.getCreatedAt().compareTo(s1.getCreatedAt()))
-            .collect(Collectors.toList());
+        return suggestionRepository.findHistoryForUser(userId);
+    }
+    
+    /**
+     * Builds suggestions for a job title from the matching catalogue templates, without storing them
+     */
+    private List<AISuggestion> buildSuggestions(String jobTitle, String department) {
+        List<AISuggestion> suggestions = new ArrayList<>();
+        for (SuggestionTemplateCatalog.Template template : templateCatalog.match(jobTitle)) {
+            AISuggestion suggestion = new AISuggestion(jobTitle, department, template.name());
+            suggestion.setSuggestionId(UUID.randomUUID().toString());
+            suggestion.setSuggestedKpiDescription(template.description());
+            suggestion.setCategory(template.category());
+            suggestion.setMeasurementType(template.measurementType());
+            suggestion.setSuggestedTargetValue(template.targetValue());
+            suggestion.setSuggestedTargetUnit(template.targetUnit());
+            suggestion.setRationale(template.rationale());
+            suggestion.setConfidenceScore(template.confidenceScore());
+            suggestion.setAssignedTo("hr-manager"); // Default assignment
+            suggestions.add(suggestion);
+        }
+        return suggestions;
+    }
+    
+    private List<AISuggestion> awaitSuggestions(Future<List<AISuggestion>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating AI suggestions", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to generate AI suggestions", e.getCause());
+        }
     }
     
     /**
-     * Initialize demo AI suggestions
+     * Initialize demo AI suggestions, unless another request already stored suggestions
      */
     private void initializeDemoSuggestions() {
-        logger.info("Initializing demo AI suggestions");
+        List<AISuggestion> suggestions = new ArrayList<>();
         
         // Sales Manager suggestions
         AISuggestion salesSuggestion = new AISuggestion("Sales Manager", "Sales", "Monthly Revenue Target");
@@ -146,69 +192,8 @@ public class AISuggestionService {
         marketingSuggestion.setAssignedTo("hr-manager");
         suggestions.add(marketingSuggestion);
         
-        logger.info("Initialized {} demo AI suggestions", suggestions.size());
-    }
-    
-    /**
-     * Get job title suggestion templates
-     */
-    private Map<String, List<SuggestionTemplate>> getJobTitleTemplates() {
-        Map<String, List<SuggestionTemplate>> templates = new HashMap<>();
-        
-        // Sales Manager templates
-        templates.put("sales_manager", Arrays.asList(
-            new SuggestionTemplate("Monthly Revenue Achievement", "Track monthly revenue against targets", 
-                KPICategory.FINANCIAL, MeasurementType.CURRENCY, 100000.0, "USD", 
-                "Revenue is the primary success metric for sales roles", 95.0),
-            new SuggestionTemplate("Customer Acquisition Rate", "Number of new customers acquired per month", 
-                KPICategory.CUSTOMER, MeasurementType.COUNT, 20.0, "customers", 
-                "New customer acquisition drives business growth", 90.0)
-        ));
-        
-        // Marketing Manager templates
-        templates.put("marketing_manager", Arrays.asList(
-            new SuggestionTemplate("Lead Conversion Rate", "Percentage of leads converted to sales", 
-                KPICategory.OPERATIONAL, MeasurementType.PERCENTAGE, 15.0, "%", 
-                "Marketing effectiveness measured by lead quality", 88.0),
-            new SuggestionTemplate("Marketing ROI", "Return on investment for marketing campaigns", 
-                KPICategory.FINANCIAL, MeasurementType.RATIO, 3.0, "ratio", 
-                "ROI demonstrates marketing value to business", 85.0)
-        ));
-        
-        // Default templates
-        templates.put("default", Arrays.asList(
-            new SuggestionTemplate("Performance Score", "Overall performance rating", 
-                KPICategory.PERFORMANCE, MeasurementType.SCORE, 4.0, "out of 5", 
-                "General performance metric applicable to most roles", 70.0)
-        ));
-        
-        return templates;
-    }
-    
-    /**
-     * Internal class for suggestion templates
-     */
-    private static class SuggestionTemplate {
-        String name;
-        String description;
-        KPICategory category;
-        MeasurementType measurementType;
-        Double targetValue;
-        String targetUnit;
-        String rationale;
-        Double confidenceScore;
-        
-        SuggestionTemplate(String name, String description, KPICategory category, 
-                          MeasurementType measurementType, Double targetValue, String targetUnit, 
-                          String rationale, Double confidenceScore) {
-            this.name = name;
-            this.description = description;
-            this.category = category;
-            this.measurementType = measurementType;
-            this.targetValue = targetValue;
-            this.targetUnit = targetUnit;
-            this.rationale = rationale;
-            this.confidenceScore = confidenceScore;
+        if (suggestionRepository.saveAllIfEmpty(suggestions)) {
+            logger.info("Initialized {} demo AI suggestions", suggestions.size());
         }
     }
 }
\ No newline at end of file
@@ -1,32 +1,67 @@
 package com.company.kpi.service;
 
+import com.company.kpi.infrastructure.json.CompressedJson;
+import com.company.kpi.infrastructure.json.JsonPatch;
 import com.company.kpi.model.*;
+import com.company.kpi.model.dto.BulkApprovalDecisionResponse;
+import com.company.kpi.model.dto.BulkApprovalDecisionResponse.ItemResult;
+import com.company.kpi.model.dto.BulkApprovalDecisionResponse.Outcome;
+import com.company.kpi.model.dto.PagedResponse;
 import com.company.kpi.repository.interfaces.ApprovalWorkflowRepositoryInterface;
+import com.company.kpi.repository.interfaces.ApprovalWorkflowRepositoryInterface.DecisionWriteResult;
+import com.company.kpi.repository.interfaces.KPIAssignmentRepositoryInterface;
+import com.company.kpi.repository.interfaces.KPIDefinitionRepositoryInterface;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
- * Service for managing approval workflows (Maker-Checker process)
+ * Service for managing approval workflows (Maker-Checker process).
+ * <p>
+ * Workflows store the proposed change as a JSON Patch against the original data. When the original
+ * is a KPI Definition or KPI Assignment, only its {@code updatedAt} is kept as the base version and the
+ * original is read back from the entity while it is still at that version; other originals are stored
+ * as a snapshot. Payloads above
+ * {@code app.approval.payload-compression-threshold} bytes are stored GZIP-compressed. The full
+ * original and proposed data are rebuilt only by {@link #getWorkflowDetails(String)}.
  */
 @Service
 public class ApprovalWorkflowService {
     
     private static final Logger logger = LoggerFactory.getLogger(ApprovalWorkflowService.class);
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private ApprovalWorkflowRepositoryInterface approvalWorkflowRepository;
     
+    @Autowired
+    private KPIDefinitionRepositoryInterface kpiDefinitionRepository;
+    
+    @Autowired
+    private KPIAssignmentRepositoryInterface kpiAssignmentRepository;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Value("${app.approval.payload-compression-threshold:1024}")
+    private int payloadCompressionThreshold;
+    
     /**
      * Submits a change request for approval
      */
@@ -41,11 +76,15 @@ public class ApprovalWorkflowService {
             workflow.setWorkflowId(UUID.randomUUID().toString());
             workflow.setJustification(justification);
             
-            // Serialize data to JSON
-            if (originalData != null) {
-                workflow.setOriginalData(objectMapper.writeValueAsString(originalData));
+            // Store the change as a patch; keep the original itself only when it cannot be read back
+            JsonNode original = originalData != null ? objectMapper.valueToTree(originalData) : null;
+            String baseVersion = entityVersionOf(entityId, originalData);
+            workflow.setBaseVersion(baseVersion);
+            if (original != null && baseVersion == null) {
+                storeOriginalData(workflow, objectMapper.writeValueAsString(original));
             }
-            workflow.setProposedData(objectMapper.writeValueAsString(proposedData));
+            storeChangePatch(workflow, objectMapper.writeValueAsString(
+                JsonPatch.diff(original, objectMapper.valueToTree(proposedData))));
             
             // Determine priority based on request type
             workflow.setPriority(determinePriority(requestType));
@@ -75,6 +114,7 @@ public class ApprovalWorkflowService {
             .orElseThrow(() -> new IllegalArgumentException("Approval workflow not found: " + workflowId));
         
         validateCheckerAuthority(workflow, checkerId);
+        snapshotOriginal(workflow);
         
         workflow.setStatus(ApprovalStatus.APPROVED);
         workflow.setDecisionReason(reason);
@@ -96,6 +136,7 @@ public class ApprovalWorkflowService {
             .orElseThrow(() -> new IllegalArgumentException("Approval workflow not found: " + workflowId));
         
         validateCheckerAuthority(workflow, checkerId);
+        snapshotOriginal(workflow);
         
         workflow.setStatus(ApprovalStatus.REJECTED);
         workflow.setDecisionReason(reason);
@@ -107,6 +148,61 @@ public class ApprovalWorkflowService {
         return updatedWorkflow;
     }
     
+    /**
+     * Approves or rejects many change requests at once. Workflows are loaded with batched gets and
+     * the decisions written in conditional transactions, so each item is checked exactly like a
+     * single approval; items that fail a check or whose transaction fails are reported and do not
+     * affect the others.
+     */
+    public BulkApprovalDecisionResponse decideRequests(List<String> workflowIds, ApprovalStatus decision,
+                                                       String checkerId, String reason) {
+        if (decision != ApprovalStatus.APPROVED && decision != ApprovalStatus.REJECTED) {
+            throw new IllegalArgumentException("Bulk decision must be APPROVED or REJECTED");
+        }
+        Set<String> distinctIds = new LinkedHashSet<>(workflowIds);
+        logger.info("Applying bulk decision {} to {} requests by checker: {}", decision, distinctIds.size(), checkerId);
+        
+        Map<String, ApprovalWorkflow> workflows = approvalWorkflowRepository.findAllByIds(distinctIds);
+        LocalDateTime decidedAt = LocalDateTime.now();
+        List<ApprovalWorkflow> decided = new ArrayList<>();
+        List<ItemResult> results = new ArrayList<>(distinctIds.size());
+        for (String workflowId : distinctIds) {
+            ApprovalWorkflow workflow = workflows.get(workflowId);
+            if (workflow == null) {
+                results.add(new ItemResult(workflowId, Outcome.NOT_FOUND, "Approval workflow not found"));
+                continue;
+            }
+            try {
+                validateCheckerAuthority(workflow, checkerId);
+            } catch (IllegalArgumentException e) {
+                results.add(new ItemResult(workflowId, Outcome.INVALID, e.getMessage()));
+                continue;
+            }
+            snapshotOriginal(workflow);
+            workflow.setStatus(decision);
+            workflow.setDecisionReason(reason);
+            workflow.setDecidedAt(decidedAt);
+            decided.add(workflow);
+            results.add(new ItemResult(workflowId, Outcome.APPLIED, null));
+        }
+        
+        DecisionWriteResult written = approvalWorkflowRepository.saveDecisions(decided);
+        for (ItemResult result : results) {
+            if (written.conflicts().contains(result.getWorkflowId())) {
+                result.setOutcome(Outcome.CONFLICT);
+                result.setMessage("Request was decided concurrently");
+            } else if (written.failed().contains(result.getWorkflowId())) {
+                result.setOutcome(Outcome.FAILED);
+                result.setMessage("Decision could not be saved; retry the request");
+            }
+        }
+        
+        BulkApprovalDecisionResponse response = new BulkApprovalDecisionResponse(decision, results);
+        logger.info("Bulk decision {} applied to {} of {} requests by checker: {}",
+            decision, response.getApplied(), response.getRequested(), checkerId);
+        return response;
+    }
+    
     /**
      * Gets pending approval requests for a checker
      */
@@ -123,6 +219,43 @@ public class ApprovalWorkflowService {
         return approvalWorkflowRepository.findByMakerId(makerId);
     }
     
+    /**
+     * Gets one page of a checker's pending approvals, oldest first
+     */
+    public PagedResponse<ApprovalWorkflow> getPendingApprovals(String checkerId, String cursor, int limit) {
+        logger.debug("Getting pending approvals page for checker: {}", checkerId);
+        validateLimit(limit);
+        return approvalWorkflowRepository.findPageByCheckerIdAndStatus(checkerId, ApprovalStatus.PENDING, cursor, limit);
+    }
+    
+    /**
+     * Gets one page of a maker's requests, most recent first
+     */
+    public PagedResponse<ApprovalWorkflow> getMakerRequests(String makerId, String cursor, int limit) {
+        logger.debug("Getting requests page submitted by maker: {}", makerId);
+        validateLimit(limit);
+        return approvalWorkflowRepository.findPageByMakerId(makerId, cursor, limit);
+    }
+    
+    private void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+    
+    /**
+     * Gets a workflow with its full original and proposed data rebuilt for review.
+     * Decided workflows are rebuilt from the original snapshotted at decision time. When a pending
+     * request's entity changed or was removed since the request was made, the original it was based on
+     * is gone: nothing is rebuilt and {@code baseVersionChanged} is set.
+     */
+    public Optional<ApprovalWorkflow> getWorkflowDetails(String workflowId) {
+        Optional<ApprovalWorkflow> found = approvalWorkflowRepository.findById(workflowId);
+        found.filter(workflow -> workflow.getChangePatch() != null || workflow.getCompressedChangePatch() != null)
+            .ifPresent(this::rebuildPayload);
+        return found;
+    }
+    
     /**
      * Gets all approval workflows
      */
@@ -152,6 +285,125 @@ public class ApprovalWorkflowService {
         }
     }
     
+    /**
+     * Version of the original when it is the stored entity the workflow refers to, else null
+     */
+    private String entityVersionOf(String entityId, Object originalData) {
+        if (originalData instanceof KPIDefinition kpi && entityId.equals(kpi.getId()) && kpi.getUpdatedAt() != null) {
+            return kpi.getUpdatedAt().toString();
+        }
+        if (originalData instanceof KPIAssignment assignment && assignment.getUpdatedAt() != null
+                && (entityId.equals(assignment.getId()) || entityId.equals(assignment.getAssignmentId()))) {
+            return assignment.getUpdatedAt().toString();
+        }
+        return null;
+    }
+    
+    private void storeOriginalData(ApprovalWorkflow workflow, String json) {
+        if (exceedsCompressionThreshold(json)) {
+            workflow.setCompressedOriginalData(CompressedJson.compress(json));
+        } else {
+            workflow.setOriginalData(json);
+        }
+    }
+    
+    private void storeChangePatch(ApprovalWorkflow workflow, String json) {
+        if (exceedsCompressionThreshold(json)) {
+            workflow.setCompressedChangePatch(CompressedJson.compress(json));
+        } else {
+            workflow.setChangePatch(json);
+        }
+    }
+    
+    private boolean exceedsCompressionThreshold(String json) {
+        return json.length() > payloadCompressionThreshold
+            && json.getBytes(StandardCharsets.UTF_8).length > payloadCompressionThreshold;
+    }
+    
+    /**
+     * Stores the original of a version-based workflow as it is being decided, so the request can still be
+     * reviewed after the entity moves on. Nothing is stored if the entity already changed.
+     */
+    private void snapshotOriginal(ApprovalWorkflow workflow) {
+        if (workflow.getBaseVersion() == null
+                || workflow.getOriginalData() != null || workflow.getCompressedOriginalData() != null) {
+            return;
+        }
+        try {
+            JsonNode original = loadOriginal(workflow);
+            storeOriginalData(workflow, objectMapper.writeValueAsString(original));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Deciding workflow {} without a snapshot of its original: {}", workflow.getWorkflowId(), e.getMessage());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not snapshot the original of workflow " + workflow.getWorkflowId(), e);
+        }
+    }
+    
+    /**
+     * Fills in originalData and proposedData of a patch-based workflow; the result is for display only
+     * and is never saved back
+     */
+    private void rebuildPayload(ApprovalWorkflow workflow) {
+        try {
+            JsonNode original = loadOriginal(workflow);
+            String patch = workflow.getChangePatch() != null
+                ? workflow.getChangePatch()
+                : CompressedJson.decompress(workflow.getCompressedChangePatch());
+            JsonNode proposed = JsonPatch.apply(original, objectMapper.readTree(patch));
+            
+            workflow.setOriginalData(original != null ? objectMapper.writeValueAsString(original) : null);
+            workflow.setProposedData(objectMapper.writeValueAsString(proposed));
+        } catch (IllegalArgumentException e) {
+            // The base entity changed or was removed, or the patch no longer applies
+            logger.warn("Could not rebuild proposed data for workflow {}: {}", workflow.getWorkflowId(), e.getMessage());
+            workflow.setBaseVersionChanged(true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt change patch in workflow " + workflow.getWorkflowId(), e);
+        }
+    }
+    
+    /**
+     * Original the patch was computed against: the stored snapshot, or the entity while it is still at
+     * the base version
+     *
+     * @throws IllegalArgumentException if there is no snapshot and the entity changed or was removed
+     *                                  since the request was made
+     */
+    private JsonNode loadOriginal(ApprovalWorkflow workflow) throws JsonProcessingException {
+        if (workflow.getCompressedOriginalData() != null) {
+            return objectMapper.readTree(CompressedJson.decompress(workflow.getCompressedOriginalData()));
+        }
+        if (workflow.getOriginalData() != null) {
+            return objectMapper.readTree(workflow.getOriginalData());
+        }
+        if (workflow.getBaseVersion() != null) {
+            Object entity = findEntity(workflow.getRequestType(), workflow.getEntityId())
+                .orElseThrow(() -> new IllegalArgumentException("Entity " + workflow.getEntityId() + " no longer exists"));
+            if (!workflow.getBaseVersion().equals(entityVersionOf(workflow.getEntityId(), entity))) {
+                throw new IllegalArgumentException("Entity " + workflow.getEntityId()
+                    + " changed since version " + workflow.getBaseVersion());
+            }
+            workflow.setBaseVersionChanged(false);
+            return objectMapper.valueToTree(entity);
+        }
+        return null;
+    }
+    
+    private Optional<?> findEntity(ChangeRequestType requestType, String entityId) {
+        switch (requestType) {
+            case KPI_CREATE:
+            case KPI_UPDATE:
+            case KPI_DELETE:
+                return kpiDefinitionRepository.findById(entityId);
+            case ASSIGNMENT_CREATE:
+            case ASSIGNMENT_MODIFY:
+            case ASSIGNMENT_REMOVE:
+                return kpiAssignmentRepository.findById(entityId);
+            default:
+                return Optional.empty();
+        }
+    }
+    
     /**
      * Determines priority based on request type
      */
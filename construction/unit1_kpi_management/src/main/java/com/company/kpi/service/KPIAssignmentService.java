@@ -1,11 +1,16 @@
 package com.company.kpi.service;
 
 import com.company.kpi.model.AssignmentStatus;
+import com.company.kpi.model.EmployeeAssignmentSummary;
 import com.company.kpi.model.KPIAssignment;
 import com.company.kpi.model.KPIDefinition;
 import com.company.kpi.model.dto.CreateKPIAssignmentRequest;
+import com.company.kpi.model.dto.KPIAssignmentQuery;
+import com.company.kpi.model.dto.PagedResponse;
 import com.company.kpi.repository.interfaces.KPIAssignmentRepositoryInterface;
 import com.company.kpi.repository.interfaces.KPIDefinitionRepositoryInterface;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,13 +18,21 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 /**
  * Service layer for KPI Assignment business logic
@@ -29,17 +42,27 @@ public class KPIAssignmentService {
     
     private static final Logger logger = LoggerFactory.getLogger(KPIAssignmentService.class);
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private KPIAssignmentRepositoryInterface kpiAssignmentRepository;
     
     @Autowired
     private KPIDefinitionRepositoryInterface kpiDefinitionRepository;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @Value("${app.kpi.max-assignments-per-employee:10}")
     private int maxAssignmentsPerEmployee;
     
+    @Value("${app.kpi.bulk-query-concurrency:32}")
+    private int bulkQueryConcurrency;
+    
     /**
-     * Assigns a KPI to an employee
+     * Assigns a KPI to an employee.
+     * The duplicate and max-assignment checks are enforced by a conditional transaction in the
+     * repository rather than read first, so concurrent requests cannot both pass them.
      */
     public KPIAssignment assignKPI(CreateKPIAssignmentRequest request, String assignedBy) {
         logger.info("Assigning KPI {} to employee {} by user: {}", 
@@ -52,23 +75,12 @@ public class KPIAssignmentService {
         KPIDefinition kpiDefinition = kpiDefinitionRepository.findById(request.getKpiDefinitionId())
             .orElseThrow(() -> new IllegalArgumentException("KPI Definition not found: " + request.getKpiDefinitionId()));
         
-        // Check if assignment already exists
-        Optional<KPIAssignment> existingAssignment = kpiAssignmentRepository
-            .findByEmployeeIdAndKpiDefinitionId(request.getEmployeeId(), request.getKpiDefinitionId());
-        
-        if (existingAssignment.isPresent() && existingAssignment.get().getStatus() == AssignmentStatus.ACTIVE) {
-            throw new IllegalArgumentException("KPI is already assigned to this employee");
-        }
-        
-        // Check assignment limits
-        List<KPIAssignment> currentAssignments = kpiAssignmentRepository.findActiveByEmployeeId(request.getEmployeeId());
-        if (currentAssignments.size() >= maxAssignmentsPerEmployee) {
-            throw new IllegalArgumentException("Employee has reached maximum number of KPI assignments: " + maxAssignmentsPerEmployee);
+        // Validate weight distribution against the employee's running total (advisory only)
+        if (request.getCustomWeightPercentage() != null) {
+            validateWeightDistribution(request.getEmployeeId(), request.getCustomWeightPercentage(),
+                getEmployeeSummary(request.getEmployeeId()).getTotalCustomWeight());
         }
         
-        // Validate weight distribution
-        validateWeightDistribution(request.getEmployeeId(), request.getCustomWeightPercentage(), currentAssignments);
-        
         // Create the assignment
         KPIAssignment assignment = new KPIAssignment(request.getEmployeeId(), request.getKpiDefinitionId(), assignedBy);
         assignment.setAssignmentId(UUID.randomUUID().toString());
@@ -84,8 +96,8 @@ public class KPIAssignmentService {
         assignment.setEffectiveDate(request.getEffectiveDate());
         assignment.setEndDate(request.getEndDate());
         
-        // Save the assignment
-        KPIAssignment savedAssignment = kpiAssignmentRepository.save(assignment);
+        // Save the assignment, enforcing "not already active" and the assignment limit atomically
+        KPIAssignment savedAssignment = kpiAssignmentRepository.createAssignment(assignment, maxAssignmentsPerEmployee);
         
         logger.info("Successfully assigned KPI {} to employee {}", 
             request.getKpiDefinitionId(), request.getEmployeeId());
@@ -109,6 +121,19 @@ public class KPIAssignmentService {
         return kpiAssignmentRepository.findActiveByEmployeeId(employeeId);
     }
     
+    /**
+     * Gets the running assignment summary for an employee (active count, total weight, version)
+     */
+    public EmployeeAssignmentSummary getEmployeeSummary(String employeeId) {
+        logger.debug("Retrieving assignment summary for employee: {}", employeeId);
+        EmployeeAssignmentSummary summary = kpiAssignmentRepository.findSummaryByEmployeeId(employeeId)
+            .orElseGet(() -> EmployeeAssignmentSummary.empty(employeeId));
+        if (summary.getTotalCustomWeight() == null) {
+            summary.setTotalCustomWeight(BigDecimal.ZERO);
+        }
+        return summary;
+    }
+    
     /**
      * Gets all assignments for a specific KPI
      */
@@ -118,37 +143,86 @@ public class KPIAssignmentService {
     }
     
     /**
-     * Get assignments with filters
+     * Get one page of assignments with filters.
+     * Filtering happens in DynamoDB: the repository picks the best key path for the given
+     * filters and applies the rest, including the effective date, as filter expressions.
      */
-    public List<KPIAssignment> getAssignmentsWithFilters(String employeeId, String supervisorId, String kpiId, String effectiveDate) {
-        logger.debug("Getting assignments with filters - employee: {}, supervisor: {}, kpi: {}", employeeId, supervisorId, kpiId);
+    public PagedResponse<KPIAssignment> getAssignmentsWithFilters(String employeeId, String supervisorId, String kpiId,
+                                                                 String effectiveDate, String cursor, int limit) {
+        logger.debug("Getting assignments with filters - employee: {}, supervisor: {}, kpi: {}, effectiveDate: {}", 
+            employeeId, supervisorId, kpiId, effectiveDate);
         
-        // For now, we'll get all assignments and filter in memory
-        // In a real implementation, this would be done at the database level
-        List<KPIAssignment> allAssignments = kpiAssignmentRepository.findAll();
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
         
-        return allAssignments.stream()
-            .filter(assignment -> employeeId == null || assignment.getEmployeeId().equals(employeeId))
-            .filter(assignment -> supervisorId == null || assignment.getSupervisorId().equals(supervisorId))
-            .filter(assignment -> kpiId == null || assignment.getKpiDefinitionId().equals(kpiId))
-            // Note: effectiveDate filtering would need proper date parsing in real implementation
-            .collect(Collectors.toList());
+        KPIAssignmentQuery query = new KPIAssignmentQuery(employeeId, supervisorId, kpiId, parseDate(effectiveDate));
+        return kpiAssignmentRepository.findPage(query, cursor, limit);
     }
     
     /**
-     * Get bulk assignments for multiple employees
+     * Get bulk assignments for multiple employees.
+     * Fans out one partition query per employee on virtual threads, with at most
+     * {@code app.kpi.bulk-query-concurrency} queries in flight, and merges the results in request order.
      */
     public Map<String, List<KPIAssignment>> getBulkAssignments(String[] employeeIds) {
-        logger.debug("Getting bulk assignments for {} employees", employeeIds.length);
-        
-        Map<String, List<KPIAssignment>> bulkAssignments = new HashMap<>();
-        
-        for (String employeeId : employeeIds) {
-            List<KPIAssignment> employeeAssignments = getActiveEmployeeAssignments(employeeId.trim());
-            bulkAssignments.put(employeeId.trim(), employeeAssignments);
+        List<String> distinctIds = Arrays.stream(employeeIds)
+            .map(String::trim)
+            .filter(id -> !id.isEmpty())
+            .distinct()
+            .toList();
+        logger.debug("Getting bulk assignments for {} employees", distinctIds.size());
+        
+        Timer queryTimer = Timer.builder("kpi.assignments.bulk.query")
+            .description("Latency of a single per-employee query in a bulk assignment lookup")
+            .register(meterRegistry);
+        Timer bulkTimer = Timer.builder("kpi.assignments.bulk")
+            .description("Latency of a whole bulk assignment lookup")
+            .register(meterRegistry);
+        
+        return bulkTimer.record(() -> {
+            Map<String, List<KPIAssignment>> results = new ConcurrentHashMap<>();
+            Semaphore permits = new Semaphore(Math.max(1, bulkQueryConcurrency));
+            
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>(distinctIds.size());
+                for (String employeeId : distinctIds) {
+                    futures.add(executor.submit(() -> {
+                        permits.acquire();
+                        try {
+                            results.put(employeeId, queryTimer.record(
+                                () -> kpiAssignmentRepository.findActiveByEmployeeId(employeeId)));
+                        } finally {
+                            permits.release();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    awaitBulkQuery(future);
+                }
+            }
+            
+            Map<String, List<KPIAssignment>> bulkAssignments = new LinkedHashMap<>();
+            for (String employeeId : distinctIds) {
+                bulkAssignments.put(employeeId, results.get(employeeId));
+            }
+            return bulkAssignments;
+        });
+    }
+    
+    private void awaitBulkQuery(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading bulk assignments", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to load bulk assignments", e.getCause());
         }
-        
-        return bulkAssignments;
     }
     
     /**
@@ -166,6 +240,14 @@ public class KPIAssignmentService {
         // Validate the request
         validateAssignmentRequest(request);
         
+        BigDecimal previousWeight = existingAssignment.getCustomWeightPercentage();
+        LocalDateTime previousUpdatedAt = existingAssignment.getUpdatedAt();
+        if (existingAssignment.getStatus() == AssignmentStatus.ACTIVE && request.getCustomWeightPercentage() != null) {
+            BigDecimal otherWeight = getEmployeeSummary(employeeId).getTotalCustomWeight()
+                .subtract(previousWeight != null ? previousWeight : BigDecimal.ZERO);
+            validateWeightDistribution(employeeId, request.getCustomWeightPercentage(), otherWeight);
+        }
+        
         // Update properties
         existingAssignment.setCustomTargetValue(request.getCustomTargetValue());
         existingAssignment.setCustomTargetUnit(request.getCustomTargetUnit());
@@ -176,7 +258,8 @@ public class KPIAssignmentService {
         existingAssignment.setEndDate(request.getEndDate());
         existingAssignment.setUpdatedAt(LocalDateTime.now());
         
-        KPIAssignment updatedAssignment = kpiAssignmentRepository.save(existingAssignment);
+        KPIAssignment updatedAssignment = kpiAssignmentRepository.updateAssignment(
+            existingAssignment, previousWeight, previousUpdatedAt);
         
         logger.info("Successfully updated KPI assignment for employee {} and KPI {}", 
             employeeId, kpiDefinitionId);
@@ -195,16 +278,27 @@ public class KPIAssignmentService {
             .findByEmployeeIdAndKpiDefinitionId(employeeId, kpiDefinitionId)
             .orElseThrow(() -> new IllegalArgumentException("KPI assignment not found"));
         
-        // Soft delete by changing status
-        assignment.setStatus(AssignmentStatus.EXPIRED);
-        assignment.setUpdatedAt(LocalDateTime.now());
-        
-        kpiAssignmentRepository.save(assignment);
+        // Soft delete by changing status; active assignments also release their slot in the employee's limit
+        kpiAssignmentRepository.expireAssignment(assignment);
         
         logger.info("Successfully removed KPI assignment for employee {} and KPI {}", 
             employeeId, kpiDefinitionId);
     }
     
+    /**
+     * Parses an optional ISO-8601 date filter
+     */
+    private LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid effective date: " + date);
+        }
+    }
+    
     /**
      * Validates assignment request
      */
@@ -235,23 +329,18 @@ public class KPIAssignmentService {
     /**
      * Validates weight distribution for flexible weight assignments
      */
-    private void validateWeightDistribution(String employeeId, BigDecimal newWeight, List<KPIAssignment> currentAssignments) {
+    private void validateWeightDistribution(String employeeId, BigDecimal newWeight, BigDecimal currentTotalWeight) {
         if (newWeight == null) {
             return; // Will use default weight
         }
         
         // For flexible weight validation, we allow total to exceed 100%
         // This is configurable based on organizational rules
-        BigDecimal totalWeight = currentAssignments.stream()
-            .filter(assignment -> assignment.getCustomWeightPercentage() != null)
-            .map(KPIAssignment::getCustomWeightPercentage)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        totalWeight = totalWeight.add(newWeight);
+        BigDecimal totalWeight = currentTotalWeight.add(newWeight);
         
         // Log warning if total weight exceeds 100% but don't fail (flexible validation)
         if (totalWeight.doubleValue() > 100) {
             logger.warn("Total weight percentage for employee {} exceeds 100%: {}", employeeId, totalWeight);
         }
     }
-}
\ No newline at end of file
+}
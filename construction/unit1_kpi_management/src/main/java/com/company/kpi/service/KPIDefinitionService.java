@@ -1,8 +1,12 @@
 package com.company.kpi.service;
 
+import com.company.kpi.domain.kpidefinition.events.KPIDefinitionCreated;
+import com.company.kpi.domain.kpidefinition.events.KPIDefinitionUpdated;
+import com.company.kpi.infrastructure.events.InMemoryEventStore;
 import com.company.kpi.model.KPICategory;
 import com.company.kpi.model.KPIDefinition;
 import com.company.kpi.model.dto.CreateKPIRequest;
+import com.company.kpi.model.dto.PagedResponse;
 import com.company.kpi.repository.interfaces.KPIDefinitionRepositoryInterface;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,9 +26,14 @@ public class KPIDefinitionService {
     
     private static final Logger logger = LoggerFactory.getLogger(KPIDefinitionService.class);
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private KPIDefinitionRepositoryInterface kpiDefinitionRepository;
     
+    @Autowired
+    private InMemoryEventStore eventStore;
+    
     /**
      * Creates a new KPI Definition
      */
@@ -61,6 +70,8 @@ public class KPIDefinitionService {
         
         // Save to repository
         KPIDefinition savedKPI = kpiDefinitionRepository.save(kpi);
+        eventStore.store(new KPIDefinitionCreated(savedKPI.getId(), savedKPI.getName(),
+            toDomainCategory(savedKPI.getCategory()), createdBy, savedKPI.getCreatedAt()));
         
         logger.info("Successfully created KPI with ID: {}", savedKPI.getId());
         return savedKPI;
@@ -74,6 +85,17 @@ public class KPIDefinitionService {
         return kpiDefinitionRepository.findAll();
     }
     
+    /**
+     * Gets one page of KPI Definitions, optionally filtered by category and active status
+     */
+    public PagedResponse<KPIDefinition> getKPIPage(KPICategory category, boolean activeOnly, String cursor, int limit) {
+        logger.debug("Retrieving KPI page - category: {}, activeOnly: {}", category, activeOnly);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return kpiDefinitionRepository.findPage(category, activeOnly, cursor, limit);
+    }
+    
     /**
      * Gets KPI Definition by ID
      */
@@ -132,6 +154,7 @@ public class KPIDefinitionService {
         existingKPI.setUpdatedAt(LocalDateTime.now());
         
         KPIDefinition updatedKPI = kpiDefinitionRepository.save(existingKPI);
+        eventStore.store(new KPIDefinitionUpdated(updatedKPI.getId(), updatedKPI.getName(), updatedKPI.getUpdatedAt()));
         
         logger.info("Successfully updated KPI with ID: {}", updatedKPI.getId());
         return updatedKPI;
@@ -151,10 +174,27 @@ public class KPIDefinitionService {
         kpi.setUpdatedAt(LocalDateTime.now());
         
         kpiDefinitionRepository.save(kpi);
+        eventStore.store(new KPIDefinitionUpdated(kpi.getId(), kpi.getName(), kpi.getUpdatedAt()));
         
         logger.info("Successfully deleted KPI with ID: {}", id);
     }
     
+    /**
+     * Maps the API category onto the domain category; aliases resolve to their canonical value
+     */
+    private com.company.kpi.domain.kpidefinition.KPICategory toDomainCategory(KPICategory category) {
+        if (category == null) {
+            return null;
+        }
+        return switch (category) {
+            case OPERATIONAL -> com.company.kpi.domain.kpidefinition.KPICategory.OPERATIONS;
+            case FINANCIAL -> com.company.kpi.domain.kpidefinition.KPICategory.FINANCE;
+            case CUSTOMER -> com.company.kpi.domain.kpidefinition.KPICategory.CUSTOMER_SERVICE;
+            case PERFORMANCE -> com.company.kpi.domain.kpidefinition.KPICategory.PRODUCTIVITY;
+            default -> com.company.kpi.domain.kpidefinition.KPICategory.valueOf(category.name());
+        };
+    }
+    
     /**
      * Validates KPI request data
      */
@@ -0,0 +1,239 @@
+package com.company.kpi.service;
+
+import com.company.kpi.model.KPIHierarchy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory KPI hierarchy graph.
+ * Edges are indexed by parent (parent -> children), by child (child -> parents), by level and by unit,
+ * so lookups touch only the matching edges. Cycle checks walk only the ancestors of the new edge's
+ * parent and run under the same write lock as the insert, so concurrent inserts cannot close a cycle.
+ * Root edges (no parent KPI) are indexed under {@link #ROOT}. Edges keep their insertion order.
+ */
+@Component
+public class KPIHierarchyGraph {
+
+    private static final String ROOT = "";
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, KPIHierarchy> edgesById = new LinkedHashMap<>();
+    private final Map<String, Map<String, KPIHierarchy>> childrenByParent = new LinkedHashMap<>();
+    private final Map<String, Map<String, KPIHierarchy>> parentsByChild = new LinkedHashMap<>();
+    private final Map<KPIHierarchy.HierarchyLevel, Set<String>> edgeIdsByLevel = new EnumMap<>(KPIHierarchy.HierarchyLevel.class);
+    private final Map<String, Set<String>> edgeIdsByUnit = new LinkedHashMap<>();
+
+    /**
+     * Adds an edge after checking that it is new and does not close a cycle
+     *
+     * @throws IllegalArgumentException if the relationship already exists or would create a cycle
+     */
+    public void addEdge(KPIHierarchy edge) {
+        lock.writeLock().lock();
+        try {
+            String parentKey = parentKey(edge.getParentKpiId());
+            if (childrenByParent.getOrDefault(parentKey, Map.of()).containsKey(edge.getChildKpiId())) {
+                throw new IllegalArgumentException("KPI hierarchy relationship already exists");
+            }
+            if (edge.getParentKpiId() != null && isAncestorOrSelf(edge.getChildKpiId(), edge.getParentKpiId())) {
+                throw new IllegalArgumentException("Circular reference detected in KPI hierarchy");
+            }
+            index(edge);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a batch of edges, as {@link #addEdge} does for each one, if the graph is still empty.
+     * Returns false (and adds nothing) when the graph already holds edges.
+     */
+    public boolean initializeIfEmpty(Collection<KPIHierarchy> edges) {
+        lock.writeLock().lock();
+        try {
+            if (!edgesById.isEmpty()) {
+                return false;
+            }
+            edges.forEach(this::addEdge);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the graph holds no edges
+     */
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return edgesById.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Edges matching the optional level, parent and unit filters, using the narrowest index available
+     */
+    public List<KPIHierarchy> findEdges(KPIHierarchy.HierarchyLevel level, String parentKpiId, String unitId) {
+        lock.readLock().lock();
+        try {
+            Collection<KPIHierarchy> candidates;
+            if (parentKpiId != null) {
+                candidates = childrenByParent.getOrDefault(parentKpiId, Map.of()).values();
+            } else if (unitId != null) {
+                candidates = edgesFor(edgeIdsByUnit.getOrDefault(unitId, Set.of()));
+            } else if (level != null) {
+                candidates = edgesFor(edgeIdsByLevel.getOrDefault(level, Set.of()));
+            } else {
+                candidates = edgesById.values();
+            }
+            return candidates.stream()
+                .filter(edge -> level == null || edge.getLevel() == level)
+                .filter(edge -> unitId == null || unitId.equals(edge.getUnitId()))
+                .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Edges from a parent KPI to its children
+     */
+    public List<KPIHierarchy> childrenOf(String parentKpiId) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(childrenByParent.getOrDefault(parentKey(parentKpiId), Map.of()).values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Edges from a child KPI to its parents (a root KPI has an edge with no parent)
+     */
+    public List<KPIHierarchy> parentsOf(String childKpiId) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(parentsByChild.getOrDefault(childKpiId, Map.of()).values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * All edges, in insertion order
+     */
+    public List<KPIHierarchy> allEdges() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(edgesById.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every KPI appearing in the graph, as a parent or as a child
+     */
+    public Set<String> kpiIds() {
+        lock.readLock().lock();
+        try {
+            Set<String> kpiIds = new LinkedHashSet<>(parentsByChild.keySet());
+            childrenByParent.keySet().stream()
+                .filter(parent -> !ROOT.equals(parent))
+                .forEach(kpiIds::add);
+            return kpiIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The KPI and every KPI below it, parents before children
+     */
+    public List<String> subtreeOf(String kpiId) {
+        lock.readLock().lock();
+        try {
+            Set<String> visited = new LinkedHashSet<>();
+            Deque<String> pending = new ArrayDeque<>();
+            pending.add(kpiId);
+            while (!pending.isEmpty()) {
+                String current = pending.poll();
+                if (visited.add(current)) {
+                    pending.addAll(childrenByParent.getOrDefault(current, Map.of()).keySet());
+                }
+            }
+            return new ArrayList<>(visited);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walks upwards from {@code kpiId}; only ancestors are visited, never unrelated branches
+     */
+    private boolean isAncestorOrSelf(String candidate, String kpiId) {
+        Set<String> visited = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(kpiId);
+        while (!pending.isEmpty()) {
+            String current = pending.poll();
+            if (current.equals(candidate)) {
+                return true;
+            }
+            if (visited.add(current)) {
+                for (String parent : parentsByChild.getOrDefault(current, Map.of()).keySet()) {
+                    if (!ROOT.equals(parent)) {
+                        pending.add(parent);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void index(KPIHierarchy edge) {
+        String parentKey = parentKey(edge.getParentKpiId());
+        edgesById.put(edge.getHierarchyId(), edge);
+        childrenByParent.computeIfAbsent(parentKey, key -> new LinkedHashMap<>()).put(edge.getChildKpiId(), edge);
+        parentsByChild.computeIfAbsent(edge.getChildKpiId(), key -> new LinkedHashMap<>()).put(parentKey, edge);
+        if (edge.getLevel() != null) {
+            edgeIdsByLevel.computeIfAbsent(edge.getLevel(), key -> new LinkedHashSet<>()).add(edge.getHierarchyId());
+        }
+        if (edge.getUnitId() != null) {
+            edgeIdsByUnit.computeIfAbsent(edge.getUnitId(), key -> new LinkedHashSet<>()).add(edge.getHierarchyId());
+        }
+    }
+
+    private Collection<KPIHierarchy> edgesFor(Set<String> edgeIds) {
+        if (edgeIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<KPIHierarchy> edges = new ArrayList<>(edgeIds.size());
+        for (String edgeId : edgeIds) {
+            edges.add(edgesById.get(edgeId));
+        }
+        return edges;
+    }
+
+    private static String parentKey(String parentKpiId) {
+        return parentKpiId != null ? parentKpiId : ROOT;
+    }
+}
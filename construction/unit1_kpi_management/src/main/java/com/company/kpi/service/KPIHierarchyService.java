@@ -3,6 +3,7 @@ package com.company.kpi.service;
 import com.company.kpi.model.KPIDefinition;
 import com.company.kpi.model.KPIHierarchy;
 import com.company.kpi.model.dto.KPIHierarchyResponse;
+import com.company.kpi.model.dto.KPIRollupResponse;
 import com.company.kpi.repository.interfaces.KPIDefinitionRepositoryInterface;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,40 +24,46 @@ public class KPIHierarchyService {
     @Autowired
     private KPIDefinitionRepositoryInterface kpiDefinitionRepository;
     
-    // In-memory storage for demo purposes
-    private final List<KPIHierarchy> hierarchies = new ArrayList<>();
+    @Autowired
+    private KPIHierarchyGraph hierarchyGraph;
+    
+    @Autowired
+    private KPIRollupService kpiRollupService;
     
     /**
      * Get complete KPI hierarchy
      */
-    public List<KPIHierarchyResponse> getHierarchy(KPIHierarchy.HierarchyLevel level, String parentId) {
-        logger.debug("Getting KPI hierarchy for level: {}, parent: {}", level, parentId);
+    public List<KPIHierarchyResponse> getHierarchy(KPIHierarchy.HierarchyLevel level, String parentId, String unitId) {
+        logger.debug("Getting KPI hierarchy for level: {}, parent: {}, unit: {}", level, parentId, unitId);
         
         // Initialize demo data if empty
-        if (hierarchies.isEmpty()) {
-            initializeDemoHierarchy();
-        }
+        initializeDemoHierarchyIfEmpty();
         
-        List<KPIHierarchy> filteredHierarchies = hierarchies.stream()
-            .filter(h -> level == null || h.getLevel() == level)
-            .filter(h -> parentId == null || parentId.equals(h.getParentKpiId()))
-            .collect(Collectors.toList());
+        List<KPIHierarchy> filteredHierarchies = hierarchyGraph.findEdges(level, parentId, unitId);
         
         return buildHierarchyTree(filteredHierarchies, parentId);
     }
     
+    /**
+     * Get effective (cascaded) targets and weights from the materialized roll-up
+     */
+    public List<KPIRollupResponse> getRollup(KPIHierarchy.HierarchyLevel level) {
+        logger.debug("Getting KPI roll-up for level: {}", level);
+        
+        initializeDemoHierarchyIfEmpty();
+        
+        return kpiRollupService.getRollup(level);
+    }
+    
     /**
      * Get child KPIs for cascading
      */
     public List<KPIHierarchy> getCascadeChildren(String parentKpiId) {
         logger.debug("Getting cascade children for parent KPI: {}", parentKpiId);
         
-        if (hierarchies.isEmpty()) {
-            initializeDemoHierarchy();
-        }
+        initializeDemoHierarchyIfEmpty();
         
-        return hierarchies.stream()
-            .filter(h -> parentKpiId.equals(h.getParentKpiId()))
+        return hierarchyGraph.childrenOf(parentKpiId).stream()
             .filter(KPIHierarchy::isActive)
             .collect(Collectors.toList());
     }
@@ -72,17 +79,14 @@ public class KPIHierarchyService {
         validateKPIExists(parentKpiId);
         validateKPIExists(childKpiId);
         
-        // Check for circular references
-        if (hasCircularReference(parentKpiId, childKpiId)) {
-            throw new IllegalArgumentException("Circular reference detected in KPI hierarchy");
-        }
-        
         KPIHierarchy hierarchy = new KPIHierarchy(parentKpiId, childKpiId, level, createdBy);
         hierarchy.setHierarchyId(UUID.randomUUID().toString());
         hierarchy.setWeightContribution(100.0); // Default full contribution
         hierarchy.setCascadeMultiplier(1.0); // Default no scaling
         
-        hierarchies.add(hierarchy);
+        // Rejects duplicates and circular references atomically with the insert
+        hierarchyGraph.addEdge(hierarchy);
+        kpiRollupService.onEdgeChanged(hierarchy);
         
         logger.info("Successfully created KPI hierarchy with ID: {}", hierarchy.getHierarchyId());
         return hierarchy;
@@ -95,11 +99,17 @@ public class KPIHierarchyService {
         Map<String, KPIHierarchyResponse> nodeMap = new HashMap<>();
         List<KPIHierarchyResponse> rootNodes = new ArrayList<>();
         
+        // Resolve all KPI names with one batch lookup
+        Set<String> kpiIds = hierarchies.stream()
+            .map(KPIHierarchy::getChildKpiId)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, KPIDefinition> definitions = kpiDefinitionRepository.findAllByIds(kpiIds);
+        
         // Create all nodes
         for (KPIHierarchy hierarchy : hierarchies) {
             String kpiId = hierarchy.getChildKpiId();
             if (!nodeMap.containsKey(kpiId)) {
-                KPIDefinition kpiDef = kpiDefinitionRepository.findById(kpiId).orElse(null);
+                KPIDefinition kpiDef = definitions.get(kpiId);
                 String kpiName = kpiDef != null ? kpiDef.getName() : "Unknown KPI";
                 
                 KPIHierarchyResponse node = new KPIHierarchyResponse(kpiId, kpiName, hierarchy.getLevel());
@@ -139,10 +149,14 @@ public class KPIHierarchyService {
     }
     
     /**
-     * Initialize demo hierarchy data
+     * Initialize demo hierarchy data the first time the hierarchy is read while still empty
      */
-    private void initializeDemoHierarchy() {
-        logger.info("Initializing demo KPI hierarchy data");
+    private void initializeDemoHierarchyIfEmpty() {
+        if (!hierarchyGraph.isEmpty()) {
+            return;
+        }
+        
+        List<KPIHierarchy> hierarchies = new ArrayList<>();
         
         // Company level KPIs
         KPIHierarchy companyRevenue = new KPIHierarchy(null, "kpi-001", KPIHierarchy.HierarchyLevel.COMPANY, "system");
@@ -174,7 +188,10 @@ public class KPIHierarchyService {
         customerSat.setWeightContribution(20.0);
         hierarchies.add(customerSat);
         
-        logger.info("Initialized {} demo hierarchy relationships", hierarchies.size());
+        if (hierarchyGraph.initializeIfEmpty(hierarchies)) {
+            logger.info("Initialized {} demo hierarchy relationships", hierarchies.size());
+            kpiRollupService.rebuild();
+        }
     }
     
     /**
@@ -185,35 +202,4 @@ public class KPIHierarchyService {
             throw new IllegalArgumentException("KPI not found: " + kpiId);
         }
     }
-    
-    /**
-     * Check for circular references in hierarchy
-     */
-    private boolean hasCircularReference(String parentKpiId, String childKpiId) {
-        Set<String> visited = new HashSet<>();
-        return hasCircularReferenceRecursive(childKpiId, parentKpiId, visited);
-    }
-    
-    private boolean hasCircularReferenceRecursive(String currentKpi, String targetKpi, Set<String> visited) {
-        if (currentKpi.equals(targetKpi)) {
-            return true;
-        }
-        
-        if (visited.contains(currentKpi)) {
-            return false;
-        }
-        
-        visited.add(currentKpi);
-        
-        // Check all children of current KPI
-        for (KPIHierarchy hierarchy : hierarchies) {
-            if (currentKpi.equals(hierarchy.getParentKpiId())) {
-                if (hasCircularReferenceRecursive(hierarchy.getChildKpiId(), targetKpi, visited)) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,241 @@
+package com.company.kpi.service;
+
+import com.company.kpi.domain.kpidefinition.events.KPIDefinitionCreated;
+import com.company.kpi.domain.kpidefinition.events.KPIDefinitionUpdated;
+import com.company.kpi.domain.shared.DomainEvent;
+import com.company.kpi.infrastructure.events.EventHandler;
+import com.company.kpi.infrastructure.events.InMemoryEventStore;
+import com.company.kpi.model.KPIDefinition;
+import com.company.kpi.model.KPIHierarchy;
+import com.company.kpi.model.dto.KPIRollupResponse;
+import com.company.kpi.repository.interfaces.KPIDefinitionRepositoryInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Materialized roll-up of the KPI hierarchy.
+ * For every KPI it keeps the effective target and weight cascaded down from the company level:
+ * a child's target is its parent's effective target x weight contribution (%) x cascade multiplier,
+ * summed over all parents, and falls back to the KPI's own default target when no parent has one.
+ * Root KPIs use their default target and a weight of 100%.
+ * <p>
+ * Nodes are computed in topological order, so every parent is ready before its children. After the
+ * initial build only the subtree below a changed edge or KPI Definition is recomputed. Readers get
+ * the last published view without locking.
+ */
+@Service
+public class KPIRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KPIRollupService.class);
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final int TARGET_SCALE = 4;
+
+    private final KPIHierarchyGraph hierarchyGraph;
+    private final KPIDefinitionRepositoryInterface kpiDefinitionRepository;
+    private final Object recomputeLock = new Object();
+    private volatile Map<String, KPIRollupResponse> view = Map.of();
+
+    public KPIRollupService(KPIHierarchyGraph hierarchyGraph,
+                            KPIDefinitionRepositoryInterface kpiDefinitionRepository,
+                            InMemoryEventStore eventStore) {
+        this.hierarchyGraph = hierarchyGraph;
+        this.kpiDefinitionRepository = kpiDefinitionRepository;
+        eventStore.registerHandler(new DefinitionChangedHandler());
+    }
+
+    /**
+     * Roll-up entries, optionally filtered by level, ordered from the company level down
+     */
+    public List<KPIRollupResponse> getRollup(KPIHierarchy.HierarchyLevel level) {
+        return view.values().stream()
+            .filter(entry -> level == null || entry.getLevel() == level)
+            .sorted(Comparator.comparing(KPIRollupResponse::getLevel, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(KPIRollupResponse::getKpiId))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Recomputes the whole view from the current hierarchy
+     */
+    public void rebuild() {
+        Set<String> kpiIds = hierarchyGraph.kpiIds();
+        synchronized (recomputeLock) {
+            Map<String, KPIRollupResponse> rebuilt = new HashMap<>();
+            compute(kpiIds, rebuilt);
+            view = Map.copyOf(rebuilt);
+        }
+        logger.info("Rebuilt KPI roll-up for {} KPIs", kpiIds.size());
+    }
+
+    /**
+     * Recomputes the entries affected by a new or changed hierarchy edge: the child's subtree,
+     * plus the parent if it was not part of the view yet
+     */
+    public void onEdgeChanged(KPIHierarchy edge) {
+        Set<String> affected = new LinkedHashSet<>();
+        if (edge.getParentKpiId() != null && !view.containsKey(edge.getParentKpiId())) {
+            affected.add(edge.getParentKpiId());
+        }
+        affected.addAll(hierarchyGraph.subtreeOf(edge.getChildKpiId()));
+        recompute(affected);
+    }
+
+    /**
+     * Recomputes a KPI and everything below it, e.g. after its default target changed
+     */
+    public void onDefinitionChanged(String kpiId) {
+        if (!view.containsKey(kpiId)) {
+            return;
+        }
+        recompute(new LinkedHashSet<>(hierarchyGraph.subtreeOf(kpiId)));
+    }
+
+    private void recompute(Set<String> affected) {
+        synchronized (recomputeLock) {
+            Map<String, KPIRollupResponse> updated = new HashMap<>(view);
+            compute(affected, updated);
+            view = Map.copyOf(updated);
+        }
+        logger.debug("Recomputed KPI roll-up for {} KPIs", affected.size());
+    }
+
+    /**
+     * Computes the given KPIs into {@code target}, parents before children. Parents outside the
+     * set are read from {@code target} as they are.
+     */
+    private void compute(Set<String> kpiIds, Map<String, KPIRollupResponse> target) {
+        Map<String, List<KPIHierarchy>> incoming = new HashMap<>();
+        for (String kpiId : kpiIds) {
+            incoming.put(kpiId, hierarchyGraph.parentsOf(kpiId).stream()
+                .filter(KPIHierarchy::isActive)
+                .collect(Collectors.toList()));
+        }
+        Map<String, KPIDefinition> definitions = kpiDefinitionRepository.findAllByIds(kpiIds);
+        LocalDateTime computedAt = LocalDateTime.now();
+
+        List<String> ordered = topologicalOrder(kpiIds, incoming);
+        for (String kpiId : ordered) {
+            target.put(kpiId, computeNode(kpiId, incoming.get(kpiId), definitions.get(kpiId), target, computedAt));
+        }
+        if (ordered.size() < kpiIds.size()) {
+            logger.warn("Skipped {} KPIs in roll-up: hierarchy contains a cycle", kpiIds.size() - ordered.size());
+        }
+    }
+
+    /**
+     * Kahn's algorithm restricted to the given KPIs; only edges between them count towards in-degrees
+     */
+    private List<String> topologicalOrder(Collection<String> kpiIds, Map<String, List<KPIHierarchy>> incoming) {
+        Map<String, Integer> inDegree = new HashMap<>();
+        Map<String, List<String>> children = new HashMap<>();
+        for (String kpiId : kpiIds) {
+            int degree = 0;
+            for (KPIHierarchy edge : incoming.get(kpiId)) {
+                String parentKpiId = edge.getParentKpiId();
+                if (parentKpiId != null && incoming.containsKey(parentKpiId)) {
+                    degree++;
+                    children.computeIfAbsent(parentKpiId, key -> new ArrayList<>()).add(kpiId);
+                }
+            }
+            inDegree.put(kpiId, degree);
+        }
+
+        Deque<String> ready = new ArrayDeque<>();
+        kpiIds.stream().filter(kpiId -> inDegree.get(kpiId) == 0).forEach(ready::add);
+        List<String> ordered = new ArrayList<>(kpiIds.size());
+        while (!ready.isEmpty()) {
+            String kpiId = ready.poll();
+            ordered.add(kpiId);
+            for (String child : children.getOrDefault(kpiId, List.of())) {
+                if (inDegree.merge(child, -1, Integer::sum) == 0) {
+                    ready.add(child);
+                }
+            }
+        }
+        return ordered;
+    }
+
+    private KPIRollupResponse computeNode(String kpiId, List<KPIHierarchy> parentEdges, KPIDefinition definition,
+                                          Map<String, KPIRollupResponse> computed, LocalDateTime computedAt) {
+        KPIRollupResponse node = new KPIRollupResponse(kpiId,
+            definition != null ? definition.getName() : "Unknown KPI",
+            parentEdges.isEmpty() ? null : parentEdges.get(0).getLevel());
+        node.setUnitId(parentEdges.isEmpty() ? null : parentEdges.get(0).getUnitId());
+        node.setDefaultTargetValue(definition != null ? definition.getDefaultTargetValue() : null);
+        node.setTargetUnit(definition != null ? definition.getDefaultTargetUnit() : null);
+        node.setComputedAt(computedAt);
+
+        List<String> parentKpiIds = new ArrayList<>();
+        BigDecimal cascadedTarget = null;
+        double weight = 0.0;
+        boolean root = false;
+        for (KPIHierarchy edge : parentEdges) {
+            KPIRollupResponse parent = edge.getParentKpiId() != null ? computed.get(edge.getParentKpiId()) : null;
+            if (parent == null) {
+                root = true;
+                continue;
+            }
+            parentKpiIds.add(parent.getKpiId());
+            double contribution = valueOrDefault(edge.getWeightContribution(), 100.0) / 100.0;
+            weight += parent.getEffectiveWeight() * contribution;
+            if (parent.getEffectiveTargetValue() != null) {
+                BigDecimal share = parent.getEffectiveTargetValue()
+                    .multiply(BigDecimal.valueOf(valueOrDefault(edge.getWeightContribution(), 100.0)), MathContext.DECIMAL64)
+                    .divide(HUNDRED, MathContext.DECIMAL64)
+                    .multiply(BigDecimal.valueOf(valueOrDefault(edge.getCascadeMultiplier(), 1.0)), MathContext.DECIMAL64);
+                cascadedTarget = cascadedTarget == null ? share : cascadedTarget.add(share);
+            }
+        }
+
+        node.setParentKpiIds(parentKpiIds);
+        node.setEffectiveWeight(root || parentKpiIds.isEmpty() ? 100.0 : weight);
+        BigDecimal effectiveTarget = cascadedTarget != null ? cascadedTarget : node.getDefaultTargetValue();
+        node.setEffectiveTargetValue(effectiveTarget != null ? effectiveTarget.setScale(TARGET_SCALE, RoundingMode.HALF_UP) : null);
+        return node;
+    }
+
+    private static double valueOrDefault(Double value, double defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Recomputes the subtree below a KPI Definition created or changed elsewhere in the application.
+     * Not replayed from the event log at startup: entries are computed from the current definitions,
+     * which {@link #rebuild()} reads in full once the hierarchy is loaded.
+     */
+    private final class DefinitionChangedHandler implements EventHandler {
+
+        @Override
+        public boolean canHandle(DomainEvent event) {
+            return event instanceof KPIDefinitionCreated || event instanceof KPIDefinitionUpdated;
+        }
+
+        @Override
+        public void handle(DomainEvent event) {
+            onDefinitionChanged(event.getAggregateId());
+        }
+
+        @Override
+        public void onEventsDropped() {
+            rebuild();
+        }
+    }
+}
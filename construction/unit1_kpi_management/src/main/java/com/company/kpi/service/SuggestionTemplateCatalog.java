@@ -0,0 +1,174 @@
+package com.company.kpi.service;
+
+import com.company.kpi.model.KPICategory;
+import com.company.kpi.model.MeasurementType;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Catalogue of AI suggestion templates by job title, loaded from {@code app.ai-suggestions.templates.location}.
+ * <p>
+ * The file maps a job title key (words joined by underscores, e.g. {@code sales_manager}) to its templates;
+ * the {@code default} key is used when no title matches. It is compiled once into an immutable snapshot with
+ * a token index (word -> job title keys), and reloaded when the file's modification time changes. A failed
+ * reload keeps the previous snapshot.
+ * <p>
+ * Job titles are matched exactly on their normalized key first, then by shared words: each key is scored by
+ * the share of its words (weighted by how rare they are across keys) found in the title, and the best key
+ * scoring at least {@value #MIN_MATCH_SCORE} wins. "Senior Sales Manager" and "Sales Rep" both match
+ * {@code sales_manager}, while "Account Manager" falls back to the default templates.
+ */
+@Component
+public class SuggestionTemplateCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionTemplateCatalog.class);
+
+    static final String DEFAULT_KEY = "default";
+    private static final double MIN_MATCH_SCORE = 0.5;
+
+    private final Resource resource;
+    private final ObjectMapper objectMapper;
+    private volatile Snapshot snapshot;
+    private volatile long loadedModified;
+
+    public SuggestionTemplateCatalog(ResourceLoader resourceLoader, ObjectMapper objectMapper,
+                                     @Value("${app.ai-suggestions.templates.location:classpath:ai-suggestion-templates.json}") String location) {
+        this.resource = resourceLoader.getResource(location);
+        this.objectMapper = objectMapper;
+        this.snapshot = load();
+    }
+
+    /**
+     * Templates for the job title, falling back to the default templates
+     */
+    public List<Template> match(String jobTitle) {
+        return snapshot.match(jobTitle);
+    }
+
+    /**
+     * Reloads the catalogue if the template file changed since it was last loaded
+     */
+    @Scheduled(fixedDelayString = "${app.ai-suggestions.templates.reload-interval:PT1M}")
+    public void reloadIfChanged() {
+        long modified = lastModified();
+        if (modified == loadedModified) {
+            return;
+        }
+        try {
+            snapshot = load();
+        } catch (IllegalStateException e) {
+            logger.warn("Keeping previous AI suggestion templates: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot load() {
+        long modified = lastModified();
+        try (InputStream in = resource.getInputStream()) {
+            Map<String, List<Template>> templates = objectMapper.readValue(in, new TypeReference<>() {});
+            Snapshot compiled = new Snapshot(templates);
+            loadedModified = modified;
+            logger.info("Loaded AI suggestion templates for {} job titles from {}", templates.size(), resource);
+            return compiled;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load AI suggestion templates from " + resource, e);
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return loadedModified;
+        }
+    }
+
+    static String keyOf(String jobTitle) {
+        return String.join("_", tokensOf(jobTitle));
+    }
+
+    private static Set<String> tokensOf(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+            .filter(token -> !token.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * A suggestion template as stored in the catalogue file
+     */
+    public record Template(String name, String description, KPICategory category, MeasurementType measurementType,
+                           Double targetValue, String targetUnit, String rationale, Double confidenceScore) {
+    }
+
+    /**
+     * Immutable compiled catalogue
+     */
+    private static final class Snapshot {
+
+        private final Map<String, List<Template>> templatesByKey = new HashMap<>();
+        private final Map<String, Set<String>> keysByToken = new HashMap<>();
+        private final Map<String, Double> tokenWeights = new HashMap<>();
+        private final Map<String, Double> keyWeights = new HashMap<>();
+        private final List<Template> defaults;
+
+        Snapshot(Map<String, List<Template>> templates) {
+            templates.forEach((key, keyTemplates) -> {
+                String normalizedKey = keyOf(key);
+                templatesByKey.put(normalizedKey, List.copyOf(keyTemplates));
+                if (!DEFAULT_KEY.equals(normalizedKey)) {
+                    for (String token : tokensOf(key)) {
+                        keysByToken.computeIfAbsent(token, ignored -> new LinkedHashSet<>()).add(normalizedKey);
+                    }
+                }
+            });
+            this.defaults = templatesByKey.getOrDefault(DEFAULT_KEY, List.of());
+
+            // Words shared by many job titles (e.g. "manager") count less than distinctive ones
+            int keyCount = (int) templatesByKey.keySet().stream().filter(key -> !DEFAULT_KEY.equals(key)).count();
+            keysByToken.forEach((token, keys) -> tokenWeights.put(token, Math.log(1.0 + (double) keyCount / keys.size())));
+            keysByToken.forEach((token, keys) ->
+                keys.forEach(key -> keyWeights.merge(key, tokenWeights.get(token), Double::sum)));
+        }
+
+        List<Template> match(String jobTitle) {
+            List<Template> exact = templatesByKey.get(keyOf(jobTitle));
+            if (exact != null) {
+                return exact;
+            }
+
+            Map<String, Double> matchedWeights = new HashMap<>();
+            for (String token : tokensOf(jobTitle)) {
+                for (String key : keysByToken.getOrDefault(token, Set.of())) {
+                    matchedWeights.merge(key, tokenWeights.get(token), Double::sum);
+                }
+            }
+            String bestKey = null;
+            double bestScore = MIN_MATCH_SCORE;
+            for (Map.Entry<String, Double> entry : matchedWeights.entrySet()) {
+                double score = entry.getValue() / keyWeights.get(entry.getKey());
+                if (score > bestScore || (score == bestScore && (bestKey == null || entry.getKey().compareTo(bestKey) < 0))) {
+                    bestKey = entry.getKey();
+                    bestScore = score;
+                }
+            }
+            return bestKey != null ? templatesByKey.get(bestKey) : defaults;
+        }
+    }
+}
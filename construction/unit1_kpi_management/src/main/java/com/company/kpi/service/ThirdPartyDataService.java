@@ -1,30 +1,72 @@
 package com.company.kpi.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.company.kpi.infrastructure.cache.CoalescingCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
- * Service for integrating with third-party APIs to fetch KPI data
+ * Service for integrating with third-party APIs to fetch KPI data.
+ * Calls go through a shared, pooled {@link HttpClient} without blocking a thread while waiting
+ * for the response. Every call is bounded by a request timeout, falls back to simulated data
+ * when it fails, and records its latency per source in {@code kpi.third-party.fetch}, tagged with
+ * outcome {@code success}, {@code failure} or {@code simulated}.
+ * Results are cached per source, employee and date range with per-source TTLs
+ * ({@code app.third-party.cache.ttl.<source>}); concurrent identical misses share one outbound call,
+ * and expired entries are served while a background call refreshes them.
  */
 @Service
 public class ThirdPartyDataService {
     
     private static final Logger logger = LoggerFactory.getLogger(ThirdPartyDataService.class);
     
-    private final RestTemplate restTemplate;
+    public static final String SALES = "sales";
+    public static final String CUSTOMER_SATISFACTION = "customer_satisfaction";
+    public static final String PRODUCTIVITY = "productivity";
+    public static final String MARKETING_ROI = "marketing_roi";
+    public static final String QUALITY = "quality";
+    
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+    
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final CoalescingCache<CacheKey, Map<String, Object>> responseCache;
+    private final Map<String, Duration> cacheTtls = new HashMap<>();
+    private final Duration defaultCacheTtl;
     private final Random random = new Random();
     
     @Value("${app.third-party.salesforce.url:https://api.salesforce.com}")
@@ -39,153 +81,381 @@ public class ThirdPartyDataService {
     @Value("${app.third-party.survey.token:demo-token}")
     private String surveyToken;
     
+    @Value("${app.third-party.project-management.url:https://api.projectmanagement.com}")
+    private String projectManagementApiUrl;
+    
+    @Value("${app.third-party.project-management.token:demo-token}")
+    private String projectManagementToken;
+    
+    @Value("${app.third-party.request-timeout:PT5S}")
+    private Duration requestTimeout;
+    
+    @Value("${app.third-party.fetch-all-timeout:PT3S}")
+    private Duration fetchAllTimeout;
+    
     @Value("${app.demo.simulate-api-calls:true}")
     private boolean simulateApiCalls;
     
-    public ThirdPartyDataService() {
-        this.restTemplate = new RestTemplate();
+    public ThirdPartyDataService(@Qualifier("thirdPartyHttpClient") HttpClient httpClient,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 Environment environment,
+                                 @Value("${app.third-party.cache.max-size:5000}") int cacheMaxSize,
+                                 @Value("${app.third-party.cache.default-ttl:PT1M}") Duration defaultCacheTtl,
+                                 @Value("${app.third-party.cache.stale-window:PT5M}") Duration cacheStaleWindow) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.defaultCacheTtl = defaultCacheTtl;
+        for (String source : List.of(SALES, CUSTOMER_SATISFACTION, PRODUCTIVITY, MARKETING_ROI, QUALITY)) {
+            cacheTtls.put(source, environment.getProperty(
+                "app.third-party.cache.ttl." + source.replace('_', '-'), Duration.class, defaultCacheTtl));
+        }
+        this.responseCache = new CoalescingCache<>(cacheMaxSize, cacheStaleWindow,
+            lookup -> meterRegistry.counter("kpi.third-party.cache", "result", lookup.name().toLowerCase()).increment());
+        Gauge.builder("kpi.third-party.cache.size", responseCache, CoalescingCache::size)
+            .description("Entries held in the third-party response cache")
+            .register(meterRegistry);
     }
     
     /**
      * Fetches sales data from Salesforce API
      */
     public Map<String, Object> fetchSalesData(String employeeId, LocalDate startDate, LocalDate endDate) {
-        logger.info("Fetching sales data for employee {} from {} to {}", employeeId, startDate, endDate);
+        return fetchSalesDataAsync(employeeId, startDate, endDate).join();
+    }
+    
+    /**
+     * Fetches customer satisfaction data from survey API
+     */
+    public Map<String, Object> fetchCustomerSatisfactionData(String employeeId, LocalDate startDate, LocalDate endDate) {
+        return fetchCustomerSatisfactionDataAsync(employeeId, startDate, endDate).join();
+    }
+    
+    /**
+     * Fetches productivity data from project management API
+     */
+    public Map<String, Object> fetchProductivityData(String employeeId, LocalDate startDate, LocalDate endDate) {
+        return fetchProductivityDataAsync(employeeId, startDate, endDate).join();
+    }
+    
+    /**
+     * Fetches marketing ROI data from marketing analytics API
+     */
+    public Map<String, Object> fetchMarketingROIData(String employeeId, LocalDate startDate, LocalDate endDate) {
+        return fetchMarketingROIDataAsync(employeeId, startDate, endDate).join();
+    }
+    
+    /**
+     * Fetches quality score data from quality management system
+     */
+    public Map<String, Object> fetchQualityData(String employeeId, LocalDate startDate, LocalDate endDate) {
+        return fetchQualityDataAsync(employeeId, startDate, endDate).join();
+    }
+    
+    /**
+     * Fetches all five sources concurrently.
+     * Waits at most {@code app.third-party.fetch-all-timeout}; sources that have not answered by
+     * then are listed under {@code unavailable_sources} instead of holding up the response.
+     */
+    public Map<String, Object> fetchAllSources(String employeeId, LocalDate startDate, LocalDate endDate) {
+        logger.info("Fetching all third-party data for employee {} from {} to {}", employeeId, startDate, endDate);
         
-        if (simulateApiCalls) {
-            return simulateSalesData(employeeId);
-        }
+        Map<String, CompletableFuture<Map<String, Object>>> fetches = new LinkedHashMap<>();
+        fetches.put(SALES, fetchSalesDataAsync(employeeId, startDate, endDate));
+        fetches.put(CUSTOMER_SATISFACTION, fetchCustomerSatisfactionDataAsync(employeeId, startDate, endDate));
+        fetches.put(PRODUCTIVITY, fetchProductivityDataAsync(employeeId, startDate, endDate));
+        fetches.put(MARKETING_ROI, fetchMarketingROIDataAsync(employeeId, startDate, endDate));
+        fetches.put(QUALITY, fetchQualityDataAsync(employeeId, startDate, endDate));
         
         try {
-            String url = salesforceApiUrl + "/services/data/v52.0/query";
+            CompletableFuture.allOf(fetches.values().toArray(CompletableFuture[]::new))
+                .get(fetchAllTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Not all third-party sources answered within {} for employee {}", fetchAllTimeout, employeeId);
+        } catch (ExecutionException e) {
+            // Each source falls back on its own, so there is nothing to handle here
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        Map<String, Object> sources = new LinkedHashMap<>();
+        List<String> unavailableSources = new ArrayList<>();
+        fetches.forEach((source, fetch) -> {
+            if (fetch.isDone() && !fetch.isCompletedExceptionally()) {
+                sources.put(source, fetch.join());
+            } else {
+                unavailableSources.add(source);
+                meterRegistry.counter("kpi.third-party.fetch.unavailable", "source", source).increment();
+            }
+        });
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("employee_id", employeeId);
+        result.put("start_date", startDate.toString());
+        result.put("end_date", endDate.toString());
+        result.put("sources", sources);
+        result.put("unavailable_sources", unavailableSources);
+        return result;
+    }
+    
+    /**
+     * Fetches sales data from Salesforce API without blocking, through the response cache
+     */
+    public CompletableFuture<Map<String, Object>> fetchSalesDataAsync(String employeeId, LocalDate startDate, LocalDate endDate) {
+        return cached(SALES, employeeId, startDate, endDate, () -> loadSalesData(employeeId, startDate, endDate),
+            () -> simulateSalesData(employeeId));
+    }
+    
+    /**
+     * Fetches customer satisfaction data from survey API without blocking, through the response cache
+     */
+    public CompletableFuture<Map<String, Object>> fetchCustomerSatisfactionDataAsync(String employeeId, LocalDate startDate, LocalDate endDate) {
+        return cached(CUSTOMER_SATISFACTION, employeeId, startDate, endDate, () -> loadCustomerSatisfactionData(employeeId, startDate, endDate),
+            () -> simulateCustomerSatisfactionData(employeeId));
+    }
+    
+    /**
+     * Fetches productivity data from project management API without blocking, through the response cache
+     */
+    public CompletableFuture<Map<String, Object>> fetchProductivityDataAsync(String employeeId, LocalDate startDate, LocalDate endDate) {
+        return cached(PRODUCTIVITY, employeeId, startDate, endDate, () -> loadProductivityData(employeeId, startDate, endDate),
+            () -> simulateProductivityData(employeeId));
+    }
+    
+    /**
+     * Fetches marketing ROI data from marketing analytics API without blocking, through the response cache
+     */
+    public CompletableFuture<Map<String, Object>> fetchMarketingROIDataAsync(String employeeId, LocalDate startDate, LocalDate endDate) {
+        return cached(MARKETING_ROI, employeeId, startDate, endDate, () -> loadMarketingROIData(employeeId, startDate, endDate),
+            () -> simulateMarketingROIData(employeeId));
+    }
+    
+    /**
+     * Fetches quality score data from quality management system without blocking, through the response cache
+     */
+    public CompletableFuture<Map<String, Object>> fetchQualityDataAsync(String employeeId, LocalDate startDate, LocalDate endDate) {
+        return cached(QUALITY, employeeId, startDate, endDate, () -> loadQualityData(employeeId, startDate, endDate),
+            () -> simulateQualityData(employeeId));
+    }
+    
+    /**
+     * Fetches sales data from Salesforce API (uncached)
+     */
+    private CompletableFuture<Map<String, Object>> loadSalesData(String employeeId, LocalDate startDate, LocalDate endDate) {
+        logger.info("Fetching sales data for employee {} from {} to {}", employeeId, startDate, endDate);
+        
+        return fetch(SALES, employeeId, () -> {
             String query = String.format(
-                "SELECT SUM(Amount) FROM Opportunity WHERE OwnerId='%s' AND CloseDate >= %s AND CloseDate <= %s",
-                employeeId, startDate, endDate
-            );
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(salesforceToken);
-            headers.set("Content-Type", "application/json");
-            
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                url + "?q=" + query, HttpMethod.GET, entity, Map.class
+                "SELECT SUM(Amount) FROM Opportunity WHERE OwnerId=%s AND CloseDate >= %s AND CloseDate <= %s",
+                soqlLiteral(employeeId), startDate, endDate
             );
-            
-            logger.info("Successfully fetched sales data from Salesforce for employee: {}", employeeId);
-            return response.getBody();
-            
-        } catch (Exception e) {
-            logger.error("Error fetching sales data from Salesforce for employee: {}", employeeId, e);
-            // Fallback to simulated data
-            return simulateSalesData(employeeId);
-        }
+            return request(salesforceApiUrl + "/services/data/v52.0/query?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8),
+                    salesforceToken)
+                .GET()
+                .build();
+        }, () -> simulateSalesData(employeeId));
     }
     
     /**
-     * Fetches customer satisfaction data from survey API
+     * Fetches sales data for a batch of employees with one SOQL {@code IN} query grouped by owner (uncached).
+     * Employees without opportunities in the range are absent from the result.
      */
-    public Map<String, Object> fetchCustomerSatisfactionData(String employeeId, LocalDate startDate, LocalDate endDate) {
-        logger.info("Fetching customer satisfaction data for employee {} from {} to {}", employeeId, startDate, endDate);
+    CompletableFuture<Map<String, Map<String, Object>>> loadSalesDataBulk(List<String> employeeIds, LocalDate startDate, LocalDate endDate) {
+        logger.info("Fetching sales data for {} employees from {} to {}", employeeIds.size(), startDate, endDate);
         
         if (simulateApiCalls) {
-            return simulateCustomerSatisfactionData(employeeId);
+            Map<String, Map<String, Object>> simulatedData = new LinkedHashMap<>();
+            employeeIds.forEach(employeeId -> simulatedData.put(employeeId, simulateSalesData(employeeId)));
+            return CompletableFuture.completedFuture(simulatedData);
         }
         
-        try {
-            String url = surveyApiUrl + "/v3/surveys/satisfaction/responses";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(surveyToken);
-            headers.set("Content-Type", "application/json");
-            
+        String owners = employeeIds.stream()
+            .map(ThirdPartyDataService::soqlLiteral)
+            .collect(Collectors.joining(","));
+        String query = String.format(
+            "SELECT OwnerId, SUM(Amount) total_revenue, COUNT(Id) deals_closed FROM Opportunity "
+                + "WHERE OwnerId IN (%s) AND CloseDate >= %s AND CloseDate <= %s GROUP BY OwnerId",
+            owners, startDate, endDate
+        );
+        return fetch(SALES, employeeIds.size() + " employees", () -> request(
+                    salesforceApiUrl + "/services/data/v52.0/query?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8),
+                    salesforceToken)
+                .GET()
+                .build(), Map::of)
+            .thenApply(this::salesByOwner);
+    }
+    
+    /**
+     * Splits an aggregate SOQL response into per-employee sales data
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<String, Object>> salesByOwner(Map<String, Object> response) {
+        Map<String, Map<String, Object>> byOwner = new LinkedHashMap<>();
+        Object records = response.get("records");
+        if (records instanceof List<?> recordList) {
+            for (Object record : recordList) {
+                Map<String, Object> fields = new LinkedHashMap<>((Map<String, Object>) record);
+                fields.remove("attributes");
+                String ownerId = (String) fields.remove("OwnerId");
+                fields.put("employee_id", ownerId);
+                fields.put("data_source", "salesforce-api");
+                fields.put("last_updated", LocalDate.now().toString());
+                byOwner.put(ownerId, fields);
+            }
+        }
+        return byOwner;
+    }
+    
+    /**
+     * Fetches customer satisfaction data from survey API (uncached)
+     */
+    CompletableFuture<Map<String, Object>> loadCustomerSatisfactionData(String employeeId, LocalDate startDate, LocalDate endDate) {
+        logger.info("Fetching customer satisfaction data for employee {} from {} to {}", employeeId, startDate, endDate);
+        
+        return fetch(CUSTOMER_SATISFACTION, employeeId, () -> {
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("employee_id", employeeId);
             requestBody.put("start_date", startDate.toString());
             requestBody.put("end_date", endDate.toString());
             
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                url, HttpMethod.POST, entity, Map.class
-            );
-            
-            logger.info("Successfully fetched customer satisfaction data for employee: {}", employeeId);
-            return response.getBody();
-            
-        } catch (Exception e) {
-            logger.error("Error fetching customer satisfaction data for employee: {}", employeeId, e);
-            // Fallback to simulated data
-            return simulateCustomerSatisfactionData(employeeId);
-        }
+            return request(surveyApiUrl + "/v3/surveys/satisfaction/responses", surveyToken)
+                .POST(jsonBody(requestBody))
+                .build();
+        }, () -> simulateCustomerSatisfactionData(employeeId));
     }
     
     /**
-     * Fetches productivity data from project management API
+     * Fetches productivity data from project management API (uncached)
      */
-    public Map<String, Object> fetchProductivityData(String employeeId, LocalDate startDate, LocalDate endDate) {
+    private CompletableFuture<Map<String, Object>> loadProductivityData(String employeeId, LocalDate startDate, LocalDate endDate) {
         logger.info("Fetching productivity data for employee {} from {} to {}", employeeId, startDate, endDate);
         
-        if (simulateApiCalls) {
-            return simulateProductivityData(employeeId);
-        }
-        
-        try {
-            // This would integrate with actual project management APIs like Jira, Asana, etc.
-            String url = "https://api.projectmanagement.com/v1/tasks/completed";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer demo-token");
-            headers.set("Content-Type", "application/json");
-            
+        // This would integrate with actual project management APIs like Jira, Asana, etc.
+        return fetch(PRODUCTIVITY, employeeId, () -> {
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("assignee_id", employeeId);
             requestBody.put("completed_after", startDate.toString());
             requestBody.put("completed_before", endDate.toString());
             
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                url, HttpMethod.POST, entity, Map.class
-            );
-            
-            logger.info("Successfully fetched productivity data for employee: {}", employeeId);
-            return response.getBody();
-            
-        } catch (Exception e) {
-            logger.error("Error fetching productivity data for employee: {}", employeeId, e);
-            // Fallback to simulated data
-            return simulateProductivityData(employeeId);
-        }
+            return request(projectManagementApiUrl + "/v1/tasks/completed", projectManagementToken)
+                .POST(jsonBody(requestBody))
+                .build();
+        }, () -> simulateProductivityData(employeeId));
     }
     
     /**
-     * Fetches marketing ROI data from marketing analytics API
+     * Fetches marketing ROI data from marketing analytics API (uncached)
      */
-    public Map<String, Object> fetchMarketingROIData(String employeeId, LocalDate startDate, LocalDate endDate) {
+    private CompletableFuture<Map<String, Object>> loadMarketingROIData(String employeeId, LocalDate startDate, LocalDate endDate) {
         logger.info("Fetching marketing ROI data for employee {} from {} to {}", employeeId, startDate, endDate);
         
-        if (simulateApiCalls) {
-            return simulateMarketingROIData(employeeId);
-        }
-        
         // This would integrate with marketing analytics APIs like Google Analytics, HubSpot, etc.
-        return simulateMarketingROIData(employeeId);
+        return simulated(MARKETING_ROI, () -> simulateMarketingROIData(employeeId));
     }
     
     /**
-     * Fetches quality score data from quality management system
+     * Fetches quality score data from quality management system (uncached)
      */
-    public Map<String, Object> fetchQualityData(String employeeId, LocalDate startDate, LocalDate endDate) {
+    private CompletableFuture<Map<String, Object>> loadQualityData(String employeeId, LocalDate startDate, LocalDate endDate) {
         logger.info("Fetching quality data for employee {} from {} to {}", employeeId, startDate, endDate);
         
+        // This would integrate with quality management systems
+        return simulated(QUALITY, () -> simulateQualityData(employeeId));
+    }
+    
+    /**
+     * Serves a source lookup from the response cache, keyed by source, employee and date range.
+     * Failed calls are not cached (a stale entry is kept instead) and fall back to simulated data.
+     */
+    private CompletableFuture<Map<String, Object>> cached(String source, String employeeId, LocalDate startDate, LocalDate endDate,
+                                                          Supplier<CompletableFuture<Map<String, Object>>> loader,
+                                                          Supplier<Map<String, Object>> fallback) {
+        CacheKey key = new CacheKey(source, employeeId, startDate, endDate);
+        return responseCache.get(key, cacheTtls.getOrDefault(source, defaultCacheTtl),
+                () -> loader.get().thenApply(data -> Collections.unmodifiableMap(new LinkedHashMap<>(data))))
+            .exceptionally(error -> {
+                logger.warn("Using simulated {} data for employee {} after failed fetch", source, employeeId);
+                return fallback.get();
+            });
+    }
+    
+    /**
+     * Sends the request asynchronously and parses the JSON response; returns simulated data in demo mode
+     */
+    private CompletableFuture<Map<String, Object>> fetch(String source, String employeeId,
+                                                         Supplier<HttpRequest> request,
+                                                         Supplier<Map<String, Object>> simulation) {
         if (simulateApiCalls) {
-            return simulateQualityData(employeeId);
+            return simulated(source, simulation);
         }
         
-        // This would integrate with quality management systems
-        return simulateQualityData(employeeId);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<Map<String, Object>> response;
+        try {
+            response = httpClient.sendAsync(request.get(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::parseResponse);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((data, error) -> {
+            if (error == null) {
+                sample.stop(fetchTimer(source, "success"));
+                logger.info("Successfully fetched {} data for employee: {}", source, employeeId);
+            } else {
+                sample.stop(fetchTimer(source, "failure"));
+                logger.error("Error fetching {} data for employee: {}", source, employeeId, error);
+            }
+        });
+    }
+    
+    private CompletableFuture<Map<String, Object>> simulated(String source, Supplier<Map<String, Object>> data) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<String, Object> result = data.get();
+        sample.stop(fetchTimer(source, "simulated"));
+        return CompletableFuture.completedFuture(result);
+    }
+    
+    /**
+     * Quotes a value as a SOQL string literal, escaping backslashes and single quotes
+     */
+    static String soqlLiteral(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+    
+    private HttpRequest.Builder request(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .timeout(requestTimeout)
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json");
+    }
+    
+    private HttpRequest.BodyPublisher jsonBody(Map<String, Object> body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private Map<String, Object> parseResponse(HttpResponse<byte[]> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(response.uri().getHost() + " returned HTTP " + response.statusCode());
+        }
+        try {
+            return objectMapper.readValue(response.body(), JSON_OBJECT);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private Timer fetchTimer(String source, String outcome) {
+        return Timer.builder("kpi.third-party.fetch")
+            .description("Latency of third-party data fetches")
+            .tag("source", source)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
     }
     
     // Simulation methods for demo purposes
@@ -243,4 +513,7 @@ public class ThirdPartyDataService {
         data.put("last_updated", LocalDate.now().toString());
         return data;
     }
-}
\ No newline at end of file
+    
+    private record CacheKey(String source, String employeeId, LocalDate startDate, LocalDate endDate) {
+    }
+}
@@ -0,0 +1,361 @@
+package com.company.kpi.service;
+
+import com.company.kpi.infrastructure.ratelimit.TokenBucket;
+import com.company.kpi.model.AssignmentStatus;
+import com.company.kpi.model.IngestionCheckpoint;
+import com.company.kpi.model.KPIAssignment;
+import com.company.kpi.model.KPICategory;
+import com.company.kpi.model.KPIDefinition;
+import com.company.kpi.model.ThirdPartyMetricSnapshot;
+import com.company.kpi.repository.ThirdPartyIngestionRepository;
+import com.company.kpi.repository.interfaces.KPIAssignmentRepositoryInterface;
+import com.company.kpi.repository.interfaces.KPIDefinitionRepositoryInterface;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Nightly ingestion of third-party sales and survey metrics for every employee with active KPI assignments.
+ * <p>
+ * Employees are grouped per data source from the category and data source of their assigned KPIs,
+ * sorted by ID and split into batches. Salesforce batches are fetched with one SOQL {@code IN} query;
+ * the survey API has no bulk query, so its batches make one call per employee. Batches run on virtual
+ * threads, at most {@code app.third-party.ingestion.concurrency} at a time, and every outbound call
+ * takes a token from the source's rate limiter first.
+ * <p>
+ * A checkpoint per source and day records the last employee up to which every batch has been stored,
+ * so a rerun of an interrupted or failed day resumes from there instead of starting over. Each nightly
+ * run first resumes the unfinished checkpoints of the preceding {@code app.third-party.ingestion.resume-days}
+ * days, then ingests the previous day.
+ */
+@Component
+public class ThirdPartyIngestionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThirdPartyIngestionJob.class);
+
+    private static final List<String> SOURCES =
+        List.of(ThirdPartyDataService.SALES, ThirdPartyDataService.CUSTOMER_SATISFACTION);
+
+    @Autowired
+    private KPIAssignmentRepositoryInterface kpiAssignmentRepository;
+
+    @Autowired
+    private KPIDefinitionRepositoryInterface kpiDefinitionRepository;
+
+    @Autowired
+    private ThirdPartyDataService thirdPartyDataService;
+
+    @Autowired
+    private ThirdPartyIngestionRepository ingestionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.third-party.ingestion.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.third-party.ingestion.concurrency:8}")
+    private int concurrency;
+
+    @Value("${app.third-party.ingestion.salesforce.permits-per-second:5}")
+    private double salesforcePermitsPerSecond;
+
+    @Value("${app.third-party.ingestion.survey.permits-per-second:20}")
+    private double surveyPermitsPerSecond;
+
+    @Value("${app.third-party.ingestion.burst:10}")
+    private int burst;
+
+    @Value("${app.third-party.ingestion.resume-days:7}")
+    private int resumeDays;
+
+    /**
+     * Resumes recently failed or interrupted days, then ingests the previous day's metrics
+     */
+    @Scheduled(cron = "${app.third-party.ingestion.cron:0 0 2 * * *}")
+    public void ingestNightly() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        if (resumeDays > 0) {
+            resumeUnfinished(yesterday.minusDays(resumeDays), yesterday.minusDays(1));
+        }
+        ingest(yesterday);
+    }
+
+    /**
+     * Resumes every source whose checkpoint for a day in the range is FAILED or was left RUNNING,
+     * continuing after its last completed employee. Sources without a checkpoint are not started.
+     * Returns the resumed checkpoints by day.
+     */
+    public Map<LocalDate, Map<String, IngestionCheckpoint>> resumeUnfinished(LocalDate from, LocalDate to) {
+        Map<LocalDate, Map<String, IngestionCheckpoint>> resumed = new LinkedHashMap<>();
+        Map<String, Set<String>> employeesBySource = null;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate runDate = day;
+            List<String> unfinished = SOURCES.stream()
+                .filter(source -> ingestionRepository.findCheckpoint(source, runDate)
+                    .filter(checkpoint -> checkpoint.getStatus() != IngestionCheckpoint.Status.COMPLETED)
+                    .isPresent())
+                .toList();
+            if (unfinished.isEmpty()) {
+                continue;
+            }
+
+            logger.info("Resuming unfinished third-party ingestion of {} for {}", unfinished, day);
+            if (employeesBySource == null) {
+                employeesBySource = activeEmployeesBySource();
+            }
+            Map<String, IngestionCheckpoint> checkpoints = new LinkedHashMap<>();
+            for (String source : unfinished) {
+                checkpoints.put(source, ingestSource(source, new ArrayList<>(employeesBySource.get(source)), day));
+            }
+            resumed.put(day, checkpoints);
+        }
+        return resumed;
+    }
+
+    /**
+     * Ingests sales and survey metrics for one day, resuming from the day's checkpoints.
+     * Returns the checkpoint of each source.
+     */
+    public Map<String, IngestionCheckpoint> ingest(LocalDate day) {
+        logger.info("Starting third-party ingestion for {}", day);
+
+        Map<String, Set<String>> employeesBySource = activeEmployeesBySource();
+        Map<String, IngestionCheckpoint> checkpoints = new LinkedHashMap<>();
+        employeesBySource.forEach((source, employeeIds) ->
+            checkpoints.put(source, ingestSource(source, new ArrayList<>(employeeIds), day)));
+        return checkpoints;
+    }
+
+    /**
+     * Employees with active assignments, grouped by the data source their KPIs are measured from
+     */
+    private Map<String, Set<String>> activeEmployeesBySource() {
+        List<KPIAssignment> assignments = kpiAssignmentRepository.findByStatus(AssignmentStatus.ACTIVE);
+        Map<String, KPIDefinition> definitions = kpiDefinitionRepository.findAllByIds(assignments.stream()
+            .map(KPIAssignment::getKpiDefinitionId)
+            .collect(Collectors.toSet()));
+
+        Map<String, Set<String>> employeesBySource = new LinkedHashMap<>();
+        SOURCES.forEach(source -> employeesBySource.put(source, new TreeSet<>()));
+        for (KPIAssignment assignment : assignments) {
+            String source = sourceOf(definitions.get(assignment.getKpiDefinitionId()));
+            if (source != null) {
+                employeesBySource.get(source).add(assignment.getEmployeeId());
+            }
+        }
+        return employeesBySource;
+    }
+
+    private static String sourceOf(KPIDefinition definition) {
+        if (definition == null) {
+            return null;
+        }
+        String dataSource = definition.getDataSource() != null ? definition.getDataSource().toLowerCase(Locale.ROOT) : "";
+        if (definition.getCategory() == KPICategory.SALES || dataSource.contains("salesforce")) {
+            return ThirdPartyDataService.SALES;
+        }
+        if (definition.getCategory() == KPICategory.CUSTOMER_SERVICE || definition.getCategory() == KPICategory.CUSTOMER
+                || dataSource.contains("survey")) {
+            return ThirdPartyDataService.CUSTOMER_SATISFACTION;
+        }
+        return null;
+    }
+
+    private IngestionCheckpoint ingestSource(String source, List<String> employeeIds, LocalDate day) {
+        IngestionCheckpoint checkpoint = ingestionRepository.findCheckpoint(source, day)
+            .orElseGet(() -> new IngestionCheckpoint(source, day));
+        if (checkpoint.getStatus() == IngestionCheckpoint.Status.COMPLETED) {
+            logger.info("Third-party ingestion of {} for {} already completed", source, day);
+            return checkpoint;
+        }
+
+        String resumeAfter = checkpoint.getLastCompletedEmployeeId();
+        List<String> remaining = resumeAfter == null ? employeeIds : employeeIds.stream()
+            .filter(employeeId -> employeeId.compareTo(resumeAfter) > 0)
+            .collect(Collectors.toList());
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            batches.add(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+        logger.info("Ingesting {} for {}: {} employees in {} batches{}", source, day, remaining.size(), batches.size(),
+            resumeAfter != null ? ", resuming after " + resumeAfter : "");
+
+        // Batches after the checkpoint are redone, so only what lies before it counts as processed
+        checkpoint.setProcessedCount(employeeIds.size() - remaining.size());
+        checkpoint.setFailedCount(0);
+        checkpoint.setStatus(IngestionCheckpoint.Status.RUNNING);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        ingestionRepository.saveCheckpoint(checkpoint);
+
+        TokenBucket rateLimiter = new TokenBucket(ThirdPartyDataService.SALES.equals(source)
+            ? salesforcePermitsPerSecond : surveyPermitsPerSecond, burst);
+        Timer batchTimer = Timer.builder("kpi.ingestion.batch")
+            .description("Latency of one third-party ingestion batch")
+            .tag("source", source)
+            .register(meterRegistry);
+        CheckpointTracker tracker = new CheckpointTracker(checkpoint, batches, ingestionRepository);
+        Semaphore permits = new Semaphore(Math.max(1, concurrency));
+        long startNanos = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(batches.size());
+            for (int index = 0; index < batches.size(); index++) {
+                int batchIndex = index;
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        List<String> batch = batches.get(batchIndex);
+                        long batchStart = System.nanoTime();
+                        boolean stored = ingestBatch(source, batch, day, rateLimiter);
+                        batchTimer.record(System.nanoTime() - batchStart, TimeUnit.NANOSECONDS);
+                        meterRegistry.counter("kpi.ingestion.employees", "source", source,
+                            "outcome", stored ? "success" : "failure").increment(batch.size());
+                        tracker.batchFinished(batchIndex, stored);
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                awaitBatch(future);
+            }
+        }
+
+        IngestionCheckpoint finished = tracker.finish();
+        double seconds = Math.max(1e-3, (System.nanoTime() - startNanos) / 1e9);
+        logger.info("Ingested {} for {}: {} stored, {} failed, {} employees/s, status {}", source, day,
+            finished.getProcessedCount(), finished.getFailedCount(),
+            String.format("%.1f", remaining.size() / seconds), finished.getStatus());
+        return finished;
+    }
+
+    /**
+     * Fetches and stores one batch; returns false if any part of it failed
+     */
+    private boolean ingestBatch(String source, List<String> employeeIds, LocalDate day, TokenBucket rateLimiter)
+            throws InterruptedException {
+        try {
+            Map<String, Map<String, Object>> dataByEmployee;
+            if (ThirdPartyDataService.SALES.equals(source)) {
+                rateLimiter.acquire();
+                dataByEmployee = thirdPartyDataService.loadSalesDataBulk(employeeIds, day, day).join();
+            } else {
+                Map<String, CompletableFuture<Map<String, Object>>> calls = new LinkedHashMap<>();
+                for (String employeeId : employeeIds) {
+                    rateLimiter.acquire();
+                    calls.put(employeeId, thirdPartyDataService.loadCustomerSatisfactionData(employeeId, day, day));
+                }
+                dataByEmployee = new LinkedHashMap<>();
+                for (Map.Entry<String, CompletableFuture<Map<String, Object>>> call : calls.entrySet()) {
+                    dataByEmployee.put(call.getKey(), call.getValue().join());
+                }
+            }
+
+            List<ThirdPartyMetricSnapshot> snapshots = new ArrayList<>(dataByEmployee.size());
+            dataByEmployee.forEach((employeeId, data) ->
+                snapshots.add(new ThirdPartyMetricSnapshot(employeeId, source, day, data)));
+            ingestionRepository.saveSnapshots(snapshots);
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Third-party ingestion batch of {} employees for {} failed", employeeIds.size(), source, e);
+            return false;
+        }
+    }
+
+    private void awaitBatch(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while ingesting third-party data", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to ingest third-party data", e.getCause());
+        }
+    }
+
+    /**
+     * Advances the checkpoint as batches finish. Batches may finish out of order, so the checkpoint
+     * only moves past a batch once it and every batch before it have been stored.
+     */
+    static final class CheckpointTracker {
+
+        private final IngestionCheckpoint checkpoint;
+        private final List<List<String>> batches;
+        private final ThirdPartyIngestionRepository ingestionRepository;
+        private final Boolean[] outcomes;
+        private int nextBatch;
+        private boolean blocked;
+
+        CheckpointTracker(IngestionCheckpoint checkpoint, List<List<String>> batches,
+                          ThirdPartyIngestionRepository ingestionRepository) {
+            this.checkpoint = checkpoint;
+            this.batches = batches;
+            this.ingestionRepository = ingestionRepository;
+            this.outcomes = new Boolean[batches.size()];
+        }
+
+        synchronized void batchFinished(int batchIndex, boolean stored) {
+            outcomes[batchIndex] = stored;
+            if (stored) {
+                checkpoint.setProcessedCount(checkpoint.getProcessedCount() + batches.get(batchIndex).size());
+            } else {
+                checkpoint.setFailedCount(checkpoint.getFailedCount() + batches.get(batchIndex).size());
+            }
+
+            boolean advanced = false;
+            while (!blocked && nextBatch < outcomes.length && outcomes[nextBatch] != null) {
+                if (!outcomes[nextBatch]) {
+                    blocked = true;
+                    break;
+                }
+                List<String> batch = batches.get(nextBatch);
+                checkpoint.setLastCompletedEmployeeId(batch.get(batch.size() - 1));
+                nextBatch++;
+                advanced = true;
+            }
+            if (advanced) {
+                save();
+            }
+        }
+
+        synchronized IngestionCheckpoint finish() {
+            checkpoint.setStatus(blocked || nextBatch < outcomes.length
+                ? IngestionCheckpoint.Status.FAILED : IngestionCheckpoint.Status.COMPLETED);
+            save();
+            return checkpoint;
+        }
+
+        private void save() {
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            ingestionRepository.saveCheckpoint(checkpoint);
+        }
+    }
+}
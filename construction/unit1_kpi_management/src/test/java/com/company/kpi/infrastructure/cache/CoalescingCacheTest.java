@@ -0,0 +1,148 @@
+package com.company.kpi.infrastructure.cache;
+
+import com.company.kpi.infrastructure.cache.CoalescingCache.Lookup;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for single-flight loading and stale-while-revalidate
+ */
+@DisplayName("Coalescing Cache Tests")
+class CoalescingCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final List<Lookup> lookups = new CopyOnWriteArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CoalescingCache<String, String> cache(int maxSize) {
+        return new CoalescingCache<>(maxSize, Duration.ofMinutes(1), lookups::add);
+    }
+
+    private Supplier<CompletableFuture<String>> loader(CompletableFuture<String> result) {
+        return () -> {
+            loads.incrementAndGet();
+            return result;
+        };
+    }
+
+    private Supplier<CompletableFuture<String>> loader(String value) {
+        return loader(CompletableFuture.completedFuture(value));
+    }
+
+    @Test
+    @DisplayName("Should call the loader once for concurrent misses")
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        CoalescingCache<String, String> cache = cache(10);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<CompletableFuture<String>>> calls = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            calls.add(executor.submit(() -> {
+                start.await();
+                return cache.get("emp-1", TTL, loader(pending));
+            }));
+        }
+        start.countDown();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (Future<CompletableFuture<String>> call : calls) {
+            results.add(call.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertTrue(results.stream().noneMatch(CompletableFuture::isDone));
+        pending.complete("data");
+
+        for (CompletableFuture<String> result : results) {
+            assertEquals("data", result.join());
+        }
+        assertEquals(1, loads.get());
+        assertEquals(16, lookups.size());
+        assertFalse(lookups.contains(Lookup.HIT));
+        assertEquals("data", cache.get("emp-1", TTL, loader("other")).join());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should serve an expired entry while exactly one refresh runs")
+    void shouldServeStaleWhileRefreshing() throws Exception {
+        CoalescingCache<String, String> cache = cache(10);
+        Duration shortTtl = Duration.ofMillis(50);
+        cache.get("emp-1", shortTtl, loader("old")).join();
+        Thread.sleep(100);
+
+        CompletableFuture<String> refresh = new CompletableFuture<>();
+        for (int i = 0; i < 5; i++) {
+            CompletableFuture<String> result = cache.get("emp-1", shortTtl, loader(refresh));
+            assertTrue(result.isDone());
+            assertEquals("old", result.join());
+        }
+        assertEquals(2, loads.get());
+        assertEquals(5, Collections.frequency(lookups, Lookup.STALE));
+
+        refresh.complete("new");
+        assertEquals("new", cache.get("emp-1", TTL, loader("other")).join());
+        assertEquals(Lookup.HIT, lookups.get(lookups.size() - 1));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache a failed load and let the next lookup load again")
+    void shouldNotCacheFailures() {
+        CoalescingCache<String, String> cache = cache(10);
+
+        CompletableFuture<String> failed = cache.get("emp-1", TTL,
+            loader(CompletableFuture.failedFuture(new IllegalStateException("API down"))));
+        CompletionException error = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(0, cache.size());
+
+        CompletableFuture<String> thrown = cache.get("emp-1", TTL, () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("Bad request");
+        });
+        assertThrows(CompletionException.class, thrown::join);
+
+        assertEquals("data", cache.get("emp-1", TTL, loader("data")).join());
+        assertEquals(3, loads.get());
+        assertEquals(List.of(Lookup.MISS, Lookup.MISS, Lookup.MISS), lookups);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry at capacity")
+    void shouldEvictLeastRecentlyUsed() {
+        CoalescingCache<String, String> cache = cache(2);
+        cache.get("a", TTL, loader("A")).join();
+        cache.get("b", TTL, loader("B")).join();
+        cache.get("a", TTL, loader("unused")).join();
+
+        cache.get("c", TTL, loader("C")).join();
+
+        assertEquals(2, cache.size());
+        assertEquals(3, loads.get());
+        assertEquals("A", cache.get("a", TTL, loader("unused")).join());
+        assertEquals("C", cache.get("c", TTL, loader("unused")).join());
+        assertEquals(3, loads.get());
+        assertEquals("B2", cache.get("b", TTL, loader("B2")).join());
+        assertEquals(4, loads.get());
+    }
+}
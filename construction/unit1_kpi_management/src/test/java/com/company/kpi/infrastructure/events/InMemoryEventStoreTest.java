@@ -0,0 +1,157 @@
+package com.company.kpi.infrastructure.events;
+
+import com.company.kpi.domain.kpidefinition.events.KPIDefinitionUpdated;
+import com.company.kpi.domain.shared.DomainEvent;
+import com.company.kpi.infrastructure.events.AsyncEventDispatcher.BackPressurePolicy;
+import com.company.kpi.infrastructure.events.InMemoryEventStore.DispatchMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for event publishing order and asynchronous back-pressure
+ */
+@DisplayName("In-Memory Event Store Tests")
+class InMemoryEventStoreTest {
+
+    private static DomainEvent event(String aggregateId, int sequence) {
+        return new KPIDefinitionUpdated(aggregateId, "KPI " + sequence, LocalDateTime.now());
+    }
+
+    /**
+     * Records what it handles; optionally waits for a gate before each event
+     */
+    private static final class RecordingHandler implements EventHandler {
+
+        private final List<DomainEvent> handled = new CopyOnWriteArrayList<>();
+        private final AtomicInteger resyncs = new AtomicInteger();
+        private final CountDownLatch gate;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final boolean synchronous;
+
+        RecordingHandler(CountDownLatch gate, boolean synchronous) {
+            this.gate = gate;
+            this.synchronous = synchronous;
+        }
+
+        @Override
+        public boolean canHandle(DomainEvent event) {
+            return true;
+        }
+
+        @Override
+        public void handle(DomainEvent event) {
+            started.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handled.add(event);
+        }
+
+        @Override
+        public boolean requiresSynchronousDelivery() {
+            return synchronous;
+        }
+
+        @Override
+        public void onEventsDropped() {
+            resyncs.incrementAndGet();
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver concurrently stored events in log order")
+    void shouldDeliverInLogOrder() throws Exception {
+        InMemoryEventStore eventStore = new InMemoryEventStore(new ChunkedEventLog(), new SimpleMeterRegistry(),
+            DispatchMode.ASYNC, 2, 100, BackPressurePolicy.BLOCK, Duration.ofSeconds(10));
+        RecordingHandler asyncHandler = new RecordingHandler(new CountDownLatch(0), false);
+        RecordingHandler syncHandler = new RecordingHandler(new CountDownLatch(0), true);
+        eventStore.registerHandler(asyncHandler);
+        eventStore.registerHandler(syncHandler);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> saves = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int sequence = i;
+            saves.add(executor.submit(() -> eventStore.store(event("kpi-" + sequence % 3, sequence))));
+        }
+        for (Future<?> save : saves) {
+            save.get();
+        }
+        executor.shutdown();
+        eventStore.shutdown();
+
+        List<DomainEvent> stored = eventStore.getAllEvents();
+        assertEquals(stored, syncHandler.handled);
+        for (String aggregateId : List.of("kpi-0", "kpi-1", "kpi-2")) {
+            assertEquals(eventStore.getEventsForAggregate(aggregateId), asyncHandler.handled.stream()
+                .filter(event -> aggregateId.equals(event.getAggregateId()))
+                .toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should wait for queue space with the BLOCK policy")
+    void shouldBlockUntilThereIsSpace() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingHandler handler = new RecordingHandler(gate, false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(handler, "blocking", 1, 1,
+            BackPressurePolicy.BLOCK, meterRegistry);
+
+        assertTrue(dispatcher.dispatch(event("kpi-1", 1)));
+        assertTrue(handler.started.await(5, TimeUnit.SECONDS));
+        assertTrue(dispatcher.dispatch(event("kpi-1", 2)));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Boolean> third = executor.submit(() -> dispatcher.dispatch(event("kpi-1", 3)));
+
+        Thread.sleep(200);
+        assertFalse(third.isDone());
+        gate.countDown();
+        assertTrue(third.get(5, TimeUnit.SECONDS));
+        dispatcher.close(Duration.ofSeconds(5));
+        executor.shutdown();
+
+        assertEquals(3, handler.handled.size());
+        assertEquals(0, meterRegistry.get("kpi.events.dropped").counter().count());
+        assertEquals(0, handler.resyncs.get());
+    }
+
+    @Test
+    @DisplayName("Should ask the handler to resync after dropping events")
+    void shouldResyncAfterDrop() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingHandler handler = new RecordingHandler(gate, false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(handler, "dropping", 1, 1,
+            BackPressurePolicy.DROP, meterRegistry);
+
+        assertTrue(dispatcher.dispatch(event("kpi-1", 1)));
+        assertTrue(handler.started.await(5, TimeUnit.SECONDS));
+        assertTrue(dispatcher.dispatch(event("kpi-1", 2)));
+        assertFalse(dispatcher.dispatch(event("kpi-1", 3)));
+        assertFalse(dispatcher.dispatch(event("kpi-1", 4)));
+        gate.countDown();
+        dispatcher.close(Duration.ofSeconds(5));
+
+        assertEquals(2, handler.handled.size());
+        assertEquals(2, meterRegistry.get("kpi.events.dropped").counter().count());
+        assertEquals(1, handler.resyncs.get());
+    }
+}
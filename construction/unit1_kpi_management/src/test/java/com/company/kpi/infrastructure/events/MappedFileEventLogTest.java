@@ -0,0 +1,261 @@
+package com.company.kpi.infrastructure.events;
+
+import com.company.kpi.domain.kpidefinition.KPICategory;
+import com.company.kpi.domain.kpidefinition.events.KPIDefinitionCreated;
+import com.company.kpi.domain.kpidefinition.events.KPIDefinitionUpdated;
+import com.company.kpi.domain.shared.DomainEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the memory-mapped event log
+ */
+@DisplayName("Mapped File Event Log Tests")
+class MappedFileEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    private MappedFileEventLog open() {
+        return new MappedFileEventLog(directory.toString(), DataSize.ofKilobytes(4), true);
+    }
+
+    private static List<DomainEvent> events(int count) {
+        List<DomainEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(i % 2 == 0
+                ? new KPIDefinitionCreated("kpi-" + i % 3, "KPI " + i, KPICategory.SALES, "admin", LocalDateTime.now())
+                : new KPIDefinitionUpdated("kpi-" + i % 3, "KPI " + i, LocalDateTime.now()));
+        }
+        return events;
+    }
+
+    private static List<String> ids(List<DomainEvent> events) {
+        return events.stream().map(event -> event.getEventId().toString()).toList();
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> segments = Files.list(directory)) {
+            return segments.sorted().reduce((first, second) -> second).orElseThrow();
+        }
+    }
+
+    /**
+     * Position of the last record in a segment file, found by walking the record lengths
+     */
+    private static int lastRecordPosition(Path segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int position = 0;
+        int last = -1;
+        while (position + 8 <= buffer.capacity() && buffer.getInt(position) > 0) {
+            last = position;
+            position += 8 + buffer.getInt(position);
+        }
+        return last;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the event log");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Reopens a log whose last record was damaged and checks that it continues after the last good record
+     */
+    private void assertRecoversBeforeLastRecord(List<DomainEvent> events) {
+        List<DomainEvent> good = events.subList(0, events.size() - 1);
+        MappedFileEventLog reopened = open();
+        List<DomainEvent> appended = events(1);
+        try {
+            assertEquals(good.size(), reopened.size());
+            assertEquals(ids(good), ids(reopened.readAll()));
+
+            reopened.append(appended);
+        } finally {
+            reopened.close();
+        }
+
+        List<DomainEvent> expected = new ArrayList<>(good);
+        expected.addAll(appended);
+        MappedFileEventLog recovered = open();
+        try {
+            assertEquals(ids(expected), ids(recovered.readAll()));
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should read events back in append order across segments")
+    void shouldReadEventsInAppendOrder() throws Exception {
+        List<DomainEvent> events = events(100);
+        MappedFileEventLog eventLog = open();
+        try {
+            events.forEach(event -> eventLog.append(List.of(event)));
+
+            assertEquals(100, eventLog.size());
+            assertEquals(ids(events), ids(eventLog.readAll()));
+            assertEquals(ids(events.stream().filter(event -> "kpi-1".equals(event.getAggregateId())).toList()),
+                ids(eventLog.readAggregate("kpi-1")));
+        } finally {
+            eventLog.close();
+        }
+        try (Stream<Path> segments = Files.list(directory)) {
+            assertTrue(segments.count() > 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover the events and index after reopening")
+    void shouldRecoverAfterReopening() {
+        List<DomainEvent> events = events(40);
+        MappedFileEventLog eventLog = open();
+        eventLog.append(events);
+        eventLog.close();
+
+        MappedFileEventLog reopened = open();
+        try {
+            List<DomainEvent> replayed = new ArrayList<>();
+            reopened.replay(replayed::add);
+
+            assertEquals(ids(events), ids(replayed));
+            assertEquals(ids(events.stream().filter(event -> "kpi-2".equals(event.getAggregateId())).toList()),
+                ids(reopened.readAggregate("kpi-2")));
+            assertEquals("KPIDefinitionCreated", replayed.get(0).getEventType());
+
+            reopened.append(events(1));
+            assertEquals(41, reopened.size());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop a torn record at the tail and append after the last good record")
+    void shouldRecoverFromTornTail() throws Exception {
+        List<DomainEvent> events = events(5);
+        MappedFileEventLog eventLog = open();
+        eventLog.append(events);
+        eventLog.close();
+
+        Path segment = lastSegment();
+        int lastRecord = lastRecordPosition(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(lastRecord + 12);
+        }
+
+        assertRecoversBeforeLastRecord(events);
+    }
+
+    @Test
+    @DisplayName("Should drop a tail record whose checksum does not match")
+    void shouldRecoverFromCorruptTail() throws Exception {
+        List<DomainEvent> events = events(5);
+        MappedFileEventLog eventLog = open();
+        eventLog.append(events);
+        eventLog.close();
+
+        Path segment = lastSegment();
+        int lastRecord = lastRecordPosition(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer payloadByte = ByteBuffer.allocate(1);
+            channel.read(payloadByte, lastRecord + 10);
+            payloadByte.put(0, (byte) (payloadByte.get(0) ^ 0x5A)).rewind();
+            channel.write(payloadByte, lastRecord + 10);
+        }
+
+        assertRecoversBeforeLastRecord(events);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed fsync and refuse appends until it succeeds")
+    void shouldRetryFailedSyncAndRefuseAppends() throws Exception {
+        AtomicBoolean diskFailing = new AtomicBoolean(true);
+        AtomicInteger forceAttempts = new AtomicInteger();
+        MappedFileEventLog eventLog = new MappedFileEventLog(directory.toString(), DataSize.ofKilobytes(4), true) {
+            @Override
+            void force(MappedByteBuffer buffer, int index, int length) {
+                forceAttempts.incrementAndGet();
+                if (diskFailing.get()) {
+                    throw new UncheckedIOException(new IOException("Disk unavailable"));
+                }
+                super.force(buffer, index, length);
+            }
+        };
+        try {
+            assertThrows(UncheckedIOException.class, () -> eventLog.append(events(1)));
+            UncheckedIOException refused = assertThrows(UncheckedIOException.class, () -> eventLog.append(events(1)));
+            assertTrue(refused.getMessage().contains("not appending"));
+            assertEquals(1, eventLog.size());
+
+            await(() -> forceAttempts.get() >= 3);
+            diskFailing.set(false);
+            await(() -> {
+                try {
+                    eventLog.append(events(1));
+                    return true;
+                } catch (UncheckedIOException e) {
+                    return false;
+                }
+            });
+
+            assertEquals(2, eventLog.size());
+        } finally {
+            eventLog.close();
+        }
+
+        MappedFileEventLog reopened = open();
+        try {
+            assertEquals(2, reopened.size());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run the callback before the next append is written")
+    void shouldRunCallbackInAppendOrder() {
+        MappedFileEventLog eventLog = open();
+        try {
+            List<Long> sizesSeen = new ArrayList<>();
+            eventLog.append(events(2), () -> sizesSeen.add(eventLog.size()));
+            eventLog.append(events(3), () -> sizesSeen.add(eventLog.size()));
+
+            assertEquals(List.of(2L, 5L), sizesSeen);
+        } finally {
+            eventLog.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse appends once closed")
+    void shouldRefuseAppendsOnceClosed() {
+        MappedFileEventLog eventLog = open();
+        eventLog.close();
+
+        assertThrows(IllegalStateException.class, () -> eventLog.append(events(1)));
+    }
+}
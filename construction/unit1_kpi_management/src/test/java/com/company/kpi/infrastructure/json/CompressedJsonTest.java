@@ -0,0 +1,45 @@
+package com.company.kpi.infrastructure.json;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GZIP-compressed JSON attributes
+ */
+@DisplayName("Compressed JSON Tests")
+class CompressedJsonTest {
+
+    @Test
+    @DisplayName("Should restore the original text")
+    void shouldRoundTrip() {
+        String json = "{\"name\":\"Umsatz je Mitarbeiter – Q1\",\"emoji\":\"📈\",\"values\":[1,2,3]}";
+
+        assertEquals(json, CompressedJson.decompress(CompressedJson.compress(json)));
+        assertEquals("", CompressedJson.decompress(CompressedJson.compress("")));
+    }
+
+    @Test
+    @DisplayName("Should shrink repetitive payloads")
+    void shouldShrinkRepetitivePayloads() {
+        String json = "[" + "{\"employeeId\":\"emp-001\",\"kpiId\":\"kpi-001\",\"weight\":10},".repeat(200) + "{}]";
+
+        SdkBytes compressed = CompressedJson.compress(json);
+
+        assertTrue(compressed.asByteArray().length < json.getBytes(StandardCharsets.UTF_8).length / 10);
+        assertEquals(json, CompressedJson.decompress(compressed));
+    }
+
+    @Test
+    @DisplayName("Should reject data that is not GZIP")
+    void shouldRejectDataThatIsNotGzip() {
+        SdkBytes plain = SdkBytes.fromUtf8String("{\"a\":1}");
+
+        assertThrows(UncheckedIOException.class, () -> CompressedJson.decompress(plain));
+    }
+}
@@ -0,0 +1,138 @@
+package com.company.kpi.infrastructure.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for JSON Patch diffing and application
+ */
+@DisplayName("JSON Patch Tests")
+class JsonPatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode json(String text) throws JsonProcessingException {
+        return objectMapper.readTree(text.replace('\'', '"'));
+    }
+
+    @Test
+    @DisplayName("Should produce an empty patch for equal documents")
+    void shouldProduceEmptyPatchForEqualDocuments() throws JsonProcessingException {
+        assertEquals(0, JsonPatch.diff(json("{'a':1,'b':[1,2]}"), json("{'b':[1,2],'a':1}")).size());
+    }
+
+    @Test
+    @DisplayName("Should only patch the members that changed")
+    void shouldPatchChangedMembersOnly() throws JsonProcessingException {
+        ArrayNode patch = JsonPatch.diff(
+            json("{'name':'Revenue','weight':10,'owner':{'id':'u-1','team':'A'},'old':true}"),
+            json("{'name':'Revenue','weight':20,'owner':{'id':'u-1','team':'B'},'new':'x'}"));
+
+        assertEquals(json("["
+            + "{'op':'replace','path':'/weight','value':20},"
+            + "{'op':'replace','path':'/owner/team','value':'B'},"
+            + "{'op':'remove','path':'/old'},"
+            + "{'op':'add','path':'/new','value':'x'}]"), patch);
+    }
+
+    @Test
+    @DisplayName("Should patch equal-length arrays per element and replace resized arrays")
+    void shouldDiffArrays() throws JsonProcessingException {
+        assertEquals(json("[{'op':'replace','path':'/tags/1','value':'c'}]"),
+            JsonPatch.diff(json("{'tags':['a','b']}"), json("{'tags':['a','c']}")));
+        assertEquals(json("[{'op':'replace','path':'/tags','value':['a']}]"),
+            JsonPatch.diff(json("{'tags':['a','b']}"), json("{'tags':['a']}")));
+    }
+
+    @Test
+    @DisplayName("Should escape member names in paths")
+    void shouldEscapeMemberNames() throws JsonProcessingException {
+        JsonNode source = json("{'a/b':1,'c~d':1}");
+        JsonNode target = json("{'a/b':2,'c~d':3}");
+
+        ArrayNode patch = JsonPatch.diff(source, target);
+
+        assertEquals("/a~1b", patch.get(0).get("path").asText());
+        assertEquals("/c~0d", patch.get(1).get("path").asText());
+        assertEquals(target, JsonPatch.apply(source, patch));
+    }
+
+    @Test
+    @DisplayName("Should rebuild the target from the source and the patch")
+    void shouldRoundTrip() throws JsonProcessingException {
+        JsonNode source = json("{'id':'k-1','targets':[{'value':5},{'value':7}],'meta':{'a':null}}");
+        JsonNode target = json("{'id':'k-1','targets':[{'value':5},{'value':9}],'meta':{'b':[1]},'active':false}");
+
+        assertEquals(target, JsonPatch.apply(source, JsonPatch.diff(source, target)));
+    }
+
+    @Test
+    @DisplayName("Should treat a missing source as null")
+    void shouldTreatMissingSourceAsNull() throws JsonProcessingException {
+        JsonNode target = json("{'name':'New KPI'}");
+
+        ArrayNode patch = JsonPatch.diff(null, target);
+
+        assertEquals(json("[{'op':'replace','path':'','value':{'name':'New KPI'}}]"), patch);
+        assertEquals(target, JsonPatch.apply(null, patch));
+        assertEquals(NullNode.getInstance(), JsonPatch.apply(target, JsonPatch.diff(target, null)));
+    }
+
+    @Test
+    @DisplayName("Should leave the source document unchanged")
+    void shouldNotModifySource() throws JsonProcessingException {
+        JsonNode source = json("{'a':{'b':1}}");
+
+        JsonPatch.apply(source, json("[{'op':'replace','path':'/a/b','value':2},{'op':'add','path':'/c','value':3}]"));
+
+        assertEquals(json("{'a':{'b':1}}"), source);
+    }
+
+    @Test
+    @DisplayName("Should apply array insertions and removals")
+    void shouldApplyArrayOperations() throws JsonProcessingException {
+        JsonNode patched = JsonPatch.apply(json("{'list':[1,2,3]}"), json("["
+            + "{'op':'add','path':'/list/0','value':0},"
+            + "{'op':'add','path':'/list/-','value':4},"
+            + "{'op':'remove','path':'/list/2'}]"));
+
+        assertEquals(json("{'list':[0,1,3,4]}"), patched);
+    }
+
+    @Test
+    @DisplayName("Should reject patches that do not fit the document")
+    void shouldRejectPatchesThatDoNotFit() throws JsonProcessingException {
+        JsonNode source = json("{'a':{'b':1},'list':[1]}");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonPatch.apply(source, json("[{'op':'replace','path':'/missing/b','value':2}]")));
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonPatch.apply(source, json("[{'op':'remove','path':'/missing'}]")));
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonPatch.apply(source, json("[{'op':'replace','path':'/list/5','value':2}]")));
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonPatch.apply(source, json("[{'op':'remove','path':''}]")));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed patches")
+    void shouldRejectMalformedPatches() throws JsonProcessingException {
+        JsonNode source = json("{'a':1}");
+
+        assertThrows(IllegalArgumentException.class, () -> JsonPatch.apply(source, json("{'op':'add'}")));
+        assertThrows(IllegalArgumentException.class, () -> JsonPatch.apply(source, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonPatch.apply(source, json("[{'op':'move','from':'/a','path':'/b'}]")));
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonPatch.apply(source, json("[{'op':'add','path':'/b'}]")));
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonPatch.apply(source, json("[{'op':'add','path':'b','value':1}]")));
+    }
+}
@@ -0,0 +1,82 @@
+package com.company.kpi.infrastructure.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for single-pass JWT verification and the verified-token cache
+ */
+@DisplayName("JWT Util Tests")
+class JwtUtilTest {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    private final SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxTtl", Duration.ofMinutes(15));
+        jwtUtil.init();
+    }
+
+    @Test
+    @DisplayName("Should return the principal of a valid token")
+    void shouldAuthenticateValidToken() {
+        Instant expiry = Instant.now().plusSeconds(600);
+        String token = Jwts.builder().subject("alice").claim("userId", "u-1").claim("role", "HR")
+            .expiration(Date.from(expiry)).signWith(key).compact();
+
+        Optional<JwtPrincipal> principal = jwtUtil.authenticate(token);
+
+        assertTrue(principal.isPresent());
+        assertEquals("alice", principal.get().username());
+        assertEquals("u-1", principal.get().userId());
+        assertEquals("HR", principal.get().role());
+        assertEquals(principal, jwtUtil.authenticate(token));
+    }
+
+    @Test
+    @DisplayName("Should reject a token without an expiry")
+    void shouldRejectTokenWithoutExpiry() {
+        String token = Jwts.builder().subject("alice").signWith(key).compact();
+
+        assertTrue(jwtUtil.authenticate(token).isEmpty());
+        assertTrue(jwtUtil.authenticate(token).isEmpty());
+        assertFalse(jwtUtil.validateToken(token));
+    }
+
+    @Test
+    @DisplayName("Should reject an expired token")
+    void shouldRejectExpiredToken() {
+        String token = Jwts.builder().subject("alice")
+            .expiration(Date.from(Instant.now().minusSeconds(60))).signWith(key).compact();
+
+        assertTrue(jwtUtil.authenticate(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a token signed with another key")
+    void shouldRejectForeignSignature() {
+        SecretKey otherKey = Keys.hmacShaKeyFor("anotherSecretKey12345678901234567890123456".getBytes());
+        String token = Jwts.builder().subject("alice")
+            .expiration(Date.from(Instant.now().plusSeconds(600))).signWith(otherKey).compact();
+
+        assertTrue(jwtUtil.authenticate(token).isEmpty());
+    }
+}
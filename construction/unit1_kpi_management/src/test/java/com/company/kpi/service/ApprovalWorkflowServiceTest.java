@@ -0,0 +1,224 @@
+package com.company.kpi.service;
+
+import com.company.kpi.model.ApprovalStatus;
+import com.company.kpi.model.ApprovalWorkflow;
+import com.company.kpi.model.ChangeRequestType;
+import com.company.kpi.model.KPIDefinition;
+import com.company.kpi.model.dto.BulkApprovalDecisionResponse;
+import com.company.kpi.model.dto.BulkApprovalDecisionResponse.ItemResult;
+import com.company.kpi.model.dto.BulkApprovalDecisionResponse.Outcome;
+import com.company.kpi.repository.interfaces.ApprovalWorkflowRepositoryInterface;
+import com.company.kpi.repository.interfaces.ApprovalWorkflowRepositoryInterface.DecisionWriteResult;
+import com.company.kpi.repository.interfaces.KPIDefinitionRepositoryInterface;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the approval workflow service
+ */
+@DisplayName("Approval Workflow Service Tests")
+@ExtendWith(MockitoExtension.class)
+class ApprovalWorkflowServiceTest {
+
+    private static final String CHECKER = "checker-1";
+
+    @Mock
+    private ApprovalWorkflowRepositoryInterface approvalWorkflowRepository;
+
+    @Mock
+    private KPIDefinitionRepositoryInterface kpiDefinitionRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @InjectMocks
+    private ApprovalWorkflowService approvalWorkflowService;
+
+    private static ApprovalWorkflow pendingWorkflow(String workflowId) {
+        ApprovalWorkflow workflow = new ApprovalWorkflow(ChangeRequestType.ASSIGNMENT_CREATE, "entity-" + workflowId, "maker-1");
+        workflow.setWorkflowId(workflowId);
+        workflow.setCheckerId(CHECKER);
+        return workflow;
+    }
+
+    private static Map<String, Outcome> outcomes(BulkApprovalDecisionResponse response) {
+        return response.getResults().stream().collect(Collectors.toMap(ItemResult::getWorkflowId, ItemResult::getOutcome));
+    }
+
+    @Nested
+    @DisplayName("Bulk Decision Tests")
+    class BulkDecisionTest {
+
+        @Test
+        @DisplayName("Should report one result per workflow")
+        void shouldReportOneResultPerWorkflow() {
+            ApprovalWorkflow decided = pendingWorkflow("wf-3");
+            decided.setStatus(ApprovalStatus.REJECTED);
+            when(approvalWorkflowRepository.findAllByIds(any())).thenReturn(Map.of(
+                "wf-1", pendingWorkflow("wf-1"), "wf-2", pendingWorkflow("wf-2"), "wf-3", decided));
+            when(approvalWorkflowRepository.saveDecisions(anyList()))
+                .thenReturn(new DecisionWriteResult(Set.of("wf-2"), Set.of()));
+
+            BulkApprovalDecisionResponse response = approvalWorkflowService.decideRequests(
+                List.of("wf-1", "wf-2", "wf-3", "wf-4", "wf-1"), ApprovalStatus.APPROVED, CHECKER, "Reviewed");
+
+            assertEquals(4, response.getRequested());
+            assertEquals(1, response.getApplied());
+            assertEquals(Map.of("wf-1", Outcome.APPLIED, "wf-2", Outcome.CONFLICT, "wf-3", Outcome.INVALID,
+                "wf-4", Outcome.NOT_FOUND), outcomes(response));
+        }
+
+        @Test
+        @DisplayName("Should keep committed decisions when a later transaction fails")
+        void shouldReportFailedTransactionPerItem() {
+            when(approvalWorkflowRepository.findAllByIds(any())).thenReturn(Map.of(
+                "wf-1", pendingWorkflow("wf-1"), "wf-2", pendingWorkflow("wf-2")));
+            when(approvalWorkflowRepository.saveDecisions(anyList()))
+                .thenReturn(new DecisionWriteResult(Set.of(), Set.of("wf-2")));
+
+            BulkApprovalDecisionResponse response = approvalWorkflowService.decideRequests(
+                List.of("wf-1", "wf-2"), ApprovalStatus.REJECTED, CHECKER, "Not needed");
+
+            assertEquals(1, response.getApplied());
+            assertEquals(Map.of("wf-1", Outcome.APPLIED, "wf-2", Outcome.FAILED), outcomes(response));
+        }
+
+        @Test
+        @DisplayName("Should reject decisions other than approve or reject")
+        void shouldRejectPendingDecision() {
+            assertThrows(IllegalArgumentException.class, () -> approvalWorkflowService.decideRequests(
+                List.of("wf-1"), ApprovalStatus.PENDING, CHECKER, null));
+            verifyNoInteractions(approvalWorkflowRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Workflow Details Tests")
+    class WorkflowDetailsTest {
+
+        private static final LocalDateTime BASE_VERSION = LocalDateTime.of(2024, 5, 1, 9, 30);
+
+        private KPIDefinition kpi(String name, LocalDateTime updatedAt) {
+            KPIDefinition kpi = new KPIDefinition();
+            kpi.setId("kpi-1");
+            kpi.setName(name);
+            kpi.setUpdatedAt(updatedAt);
+            return kpi;
+        }
+
+        private ApprovalWorkflow submitRename() {
+            when(approvalWorkflowRepository.save(any(ApprovalWorkflow.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            approvalWorkflowService.submitForApproval(ChangeRequestType.KPI_UPDATE, "kpi-1",
+                kpi("Revenue", BASE_VERSION), kpi("Net Revenue", BASE_VERSION), "Rename", "maker-1");
+            ArgumentCaptor<ApprovalWorkflow> saved = ArgumentCaptor.forClass(ApprovalWorkflow.class);
+            verify(approvalWorkflowRepository).save(saved.capture());
+            return saved.getValue();
+        }
+
+        @Test
+        @DisplayName("Should keep only the base version of an entity original")
+        void shouldStoreBaseVersionInsteadOfOriginal() {
+            ApprovalWorkflow workflow = submitRename();
+
+            assertEquals(BASE_VERSION.toString(), workflow.getBaseVersion());
+            assertNull(workflow.getOriginalData());
+            assertNull(workflow.getCompressedOriginalData());
+        }
+
+        @Test
+        @DisplayName("Should rebuild original and proposed data while the entity is unchanged")
+        void shouldRebuildFromUnchangedEntity() throws Exception {
+            ApprovalWorkflow workflow = submitRename();
+            when(approvalWorkflowRepository.findById(workflow.getWorkflowId())).thenReturn(Optional.of(workflow));
+            when(kpiDefinitionRepository.findById("kpi-1")).thenReturn(Optional.of(kpi("Revenue", BASE_VERSION)));
+
+            ApprovalWorkflow details = approvalWorkflowService.getWorkflowDetails(workflow.getWorkflowId()).orElseThrow();
+
+            assertFalse(details.getBaseVersionChanged());
+            assertEquals("Revenue", objectMapper.readTree(details.getOriginalData()).get("name").asText());
+            assertEquals("Net Revenue", objectMapper.readTree(details.getProposedData()).get("name").asText());
+        }
+
+        @Test
+        @DisplayName("Should not rebuild from an entity that changed since the request")
+        void shouldNotRebuildFromChangedEntity() {
+            ApprovalWorkflow workflow = submitRename();
+            when(approvalWorkflowRepository.findById(workflow.getWorkflowId())).thenReturn(Optional.of(workflow));
+            when(kpiDefinitionRepository.findById("kpi-1"))
+                .thenReturn(Optional.of(kpi("Gross Revenue", BASE_VERSION.plusDays(1))));
+
+            ApprovalWorkflow details = approvalWorkflowService.getWorkflowDetails(workflow.getWorkflowId()).orElseThrow();
+
+            assertTrue(details.getBaseVersionChanged());
+            assertNull(details.getOriginalData());
+            assertNull(details.getProposedData());
+        }
+
+        @Test
+        @DisplayName("Should not rebuild when the entity was removed")
+        void shouldNotRebuildFromRemovedEntity() {
+            ApprovalWorkflow workflow = submitRename();
+            when(approvalWorkflowRepository.findById(workflow.getWorkflowId())).thenReturn(Optional.of(workflow));
+            when(kpiDefinitionRepository.findById("kpi-1")).thenReturn(Optional.empty());
+
+            ApprovalWorkflow details = approvalWorkflowService.getWorkflowDetails(workflow.getWorkflowId()).orElseThrow();
+
+            assertTrue(details.getBaseVersionChanged());
+            assertNull(details.getProposedData());
+        }
+
+        @Test
+        @DisplayName("Should keep showing a decided request after the entity changes")
+        void shouldRebuildDecidedRequestFromSnapshot() throws Exception {
+            ApprovalWorkflow workflow = submitRename();
+            workflow.setCheckerId(CHECKER);
+            when(approvalWorkflowRepository.findById(workflow.getWorkflowId())).thenReturn(Optional.of(workflow));
+            when(kpiDefinitionRepository.findById("kpi-1")).thenReturn(Optional.of(kpi("Revenue", BASE_VERSION)),
+                Optional.of(kpi("Net Revenue", BASE_VERSION.plusDays(1))));
+
+            approvalWorkflowService.approveRequest(workflow.getWorkflowId(), CHECKER, "Looks good");
+            ApprovalWorkflow details = approvalWorkflowService.getWorkflowDetails(workflow.getWorkflowId()).orElseThrow();
+
+            assertNotEquals(Boolean.TRUE, details.getBaseVersionChanged());
+            assertEquals("Revenue", objectMapper.readTree(details.getOriginalData()).get("name").asText());
+            assertEquals("Net Revenue", objectMapper.readTree(details.getProposedData()).get("name").asText());
+            verify(kpiDefinitionRepository, times(1)).findById("kpi-1");
+        }
+
+        @Test
+        @DisplayName("Should rebuild other originals from the stored snapshot")
+        void shouldRebuildFromSnapshot() throws Exception {
+            when(approvalWorkflowRepository.save(any(ApprovalWorkflow.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            ApprovalWorkflow workflow = approvalWorkflowService.submitForApproval(ChangeRequestType.HIERARCHY_CHANGE, "node-1",
+                Map.of("parentId", "a"), Map.of("parentId", "b"), "Move", "maker-1");
+            when(approvalWorkflowRepository.findById(workflow.getWorkflowId())).thenReturn(Optional.of(workflow));
+
+            ApprovalWorkflow details = approvalWorkflowService.getWorkflowDetails(workflow.getWorkflowId()).orElseThrow();
+
+            assertNull(workflow.getBaseVersion());
+            assertEquals("a", objectMapper.readTree(details.getOriginalData()).get("parentId").asText());
+            assertEquals("b", objectMapper.readTree(details.getProposedData()).get("parentId").asText());
+            verifyNoInteractions(kpiDefinitionRepository);
+        }
+    }
+}
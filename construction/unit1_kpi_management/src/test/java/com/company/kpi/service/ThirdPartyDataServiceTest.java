@@ -0,0 +1,195 @@
+package com.company.kpi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the third-party data service against local stub API endpoints
+ */
+@DisplayName("Third-Party Data Service Tests")
+class ThirdPartyDataServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 3, 31);
+
+    private HttpServer server;
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private final CountDownLatch releaseSlowResponses = new CountDownLatch(1);
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private volatile String responseBody = "{\"totalSize\":1,\"records\":[{\"expr0\":125000}]}";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThirdPartyDataService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/services/data/v52.0/query", this::handleQuery);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+        service = new ThirdPartyDataService(httpClient, new ObjectMapper(), meterRegistry, new MockEnvironment(),
+            100, Duration.ofMinutes(1), Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(service, "salesforceApiUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(service, "salesforceToken", "stub-token");
+        ReflectionTestUtils.setField(service, "requestTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(service, "fetchAllTimeout", Duration.ofSeconds(3));
+        ReflectionTestUtils.setField(service, "simulateApiCalls", false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlowResponses.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleQuery(HttpExchange exchange) throws IOException {
+        queries.add(URLDecoder.decode(exchange.getRequestURI().getRawQuery().substring("q=".length()), StandardCharsets.UTF_8));
+        authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+        byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status.get(), body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Test
+    @DisplayName("Should return the Salesforce response and record a success")
+    void shouldReturnSalesforceResponse() {
+        Map<String, Object> data = service.fetchSalesData("emp-1", START, END);
+
+        assertEquals(1, data.get("totalSize"));
+        assertEquals(List.of("Bearer stub-token"), authorizations);
+        assertEquals(1, meterRegistry.get("kpi.third-party.fetch").tag("source", "sales").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should escape the employee ID in the single-employee query")
+    void shouldEscapeEmployeeIdInSingleQuery() {
+        service.fetchSalesData("x' OR OwnerId != 'y\\", START, END);
+
+        assertEquals(1, queries.size());
+        assertTrue(queries.get(0).contains("WHERE OwnerId='x\\' OR OwnerId != \\'y\\\\' AND CloseDate >= 2024-01-01"),
+            queries.get(0));
+    }
+
+    @Test
+    @DisplayName("Should escape every employee ID in the bulk query")
+    void shouldEscapeEmployeeIdsInBulkQuery() {
+        responseBody = "{\"records\":[{\"attributes\":{},\"OwnerId\":\"emp-1\",\"total_revenue\":5,\"deals_closed\":2}]}";
+
+        Map<String, Map<String, Object>> byOwner = service.loadSalesDataBulk(List.of("emp-1", "o'brien"), START, END).join();
+
+        assertTrue(queries.get(0).contains("WHERE OwnerId IN ('emp-1','o\\'brien')"), queries.get(0));
+        assertEquals(Map.of("employee_id", "emp-1", "total_revenue", 5, "deals_closed", 2, "data_source", "salesforce-api",
+            "last_updated", LocalDate.now().toString()), byOwner.get("emp-1"));
+        assertFalse(byOwner.containsKey("o'brien"));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the cache")
+    void shouldServeRepeatedLookupsFromCache() {
+        Map<String, Object> first = service.fetchSalesData("emp-1", START, END);
+        Map<String, Object> second = service.fetchSalesData("emp-1", START, END);
+
+        assertEquals(first, second);
+        assertEquals(1, queries.size());
+    }
+
+    @Test
+    @DisplayName("Should fall back to simulated data and record a failure on an error status")
+    void shouldFallBackOnErrorStatus() {
+        status.set(503);
+
+        Map<String, Object> data = service.fetchSalesData("emp-1", START, END);
+
+        assertEquals("emp-1", data.get("employee_id"));
+        assertNotNull(data.get("total_revenue"));
+        assertEquals(1, meterRegistry.get("kpi.third-party.fetch").tag("source", "sales").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should return the answered sources once the timeout passes")
+    void shouldReturnPartialResultsWhenSourceIsSlow() {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        server.createContext("/v3/surveys/satisfaction/responses", exchange -> {
+            try {
+                releaseSlowResponses.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/v1/tasks/completed", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        ReflectionTestUtils.setField(service, "surveyApiUrl", baseUrl);
+        ReflectionTestUtils.setField(service, "projectManagementApiUrl", baseUrl);
+        ReflectionTestUtils.setField(service, "fetchAllTimeout", Duration.ofMillis(500));
+
+        long start = System.nanoTime();
+        Map<String, Object> result = service.fetchAllSources("emp-1", START, END);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 1500, "Took " + elapsedMillis + " ms");
+        Map<?, ?> sources = (Map<?, ?>) result.get("sources");
+        assertEquals(List.of(ThirdPartyDataService.SALES, ThirdPartyDataService.PRODUCTIVITY,
+            ThirdPartyDataService.MARKETING_ROI, ThirdPartyDataService.QUALITY), List.copyOf(sources.keySet()));
+        assertEquals(1, ((Map<?, ?>) sources.get(ThirdPartyDataService.SALES)).get("totalSize"));
+        assertEquals(List.of(ThirdPartyDataService.CUSTOMER_SATISFACTION), result.get("unavailable_sources"));
+        assertEquals(1, meterRegistry.get("kpi.third-party.fetch.unavailable")
+            .tag("source", ThirdPartyDataService.CUSTOMER_SATISFACTION).counter().count());
+        assertEquals(1, meterRegistry.get("kpi.third-party.fetch")
+            .tag("source", ThirdPartyDataService.PRODUCTIVITY).tag("outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get("kpi.third-party.fetch")
+            .tag("source", ThirdPartyDataService.SALES).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should not call the API in simulation mode")
+    void shouldNotCallApiWhenSimulating() {
+        ReflectionTestUtils.setField(service, "simulateApiCalls", true);
+
+        Map<String, Object> data = service.fetchSalesData("emp-1", START, END);
+
+        assertEquals("emp-1", data.get("employee_id"));
+        assertTrue(queries.isEmpty());
+        assertEquals(1, meterRegistry.get("kpi.third-party.fetch").tag("source", "sales").tag("outcome", "simulated").timer().count());
+    }
+}
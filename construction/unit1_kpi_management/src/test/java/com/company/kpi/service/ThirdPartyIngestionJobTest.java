@@ -0,0 +1,183 @@
+package com.company.kpi.service;
+
+import com.company.kpi.model.AssignmentStatus;
+import com.company.kpi.model.IngestionCheckpoint;
+import com.company.kpi.model.KPIAssignment;
+import com.company.kpi.model.KPICategory;
+import com.company.kpi.model.KPIDefinition;
+import com.company.kpi.repository.ThirdPartyIngestionRepository;
+import com.company.kpi.repository.interfaces.KPIAssignmentRepositoryInterface;
+import com.company.kpi.repository.interfaces.KPIDefinitionRepositoryInterface;
+import com.company.kpi.service.ThirdPartyIngestionJob.CheckpointTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the third-party ingestion job and its checkpointing
+ */
+@DisplayName("Third-Party Ingestion Job Tests")
+@ExtendWith(MockitoExtension.class)
+class ThirdPartyIngestionJobTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    @Mock
+    private KPIAssignmentRepositoryInterface kpiAssignmentRepository;
+
+    @Mock
+    private KPIDefinitionRepositoryInterface kpiDefinitionRepository;
+
+    @Mock
+    private ThirdPartyDataService thirdPartyDataService;
+
+    @Mock
+    private ThirdPartyIngestionRepository ingestionRepository;
+
+    @InjectMocks
+    private ThirdPartyIngestionJob ingestionJob;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ingestionJob, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(ingestionJob, "batchSize", 2);
+        ReflectionTestUtils.setField(ingestionJob, "concurrency", 1);
+        ReflectionTestUtils.setField(ingestionJob, "salesforcePermitsPerSecond", 1000.0);
+        ReflectionTestUtils.setField(ingestionJob, "surveyPermitsPerSecond", 1000.0);
+        ReflectionTestUtils.setField(ingestionJob, "burst", 100);
+    }
+
+    private static IngestionCheckpoint checkpoint(IngestionCheckpoint.Status status, String lastCompletedEmployeeId) {
+        IngestionCheckpoint checkpoint = new IngestionCheckpoint(ThirdPartyDataService.SALES, DAY);
+        checkpoint.setStatus(status);
+        checkpoint.setLastCompletedEmployeeId(lastCompletedEmployeeId);
+        return checkpoint;
+    }
+
+    private void givenSalesEmployees(String... employeeIds) {
+        KPIDefinition revenue = new KPIDefinition();
+        revenue.setId("kpi-sales");
+        revenue.setCategory(KPICategory.SALES);
+        List<KPIAssignment> assignments = Arrays.stream(employeeIds)
+            .map(employeeId -> new KPIAssignment(employeeId, "kpi-sales", "admin"))
+            .toList();
+        when(kpiAssignmentRepository.findByStatus(AssignmentStatus.ACTIVE)).thenReturn(assignments);
+        when(kpiDefinitionRepository.findAllByIds(any())).thenReturn(Map.of("kpi-sales", revenue));
+        when(thirdPartyDataService.loadSalesDataBulk(anyList(), eq(DAY), eq(DAY))).thenAnswer(invocation -> {
+            List<String> batch = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(batch.stream()
+                .collect(Collectors.toMap(employeeId -> employeeId, employeeId -> Map.<String, Object>of("revenue", 1))));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<String>> requestedBatches() {
+        ArgumentCaptor<List<String>> batches = ArgumentCaptor.forClass(List.class);
+        verify(thirdPartyDataService, atLeast(0)).loadSalesDataBulk(batches.capture(), any(), any());
+        return batches.getAllValues();
+    }
+
+    @Nested
+    @DisplayName("Checkpoint Tracker Tests")
+    class CheckpointTrackerTest {
+
+        private final List<List<String>> batches = List.of(
+            List.of("emp-1", "emp-2"), List.of("emp-3", "emp-4"), List.of("emp-5"));
+
+        @Test
+        @DisplayName("Should only advance past a contiguous prefix of stored batches")
+        void shouldAdvanceOverContiguousPrefixOnly() {
+            IngestionCheckpoint checkpoint = checkpoint(IngestionCheckpoint.Status.RUNNING, null);
+            CheckpointTracker tracker = new CheckpointTracker(checkpoint, batches, ingestionRepository);
+
+            tracker.batchFinished(2, true);
+            assertNull(checkpoint.getLastCompletedEmployeeId());
+            verifyNoInteractions(ingestionRepository);
+
+            tracker.batchFinished(0, true);
+            assertEquals("emp-2", checkpoint.getLastCompletedEmployeeId());
+
+            tracker.batchFinished(1, true);
+            assertEquals("emp-5", checkpoint.getLastCompletedEmployeeId());
+            assertEquals(5, checkpoint.getProcessedCount());
+            assertEquals(IngestionCheckpoint.Status.COMPLETED, tracker.finish().getStatus());
+        }
+
+        @Test
+        @DisplayName("Should stop at the first failed batch even when later batches are stored")
+        void shouldStopAtFirstFailure() {
+            IngestionCheckpoint checkpoint = checkpoint(IngestionCheckpoint.Status.RUNNING, null);
+            CheckpointTracker tracker = new CheckpointTracker(checkpoint, batches, ingestionRepository);
+
+            tracker.batchFinished(0, true);
+            tracker.batchFinished(2, true);
+            tracker.batchFinished(1, false);
+
+            assertEquals("emp-2", checkpoint.getLastCompletedEmployeeId());
+            assertEquals(3, checkpoint.getProcessedCount());
+            assertEquals(2, checkpoint.getFailedCount());
+            assertEquals(IngestionCheckpoint.Status.FAILED, tracker.finish().getStatus());
+            assertEquals("emp-2", checkpoint.getLastCompletedEmployeeId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Resume Tests")
+    class ResumeTest {
+
+        @Test
+        @DisplayName("Should resume a failed day after its last completed employee")
+        void shouldResumeFromPartialCheckpoint() {
+            givenSalesEmployees("emp-1", "emp-2", "emp-3", "emp-4", "emp-5");
+            when(ingestionRepository.findCheckpoint(ThirdPartyDataService.SALES, DAY))
+                .thenReturn(Optional.of(checkpoint(IngestionCheckpoint.Status.FAILED, "emp-2")));
+
+            IngestionCheckpoint finished = ingestionJob.ingest(DAY).get(ThirdPartyDataService.SALES);
+
+            assertEquals(List.of(List.of("emp-3", "emp-4"), List.of("emp-5")), requestedBatches());
+            assertEquals(IngestionCheckpoint.Status.COMPLETED, finished.getStatus());
+            assertEquals("emp-5", finished.getLastCompletedEmployeeId());
+            assertEquals(5, finished.getProcessedCount());
+        }
+
+        @Test
+        @DisplayName("Should resume only unfinished checkpoints of earlier days")
+        void shouldResumeOnlyUnfinishedCheckpoints() {
+            givenSalesEmployees("emp-1", "emp-2", "emp-3");
+            when(ingestionRepository.findCheckpoint(anyString(), any())).thenReturn(Optional.empty());
+            when(ingestionRepository.findCheckpoint(ThirdPartyDataService.SALES, DAY.minusDays(1)))
+                .thenReturn(Optional.of(checkpoint(IngestionCheckpoint.Status.COMPLETED, "emp-3")));
+            when(ingestionRepository.findCheckpoint(ThirdPartyDataService.SALES, DAY))
+                .thenReturn(Optional.of(checkpoint(IngestionCheckpoint.Status.RUNNING, "emp-1")));
+
+            Map<LocalDate, Map<String, IngestionCheckpoint>> resumed =
+                ingestionJob.resumeUnfinished(DAY.minusDays(2), DAY);
+
+            assertEquals(List.of(DAY), List.copyOf(resumed.keySet()));
+            assertEquals(List.of(ThirdPartyDataService.SALES), List.copyOf(resumed.get(DAY).keySet()));
+            assertEquals(IngestionCheckpoint.Status.COMPLETED, resumed.get(DAY).get(ThirdPartyDataService.SALES).getStatus());
+            assertEquals(List.of(List.of("emp-2", "emp-3")), requestedBatches());
+            verify(thirdPartyDataService, never()).loadCustomerSatisfactionData(any(), any(), any());
+        }
+    }
+}
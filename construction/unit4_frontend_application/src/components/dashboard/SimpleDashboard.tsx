@@ -20,20 +20,31 @@ export const SimpleDashboard: React.FC = () => {
 
       try {
         setLoading(true)
-        const response = await fetch('http://localhost:8080/api/v1/kpi-management/kpis', {
-          headers: {
-            'Authorization': `Basic ${token}`,
-            'Content-Type': 'application/json'
+        const items: any[] = []
+        let cursor: string | null = null
+        do {
+          const params = new URLSearchParams({ limit: '200' })
+          if (cursor) {
+            params.set('cursor', cursor)
           }
-        })
+          const response = await fetch(`http://localhost:8080/api/v1/kpi-management/kpis?${params}`, {
+            headers: {
+              'Authorization': `Basic ${token}`,
+              'Content-Type': 'application/json'
+            }
+          })
 
-        if (response.ok) {
-          const data = await response.json()
-          setKpis(data)
-          setError(null)
-        } else {
-          setError(`Failed to fetch KPIs: ${response.status} ${response.statusText}`)
-        }
+          if (!response.ok) {
+            setError(`Failed to fetch KPIs: ${response.status} ${response.statusText}`)
+            return
+          }
+          const page = await response.json()
+          items.push(...page.items)
+          cursor = page.nextCursor ?? null
+        } while (cursor)
+
+        setKpis(items)
+        setError(null)
       } catch (err) {
         setError(`Network error: ${err instanceof Error ? err.message : 'Unknown error'}`)
       } finally {
@@ -106,7 +106,7 @@ export const ConnectionTest: React.FC = () => {
         testResults[1] = {
           name: 'API Authentication',
           status: 'success',
-          message: `Authentication successful as ${user?.firstName} ${user?.lastName} (${data.length || 0} KPIs found)`,
+          message: `Authentication successful as ${user?.firstName} ${user?.lastName} (${data.count || 0}${data.hasMore ? '+' : ''} KPIs found)`,
           details: data
         }
       } else if (authResponse.status === 401) {
@@ -1,4 +1,5 @@
 import { createApi, fetchBaseQuery } from '@reduxjs/toolkit/query/react'
+import type { FetchArgs, FetchBaseQueryError } from '@reduxjs/toolkit/query/react'
 import type { RootState } from '../store'
 
 // Backend API Types (matching the actual backend)
@@ -119,6 +120,39 @@ export interface AISuggestion {
   createdAt: string
 }
 
+// One page of a cursor-paged endpoint
+export interface PagedResponse<T> {
+  items: T[]
+  nextCursor?: string | null
+  count: number
+  hasMore: boolean
+}
+
+// Largest page size the backend accepts
+const PAGE_SIZE = 200
+
+type PageQuery = (arg: FetchArgs) => Promise<{ data?: unknown; error?: FetchBaseQueryError }> | { data?: unknown; error?: FetchBaseQueryError }
+
+// Follows nextCursor until the last page, so callers receive every item of a paged endpoint
+const fetchAllPages = async <T>(
+  baseQuery: PageQuery,
+  url: string,
+  params: Record<string, unknown>
+): Promise<{ data: T[] } | { error: FetchBaseQueryError }> => {
+  const items: T[] = []
+  let cursor: string | undefined
+  do {
+    const result = await baseQuery({ url, params: { ...params, limit: PAGE_SIZE, cursor } })
+    if (result.error) {
+      return { error: result.error }
+    }
+    const page = result.data as PagedResponse<T>
+    items.push(...page.items)
+    cursor = page.nextCursor ?? undefined
+  } while (cursor)
+  return { data: items }
+}
+
 const getAuthHeaders = (getState: () => unknown) => {
   const state = getState() as RootState
   const auth = state.session?.authentication
@@ -151,10 +185,11 @@ export const kpiManagementApi = createApi({
   endpoints: (builder) => ({
     // KPI Definitions
     getKPIDefinitions: builder.query<KPIDefinition[], KPIFilters>({
-      query: (filters = {}) => ({
-        url: '/kpi-management/kpis',
-        params: filters
-      }),
+      queryFn: (filters = {}, _api, _extraOptions, baseQuery) =>
+        fetchAllPages<KPIDefinition>(baseQuery, '/kpi-management/kpis', {
+          category: filters.category,
+          activeOnly: filters.activeOnly
+        }),
       providesTags: ['KPIDefinition'],
     }),
 
@@ -191,15 +226,14 @@ export const kpiManagementApi = createApi({
 
     // KPI Assignments
     getKPIAssignments: builder.query<KPIAssignment[], { employeeId?: string; supervisorId?: string; kpiId?: string; effectiveDate?: string }>({
-      query: (filters = {}) => ({
-        url: '/kpi-management/assignments',
-        params: {
+      // The endpoint returns cursor pages; all of them are fetched
+      queryFn: (filters = {}, _api, _extraOptions, baseQuery) =>
+        fetchAllPages<KPIAssignment>(baseQuery, '/kpi-management/assignments', {
           employee_id: filters.employeeId,
           supervisor_id: filters.supervisorId,
           kpi_id: filters.kpiId,
           effective_date: filters.effectiveDate
-        }
-      }),
+        }),
       providesTags: ['KPIAssignment'],
     }),
 